@@ -0,0 +1,43 @@
+package brendanddev.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The order in which a benchmark visits the elements of a collection.
+ *
+ * Sequential access walks indices in order, which is friendly to the CPU caches and prefetcher.
+ * Random access visits the same indices in a shuffled order, which shows how much a structure
+ * depends on locality. The shuffle uses a fixed seed so every run visits the same sequence.
+ */
+public enum AccessPattern {
+
+    SEQUENTIAL,
+    RANDOM;
+
+    // Fixed seed for consistent results between runs
+    private static final long SEED = 42;
+
+    /**
+     * Builds the sequence of indices in [0, size) to visit for this pattern
+     *
+     * @param size The number of elements in the collection
+     * @return An array containing every index exactly once, in visiting order
+     */
+    public int[] indices(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        if (this == RANDOM) {
+            // Fisher-Yates shuffle
+            Random random = new Random(SEED);
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = indices[i];
+                indices[i] = indices[j];
+                indices[j] = tmp;
+            }
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,87 @@
+package brendanddev.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brendanddev.collections.iterator.SimpleContainer;
+import brendanddev.collections.list.CustomList;
+
+/**
+ * Measures how a parallel sum over 10M elements scales with the number of cores, using the
+ * index range spliterators of CustomList and SimpleContainer.
+ *
+ * The stream runs inside a dedicated ForkJoinPool with the given parallelism, so the same
+ * JVM can be measured with 1 to N worker threads. The 'sequential' benchmark gives the
+ * single threaded baseline without any splitting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelStreamBenchmark {
+
+    @Param({"10000000"})
+    int size;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"CUSTOM_LIST", "SIMPLE_CONTAINER"})
+    String source;
+
+    CustomList<Integer> list;
+    SimpleContainer<Integer> container;
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new CustomList<>(size);
+        container = new SimpleContainer<>();
+        for (int i = 0; i < size; i++) {
+            Integer value = i;
+            list.add(value);
+            container.add(value);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private Stream<Integer> stream(boolean parallel) {
+        if ("CUSTOM_LIST".equals(source)) {
+            return parallel ? list.parallelStream() : list.stream();
+        }
+        return parallel ? container.parallelStream() : container.stream();
+    }
+
+    @Benchmark
+    public long parallelSum() {
+        // Tasks forked from inside a pool worker stay in that pool
+        return pool.submit(() -> stream(true).mapToLong(Integer::longValue).sum()).join();
+    }
+
+    @Benchmark
+    public long sequential() {
+        return stream(false).mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,112 @@
+package brendanddev.collections.equalsandhashcode;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the cached hash code of BetterHashCollision against the Objects.hash(name, id) implementation it
+ * used to have, which is kept here as ObjectsHashKey.
+ *
+ * The hashCode benchmarks call hashCode() on a single key. Run them with '-prof gc': the gc.alloc.rate.norm
+ * of cachedHashCode is 0 B/op, while objectsHashCode allocates the varargs Object[] and, for ids outside the
+ * Integer cache, a boxed Integer on every call (unless escape analysis happens to remove them).
+ *
+ * The lookup benchmarks repeat the loop of Main.comparePerformance(), building a new key for every contains()
+ * call. The names are built during setup so the String concatenation is not measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashCodeBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    Set<BetterHashCollision> cachedSet;
+    Set<ObjectsHashKey> objectsHashSet;
+    String[] names;
+    BetterHashCollision cachedKey;
+    ObjectsHashKey objectsHashKey;
+
+    @Setup
+    public void setUp() {
+        cachedSet = new HashSet<>();
+        objectsHashSet = new HashSet<>();
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "Person" + i;
+            cachedSet.add(new BetterHashCollision(names[i], i));
+            objectsHashSet.add(new ObjectsHashKey(names[i], i));
+        }
+        cachedKey = new BetterHashCollision("Person" + size, size + 1000);
+        objectsHashKey = new ObjectsHashKey("Person" + size, size + 1000);
+    }
+
+    @Benchmark
+    public int cachedHashCode() {
+        return cachedKey.hashCode();
+    }
+
+    @Benchmark
+    public int objectsHashCode() {
+        return objectsHashKey.hashCode();
+    }
+
+    @Benchmark
+    public void cachedHashLookup(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(cachedSet.contains(new BetterHashCollision(names[i], i)));
+        }
+    }
+
+    @Benchmark
+    public void objectsHashLookup(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(objectsHashSet.contains(new ObjectsHashKey(names[i], i)));
+        }
+    }
+
+    /**
+     * The previous BetterHashCollision, hashing through Objects.hash() on every call
+     */
+    static final class ObjectsHashKey {
+        private final String name;
+        private final int id;
+
+        ObjectsHashKey(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ObjectsHashKey other = (ObjectsHashKey) o;
+            return this.id == other.id && Objects.equals(this.name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, id);
+        }
+    }
+}
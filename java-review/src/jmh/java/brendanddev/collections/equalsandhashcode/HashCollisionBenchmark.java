@@ -0,0 +1,82 @@
+package brendanddev.collections.equalsandhashcode;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import brendanddev.benchmarks.AccessPattern;
+
+/**
+ * JMH version of Main.comparePerformance(), comparing HashSet lookups keyed by the
+ * colliding HashCollision against the well distributed BetterHashCollision.
+ *
+ * The lookup keys are built during setup, so only the contains() calls are measured
+ * and not the String concatenation that creates the keys. Every benchmark reports both
+ * throughput and average time. Run it with '-prof gc' to also get the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashCollisionBenchmark {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    AccessPattern pattern;
+
+    Set<HashCollision> poorHashSet;
+    Set<BetterHashCollision> goodHashSet;
+    HashCollision[] poorKeys;
+    BetterHashCollision[] goodKeys;
+
+    @Setup
+    public void setUp() {
+        poorHashSet = new HashSet<>();
+        goodHashSet = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            poorHashSet.add(new HashCollision("Person" + i, i));
+            goodHashSet.add(new BetterHashCollision("Person" + i, i));
+        }
+
+        // Equal but distinct key instances, as a real lookup would use
+        int[] indices = pattern.indices(size);
+        poorKeys = new HashCollision[size];
+        goodKeys = new BetterHashCollision[size];
+        for (int i = 0; i < size; i++) {
+            int id = indices[i];
+            poorKeys[i] = new HashCollision("Person" + id, id);
+            goodKeys[i] = new BetterHashCollision("Person" + id, id);
+        }
+    }
+
+    @Benchmark
+    public void poorHashContains(Blackhole bh) {
+        for (HashCollision key : poorKeys) {
+            bh.consume(poorHashSet.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void goodHashContains(Blackhole bh) {
+        for (BetterHashCollision key : goodKeys) {
+            bh.consume(goodHashSet.contains(key));
+        }
+    }
+}
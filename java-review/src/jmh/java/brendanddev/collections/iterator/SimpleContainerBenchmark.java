@@ -0,0 +1,80 @@
+package brendanddev.collections.iterator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import brendanddev.benchmarks.AccessPattern;
+
+/**
+ * JMH benchmarks for SimpleContainer covering appends, indexed reads and iteration.
+ *
+ * Every benchmark reports both throughput and average time. Run it with '-prof gc'
+ * to also get the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleContainerBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    AccessPattern pattern;
+
+    SimpleContainer<Integer> container;
+    Integer[] values;
+    int[] indices;
+
+    @Setup
+    public void setUp() {
+        indices = pattern.indices(size);
+        values = new Integer[size];
+        container = new SimpleContainer<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            container.add(values[i]);
+        }
+    }
+
+    /** Builds a container from scratch, including every resize of the backing array */
+    @Benchmark
+    public SimpleContainer<Integer> add() {
+        SimpleContainer<Integer> result = new SimpleContainer<>();
+        for (int index : indices) {
+            result.add(values[index]);
+        }
+        return result;
+    }
+
+    /** Reads every element through get(int) in the order given by the access pattern */
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (int index : indices) {
+            bh.consume(container.get(index));
+        }
+    }
+
+    /** Walks the container with the enhanced for loop, which allocates an iterator */
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Integer value : container) {
+            bh.consume(value);
+        }
+    }
+}
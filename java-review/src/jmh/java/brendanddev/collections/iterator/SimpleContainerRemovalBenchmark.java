@@ -0,0 +1,73 @@
+package brendanddev.collections.iterator;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Removes every second element of a 1M element SimpleContainer, once through
+ * Iterator.remove() and once through removeIf().
+ *
+ * Both are single O(n) passes. Before the gap based iterator removal, the iterator
+ * variant shifted the whole tail on every remove and took O(n * k) time. A fresh
+ * container is filled before each invocation, outside of the measured time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleContainerRemovalBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    Integer[] values;
+    SimpleContainer<Integer> container;
+
+    @Setup(Level.Trial)
+    public void createValues() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fillContainer() {
+        container = new SimpleContainer<>();
+        for (Integer value : values) {
+            container.add(value);
+        }
+    }
+
+    @Benchmark
+    public SimpleContainer<Integer> iteratorRemove() {
+        Iterator<Integer> it = container.iterator();
+        while (it.hasNext()) {
+            if ((it.next() & 1) == 0) {
+                it.remove();
+            }
+        }
+        return container;
+    }
+
+    @Benchmark
+    public SimpleContainer<Integer> removeIf() {
+        container.removeIf(value -> (value & 1) == 0);
+        return container;
+    }
+}
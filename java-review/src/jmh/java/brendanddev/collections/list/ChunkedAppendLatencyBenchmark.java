@@ -0,0 +1,71 @@
+package brendanddev.collections.list;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency distribution of single appends to a CustomList and a ChunkedCustomList
+ * while the list grows up to maxSize elements.
+ *
+ * SampleTime mode records the time of individual add() calls, so the report includes the
+ * p0.99 and p0.999 percentiles (and the maximum) next to the average. Most appends are a single
+ * array store for both lists. The interesting part is the tail: CustomList copies the whole
+ * array on every resize, which gets more expensive the larger the list is, while
+ * ChunkedCustomList only ever allocates one small chunk.
+ *
+ * Every list is filled with the same Integer, so only the list itself is measured. When a list
+ * reaches maxSize it is replaced with an empty one and grows again. At the default of 100 million
+ * elements the CustomList array alone is about 400 MB, use '-p maxSize=10000000' on smaller machines.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class ChunkedAppendLatencyBenchmark {
+
+    @Param({"100000000"})
+    int maxSize;
+
+    final Integer value = 42;
+
+    CustomList<Integer> list;
+    ChunkedCustomList<Integer> chunkedList;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = new CustomList<>();
+        chunkedList = new ChunkedCustomList<>();
+    }
+
+    @Benchmark
+    public int customListAppend() {
+        if (list.size() == maxSize) {
+            list = new CustomList<>();
+        }
+        list.add(value);
+        return list.size();
+    }
+
+    @Benchmark
+    public int chunkedListAppend() {
+        if (chunkedList.size() == maxSize) {
+            chunkedList = new ChunkedCustomList<>();
+        }
+        chunkedList.add(value);
+        return chunkedList.size();
+    }
+}
@@ -0,0 +1,130 @@
+package brendanddev.collections.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares ConcurrentCustomList against Collections.synchronizedList(new ArrayList<>()) and
+ * CopyOnWriteArrayList under different read/write ratios.
+ *
+ * Each group runs reader threads calling get() at random indices next to a single writer thread
+ * that appends an element and removes the last one, so the size of the list stays constant.
+ * The 'readHeavy' group uses 7 readers per writer and 'balanced' uses 1 reader per writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentListBenchmark {
+
+    /** Minimal common surface of the three lists */
+    interface SharedList {
+        Integer get(int index);
+        void add(Integer value);
+        void removeLast();
+    }
+
+    @Param({"CUSTOM", "SYNCHRONIZED", "COPY_ON_WRITE"})
+    String implementation;
+
+    @Param({"1000"})
+    int size;
+
+    SharedList list;
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "CUSTOM":
+                final ConcurrentCustomList<Integer> custom = new ConcurrentCustomList<>();
+                list = new SharedList() {
+                    public Integer get(int index) { return custom.get(index); }
+                    public void add(Integer value) { custom.add(value); }
+                    public void removeLast() { custom.remove(custom.size() - 1); }
+                };
+                break;
+            case "SYNCHRONIZED":
+                list = wrap(Collections.synchronizedList(new ArrayList<Integer>()));
+                break;
+            case "COPY_ON_WRITE":
+                list = wrap(new CopyOnWriteArrayList<Integer>());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+    }
+
+    private static SharedList wrap(final List<Integer> delegate) {
+        return new SharedList() {
+            public Integer get(int index) { return delegate.get(index); }
+            public void add(Integer value) { delegate.add(value); }
+            public void removeLast() {
+                // Remove under the list lock so the size cannot change in between
+                synchronized (delegate) {
+                    delegate.remove(delegate.size() - 1);
+                }
+            }
+        };
+    }
+
+    // Only elements below 'size' are read, the writer only touches the slot after them
+    private Integer read() {
+        return list.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    private void write() {
+        list.add(size);
+        list.removeLast();
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(7)
+    public Integer readHeavyGet() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public void readHeavyWrite() {
+        write();
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(1)
+    public Integer balancedGet() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(1)
+    public void balancedWrite() {
+        write();
+    }
+}
@@ -0,0 +1,80 @@
+package brendanddev.collections.list;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import brendanddev.benchmarks.AccessPattern;
+
+/**
+ * JMH benchmarks for CustomList covering appends, indexed reads and iteration.
+ *
+ * Every benchmark reports both throughput and average time. Run it with '-prof gc'
+ * to also get the allocation rate, e.g. the cost of the iterator allocated per loop.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomListBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    AccessPattern pattern;
+
+    CustomList<Integer> list;
+    Integer[] values;
+    int[] indices;
+
+    @Setup
+    public void setUp() {
+        indices = pattern.indices(size);
+        values = new Integer[size];
+        list = new CustomList<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            list.add(values[i]);
+        }
+    }
+
+    /** Builds a list from scratch, including every resize of the backing array */
+    @Benchmark
+    public CustomList<Integer> add() {
+        CustomList<Integer> result = new CustomList<>();
+        for (int index : indices) {
+            result.add(values[index]);
+        }
+        return result;
+    }
+
+    /** Reads every element through get(int) in the order given by the access pattern */
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (int index : indices) {
+            bh.consume(list.get(index));
+        }
+    }
+
+    /** Walks the list with the enhanced for loop, which allocates an iterator */
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Integer value : list) {
+            bh.consume(value);
+        }
+    }
+}
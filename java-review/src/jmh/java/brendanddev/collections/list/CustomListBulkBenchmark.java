@@ -0,0 +1,110 @@
+package brendanddev.collections.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bulk operations of CustomList against doing the same work one element at a time.
+ *
+ * - Ingest: appending a batch with add() in a loop, with addAll(E[]) and with addAll(Collection).
+ * - Insert: putting a batch at the front of a list with add(0, e) per element or one insertAll().
+ * - Remove: dropping the first half of a list with remove(0) per element or one removeRange().
+ *
+ * The insert and remove variants start from a freshly filled list for every invocation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomListBulkBenchmark {
+
+    @Param({"1000", "10000"})
+    int batchSize;
+
+    Integer[] batch;
+    List<Integer> batchCollection;
+    CustomList<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setUpBatch() {
+        batch = new Integer[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = i;
+        }
+        batchCollection = new ArrayList<>(Arrays.asList(batch));
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpList() {
+        list = new CustomList<>();
+        list.addAll(batch);
+    }
+
+    @Benchmark
+    public CustomList<Integer> ingestAddLoop() {
+        CustomList<Integer> result = new CustomList<>();
+        for (Integer value : batch) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CustomList<Integer> ingestAddAllArray() {
+        CustomList<Integer> result = new CustomList<>();
+        result.addAll(batch);
+        return result;
+    }
+
+    @Benchmark
+    public CustomList<Integer> ingestAddAllCollection() {
+        CustomList<Integer> result = new CustomList<>();
+        result.addAll(batchCollection);
+        return result;
+    }
+
+    @Benchmark
+    public CustomList<Integer> insertFrontLoop() {
+        for (int i = batch.length - 1; i >= 0; i--) {
+            list.add(0, batch[i]);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public CustomList<Integer> insertFrontAll() {
+        list.insertAll(0, batch);
+        return list;
+    }
+
+    @Benchmark
+    public CustomList<Integer> removeHalfLoop() {
+        for (int i = 0; i < batchSize / 2; i++) {
+            list.remove(0);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public CustomList<Integer> removeHalfRange() {
+        list.removeRange(0, batchSize / 2);
+        return list;
+    }
+}
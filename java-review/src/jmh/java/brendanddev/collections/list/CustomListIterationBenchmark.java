@@ -0,0 +1,83 @@
+package brendanddev.collections.list;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many bytes each way of walking a CustomList allocates per loop.
+ *
+ * Run it with '-prof gc' and compare gc.alloc.rate.norm: forEach() and a reused Cursor
+ * report zero bytes per operation, while the iterator loop allocates one iterator per
+ * loop whenever escape analysis fails to remove it. The escapingIterator variant hands
+ * the iterator to the Blackhole, as happens when an iterator is passed to code that is
+ * not inlined, so that allocation is always visible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomListIterationBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    CustomList<Integer> list;
+    CustomList<Integer>.Cursor cursor;
+    Consumer<Integer> consumer;
+
+    @Setup
+    public void setUp(Blackhole bh) {
+        // Created once so the forEach loop does not allocate a capturing lambda per call
+        consumer = bh::consume;
+        list = new CustomList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        cursor = list.cursor();
+    }
+
+    @Benchmark
+    public void iterator(Blackhole bh) {
+        for (Integer value : list) {
+            bh.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void escapingIterator(Blackhole bh) {
+        Iterator<Integer> it = list.iterator();
+        bh.consume(it);
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void forEach() {
+        list.forEach(consumer);
+    }
+
+    @Benchmark
+    public void cursor(Blackhole bh) {
+        CustomList<Integer>.Cursor c = cursor.reset();
+        while (c.advance()) {
+            bh.consume(c.get());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package brendanddev.collections.list;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brendanddev.collections.customobjects.CustomObject;
+
+/**
+ * Compares the startup cost of rebuilding a CustomList of CustomObjects from scratch against
+ * reopening a MappedCustomList that already holds the same elements in a file.
+ *
+ * Each measurement is a single run of the startup step, since that is what a restart pays once.
+ * coldRebuild creates every element again, while mmapReopen only maps the file and reads the
+ * last element to show it is usable. The file is written once before the measurements, so it
+ * is usually in the page cache, as it would be for a service restarted on the same machine.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class MappedStartupBenchmark {
+
+    @Param({"10000000"})
+    int size;
+
+    String[] names;
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        names = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Object " + i;
+        }
+        file = Files.createTempFile("mapped-startup", ".bin");
+        Files.delete(file);
+        try (MappedCustomList<CustomObject> list = new MappedCustomList<>(file, new CustomObjectCodec())) {
+            for (int i = 0; i < size; i++) {
+                list.add(new CustomObject(names[i & 1023], i, i));
+            }
+            list.force();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /** Rebuilds the whole list on the heap, as a restart without persistence does */
+    @Benchmark
+    public CustomObject coldRebuild() {
+        CustomList<CustomObject> list = new CustomList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(new CustomObject(names[i & 1023], i, i));
+        }
+        return list.get(size - 1);
+    }
+
+    /** Reopens the persisted list, no element is decoded until it is read */
+    @Benchmark
+    public CustomObject mmapReopen() throws IOException {
+        try (MappedCustomList<CustomObject> list = new MappedCustomList<>(file, new CustomObjectCodec())) {
+            return list.get(list.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package brendanddev.collections.list;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brendanddev.collections.customobjects.CustomObject;
+
+/**
+ * Compares the length of a full garbage collection while holding many CustomObjects in a heap
+ * CustomList against holding the same objects as records in an OffHeapRecordList.
+ *
+ * Each measurement is a single System.gc() call with the list still reachable, so the collector
+ * has to trace everything the list keeps on the heap. With HEAP that is one object per element,
+ * with OFF_HEAP only the list and its page buffers. The names come from a small shared pool so
+ * the heap variant fits in the configured heap.
+ *
+ * The default of 50 million elements needs about 2 GB of heap for HEAP and 2 GB of direct memory
+ * for OFF_HEAP. Use '-p size=1000000' on smaller machines.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=3g"})
+@State(Scope.Benchmark)
+public class OffHeapGcPauseBenchmark {
+
+    public enum Storage { HEAP, OFF_HEAP }
+
+    @Param({"50000000"})
+    int size;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    Storage storage;
+
+    CustomList<CustomObject> heapList;
+    OffHeapRecordList<CustomObject> offHeapList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] names = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Object " + i;
+        }
+        if (storage == Storage.HEAP) {
+            heapList = new CustomList<>(size);
+            for (int i = 0; i < size; i++) {
+                heapList.add(new CustomObject(names[i & 1023], i, i));
+            }
+        } else {
+            offHeapList = new OffHeapRecordList<>(new CustomObjectCodec(), size);
+            for (int i = 0; i < size; i++) {
+                offHeapList.add(new CustomObject(names[i & 1023], i, i));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (offHeapList != null) {
+            offHeapList.close();
+        }
+    }
+
+    /** Runs a full collection while the list is live, the score is the pause */
+    @Benchmark
+    public int fullGc() {
+        System.gc();
+        return storage == Storage.HEAP ? heapList.size() : offHeapList.size();
+    }
+}
@@ -0,0 +1,118 @@
+package brendanddev.collections.map;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import brendanddev.benchmarks.AccessPattern;
+
+/**
+ * Compares put and get throughput of HashMap<Integer, V>, CustomMap<Integer, V> and IntObjectMap<V>.
+ *
+ * The boxed lookup keys are created during setup, while IntObjectMap gets the plain ints. The lookup keys are
+ * equal to the stored keys but distinct objects (outside the Integer cache), as in a real lookup. The put benchmarks build a map from empty, so they include resizing.
+ * Run with '-prof gc' and divide gc.alloc.rate.norm of a put benchmark by the size to get the bytes each
+ * map allocates per entry, including the arrays discarded while growing. The retained bytes per entry are
+ * printed by the map Main class.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomMapBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    AccessPattern pattern;
+
+    int[] ids;
+    Integer[] boxedIds;
+    Object value;
+    HashMap<Integer, Object> hashMap;
+    CustomMap<Integer, Object> customMap;
+    IntObjectMap<Object> intMap;
+
+    @Setup
+    public void setUp() {
+        ids = pattern.indices(size);
+        boxedIds = new Integer[size];
+        value = new Object();
+        hashMap = new HashMap<>();
+        customMap = new CustomMap<>();
+        intMap = new IntObjectMap<>();
+        // Filled in ascending id order, so the lookups in pattern order do not simply
+        // replay the order in which HashMap allocated its nodes
+        for (int id = 0; id < size; id++) {
+            hashMap.put(id, value);
+            customMap.put(id, value);
+            intMap.put(id, value);
+        }
+        for (int i = 0; i < size; i++) {
+            boxedIds[i] = ids[i];
+        }
+    }
+
+    @Benchmark
+    public HashMap<Integer, Object> hashMapPut() {
+        HashMap<Integer, Object> map = new HashMap<>();
+        for (Integer id : boxedIds) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public CustomMap<Integer, Object> customMapPut() {
+        CustomMap<Integer, Object> map = new CustomMap<>();
+        for (Integer id : boxedIds) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public IntObjectMap<Object> intMapPut() {
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int id : ids) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void hashMapGet(Blackhole bh) {
+        for (Integer id : boxedIds) {
+            bh.consume(hashMap.get(id));
+        }
+    }
+
+    @Benchmark
+    public void customMapGet(Blackhole bh) {
+        for (Integer id : boxedIds) {
+            bh.consume(customMap.get(id));
+        }
+    }
+
+    @Benchmark
+    public void intMapGet(Blackhole bh) {
+        for (int id : ids) {
+            bh.consume(intMap.get(id));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package brendanddev.collections.set;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares ConcurrentCustomSet against ConcurrentHashMap.newKeySet() as a shared dedup set.
+ *
+ * The keys are drawn at random from a fixed pool of pre-boxed Integers, and the set is pre-filled
+ * with half of them, so a dedup add() finds an existing key about half of the time. 'dedup' calls
+ * add() followed by remove() for keys it inserted, keeping the set at a steady size, and 'lookup'
+ * only calls contains().
+ *
+ * JMH runs every benchmark with a single thread count, so main() runs this class once for each
+ * of 1, 2, 4, 8, 16 and 32 threads to show how the two sets scale.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentSetBenchmark {
+
+    /** Minimal common surface of the two sets */
+    interface SharedSet {
+        boolean add(Integer value);
+        boolean contains(Integer value);
+        boolean remove(Integer value);
+    }
+
+    @Param({"CUSTOM", "CONCURRENT_HASH_MAP"})
+    String implementation;
+
+    @Param({"100000"})
+    int keys;
+
+    Integer[] pool;
+    SharedSet set;
+
+    @Setup
+    public void setUp() {
+        pool = new Integer[keys];
+        for (int i = 0; i < keys; i++) {
+            pool[i] = i;
+        }
+        if (implementation.equals("CUSTOM")) {
+            final ConcurrentCustomSet<Integer> custom = new ConcurrentCustomSet<>(64, keys);
+            set = new SharedSet() {
+                public boolean add(Integer value) { return custom.add(value); }
+                public boolean contains(Integer value) { return custom.contains(value); }
+                public boolean remove(Integer value) { return custom.remove(value); }
+            };
+        } else {
+            final Set<Integer> chm = ConcurrentHashMap.newKeySet(keys);
+            set = new SharedSet() {
+                public boolean add(Integer value) { return chm.add(value); }
+                public boolean contains(Integer value) { return chm.contains(value); }
+                public boolean remove(Integer value) { return chm.remove(value); }
+            };
+        }
+        for (int i = 0; i < keys; i += 2) {
+            set.add(pool[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean dedup() {
+        Integer key = pool[ThreadLocalRandom.current().nextInt(keys)];
+        if (set.add(key)) {
+            // Undo the insert so the set does not fill up over the run
+            return set.remove(key);
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean lookup() {
+        return set.contains(pool[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    /**
+     * Runs the benchmarks with 1 to 32 threads
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentSetBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package brendanddev.collections.set;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import brendanddev.benchmarks.AccessPattern;
+
+/**
+ * JMH benchmarks comparing the linear scan CustomSet against the hashed ImprovedCustomSet
+ * when building a set and when probing it for every stored element.
+ *
+ * Every benchmark reports both throughput and average time. Run it with '-prof gc'
+ * to also get the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomSetBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    AccessPattern pattern;
+
+    CustomSet<Integer> customSet;
+    ImprovedCustomSet<Integer> improvedSet;
+    Integer[] keys;
+
+    @Setup
+    public void setUp() {
+        int[] indices = pattern.indices(size);
+        keys = new Integer[size];
+        customSet = new CustomSet<>();
+        improvedSet = new ImprovedCustomSet<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = indices[i];
+            customSet.add(keys[i]);
+            improvedSet.add(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public CustomSet<Integer> customSetAdd() {
+        CustomSet<Integer> result = new CustomSet<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public ImprovedCustomSet<Integer> improvedSetAdd() {
+        ImprovedCustomSet<Integer> result = new ImprovedCustomSet<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void customSetContains(Blackhole bh) {
+        for (Integer key : keys) {
+            bh.consume(customSet.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void improvedSetContains(Blackhole bh) {
+        for (Integer key : keys) {
+            bh.consume(improvedSet.contains(key));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package brendanddev.collections.set;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares IntSet against CustomSet<Integer> and HashSet<Integer> for building a set of ids, probing it,
+ * and intersecting two sets.
+ *
+ * Ids are i * stride, so a stride of 1 gives dense ids that fill bitmap containers, while a stride of 97
+ * spreads them out so each chunk holds few enough ids to stay an array container. The memory side of the
+ * comparison is printed by compareIntSetMemory() in the set Main class. Run with '-prof gc' to also compare
+ * the allocation rates, which for the boxed sets include an Integer per id outside the Integer cache.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntSetBenchmark {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    @Param({"1", "97"})
+    int stride;
+
+    int[] ids;
+    CustomSet<Integer> customSet;
+    HashSet<Integer> hashSet;
+    HashSet<Integer> otherHashSet;
+    IntSet intSet;
+    IntSet otherIntSet;
+
+    @Setup
+    public void setUp() {
+        ids = new int[size];
+        customSet = new CustomSet<>();
+        hashSet = new HashSet<>();
+        otherHashSet = new HashSet<>();
+        intSet = new IntSet();
+        otherIntSet = new IntSet();
+        for (int i = 0; i < size; i++) {
+            ids[i] = i * stride;
+            customSet.add(ids[i]);
+            hashSet.add(ids[i]);
+            intSet.add(ids[i]);
+            // The other set overlaps by half
+            otherHashSet.add(ids[i] + size / 2 * stride);
+            otherIntSet.add(ids[i] + size / 2 * stride);
+        }
+    }
+
+    @Benchmark
+    public CustomSet<Integer> customSetAdd() {
+        CustomSet<Integer> result = new CustomSet<>();
+        for (int id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public HashSet<Integer> hashSetAdd() {
+        HashSet<Integer> result = new HashSet<>();
+        for (int id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public IntSet intSetAdd() {
+        IntSet result = new IntSet();
+        for (int id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void customSetContains(Blackhole bh) {
+        for (int id : ids) {
+            bh.consume(customSet.contains(id));
+        }
+    }
+
+    @Benchmark
+    public void hashSetContains(Blackhole bh) {
+        for (int id : ids) {
+            bh.consume(hashSet.contains(id));
+        }
+    }
+
+    @Benchmark
+    public void intSetContains(Blackhole bh) {
+        for (int id : ids) {
+            bh.consume(intSet.contains(id));
+        }
+    }
+
+    @Benchmark
+    public HashSet<Integer> hashSetRetainAll() {
+        HashSet<Integer> result = new HashSet<>(hashSet);
+        result.retainAll(otherHashSet);
+        return result;
+    }
+
+    @Benchmark
+    public IntSet intSetAnd() {
+        return intSet.and(otherIntSet);
+    }
+
+    @Benchmark
+    public IntSet intSetOr() {
+        return intSet.or(otherIntSet);
+    }
+}
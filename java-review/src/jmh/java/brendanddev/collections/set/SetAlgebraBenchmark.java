@@ -0,0 +1,99 @@
+package brendanddev.collections.set;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares intersecting two sets with nested contains() loops against the set operations of
+ * CustomSet and ImprovedCustomSet, sequential and parallel.
+ *
+ * The two sets have the given size and overlap by half. The nested loop is how intersections
+ * were computed before, calling contains() on a CustomSet for every element of the other one,
+ * which is O(n * m). The parallel variants set the parallel threshold to 1 so every call runs
+ * in the common fork join pool.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetAlgebraBenchmark {
+
+    @Param({"1000", "20000"})
+    int size;
+
+    CustomSet<Integer> customA;
+    CustomSet<Integer> customB;
+    ImprovedCustomSet<Integer> improvedA;
+    ImprovedCustomSet<Integer> improvedB;
+    ImprovedCustomSet<Integer> parallelA;
+
+    @Setup
+    public void setUp() {
+        customA = new CustomSet<>(size);
+        customB = new CustomSet<>(size);
+        improvedA = new ImprovedCustomSet<>(size);
+        improvedB = new ImprovedCustomSet<>(size);
+        parallelA = new ImprovedCustomSet<>(size);
+        for (int i = 0; i < size; i++) {
+            // B starts half way through A, so half of each set is shared
+            customA.add(i);
+            customB.add(i + size / 2);
+            improvedA.add(i);
+            improvedB.add(i + size / 2);
+            parallelA.add(i);
+        }
+        customA.setParallelThreshold(Integer.MAX_VALUE);
+        improvedA.setParallelThreshold(Integer.MAX_VALUE);
+        parallelA.setParallelThreshold(1);
+    }
+
+    /** The O(n * m) baseline, one linear contains() per element */
+    @Benchmark
+    public CustomSet<Integer> nestedLoopIntersection() {
+        CustomSet<Integer> result = new CustomSet<>();
+        for (Object element : customA.toArray()) {
+            if (customB.contains((Integer) element)) {
+                result.add((Integer) element);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CustomSet<Integer> customSetIntersection() {
+        return customA.intersection(customB);
+    }
+
+    @Benchmark
+    public ImprovedCustomSet<Integer> improvedSetIntersection() {
+        return improvedA.intersection(improvedB);
+    }
+
+    @Benchmark
+    public ImprovedCustomSet<Integer> improvedSetParallelIntersection() {
+        return parallelA.intersection(improvedB);
+    }
+
+    @Benchmark
+    public ImprovedCustomSet<Integer> improvedSetUnion() {
+        return improvedA.union(improvedB);
+    }
+
+    @Benchmark
+    public ImprovedCustomSet<Integer> improvedSetDifference() {
+        return improvedA.difference(improvedB);
+    }
+}
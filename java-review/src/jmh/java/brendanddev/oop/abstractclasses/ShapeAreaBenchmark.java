@@ -0,0 +1,169 @@
+package brendanddev.oop.abstractclasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares summing areas over a List<Shape> with calls to getArea() against the columns of ShapeBatch.
+ *
+ * 'RECTANGLES' fills the list with Rectangles only, so the call site only ever sees one receiver type and the JIT
+ * can inline getArea(), which leaves the pointer chasing. 'MIXED' picks a Rectangle, Triangle or Ellipse at random
+ * for every element, which makes the call megamorphic. The columnar side holds one ShapeBatch per kind.
+ *
+ * The shapes are allocated one after another, so they sit next to each other on the heap, which is the best case
+ * for the list. Shapes created at different times end up spread out and the list gets slower still.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ShapeAreaBenchmark {
+
+    private static final long SEED = 42;
+    private static final String[] COLORS = {"Red", "Green", "Blue"};
+
+    /** A right triangle with the given legs */
+    static final class Triangle extends Shape {
+        private final double width;
+        private final double height;
+
+        Triangle(String color, double width, double height) {
+            super(color);
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public double getArea() {
+            return 0.5 * width * height;
+        }
+    }
+
+    /** An ellipse with the given diameters */
+    static final class Ellipse extends Shape {
+        private final double width;
+        private final double height;
+
+        Ellipse(String color, double width, double height) {
+            super(color);
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public double getArea() {
+            return Math.PI / 4 * width * height;
+        }
+    }
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    @Param({"RECTANGLES", "MIXED"})
+    String kinds;
+
+    List<Shape> shapes;
+    ShapeBatch[] batches;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        shapes = new ArrayList<>(size);
+        ShapeBatch rectangles = new ShapeBatch(1.0, size);
+        ShapeBatch triangles = new ShapeBatch(0.5);
+        ShapeBatch ellipses = new ShapeBatch(Math.PI / 4);
+        boolean mixed = kinds.equals("MIXED");
+        for (int i = 0; i < size; i++) {
+            String color = COLORS[random.nextInt(COLORS.length)];
+            double width = random.nextDouble() * 10;
+            double height = random.nextDouble() * 10;
+            int kind = mixed ? random.nextInt(3) : 0;
+            if (kind == 0) {
+                shapes.add(new Rectangle(color, width, height));
+                rectangles.add(color, width, height);
+            } else if (kind == 1) {
+                shapes.add(new Triangle(color, width, height));
+                triangles.add(color, width, height);
+            } else {
+                shapes.add(new Ellipse(color, width, height));
+                ellipses.add(color, width, height);
+            }
+        }
+        batches = mixed ? new ShapeBatch[] {rectangles, triangles, ellipses} : new ShapeBatch[] {rectangles};
+    }
+
+    @Benchmark
+    public double listTotalArea() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += shape.getArea();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double batchTotalArea() {
+        double total = 0;
+        for (ShapeBatch batch : batches) {
+            total += batch.totalArea();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double listAreaByColor() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            if ("Red".equals(shape.color)) {
+                total += shape.getArea();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double batchAreaByColor() {
+        double total = 0;
+        for (ShapeBatch batch : batches) {
+            total += batch.totalArea("Red");
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double listAreaAtLeast() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            double area = shape.getArea();
+            if (area >= 25) {
+                total += area;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double batchAreaAtLeast() {
+        double total = 0;
+        for (ShapeBatch batch : batches) {
+            total += batch.totalAreaAtLeast(25);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,107 @@
+package brendanddev.oop.encapsulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures deposits and withdrawals when every thread works on the same account.
+ *
+ * 'CAS' is ConcurrentBankAccount. 'SYNCHRONIZED' is the same cents balance guarded by a monitor, which is the
+ * simplest way to make BankAccount thread safe. BankAccount itself is left out, since it prints on every call
+ * and loses updates. 'transfer' withdraws a cent and deposits it again, so the balance stays steady and every
+ * withdrawal has to go through the compare-and-set check.
+ *
+ * JMH runs every benchmark with a single thread count, so main() runs this class once for each of 1, 2, 4,
+ * 8, 16 and 32 threads to show how the two accounts behave under contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountContentionBenchmark {
+
+    /** The monitor based baseline */
+    static final class SynchronizedAccount {
+        private long balanceCents;
+
+        synchronized TransactionResult deposit(long amountCents) {
+            if (amountCents <= 0) {
+                return TransactionResult.INVALID_AMOUNT;
+            }
+            balanceCents += amountCents;
+            return TransactionResult.SUCCESS;
+        }
+
+        synchronized TransactionResult withdraw(long amountCents) {
+            if (amountCents <= 0) {
+                return TransactionResult.INVALID_AMOUNT;
+            }
+            if (balanceCents < amountCents) {
+                return TransactionResult.INSUFFICIENT_FUNDS;
+            }
+            balanceCents -= amountCents;
+            return TransactionResult.SUCCESS;
+        }
+    }
+
+    @Param({"CAS", "SYNCHRONIZED"})
+    String implementation;
+
+    ConcurrentBankAccount casAccount;
+    SynchronizedAccount synchronizedAccount;
+
+    @Setup
+    public void setUp() {
+        casAccount = new ConcurrentBankAccount(1, "ACC-1", "Alice", 1_000_000);
+        synchronizedAccount = new SynchronizedAccount();
+        synchronizedAccount.deposit(1_000_000);
+    }
+
+    @Benchmark
+    public TransactionResult deposit() {
+        if (implementation.equals("CAS")) {
+            return casAccount.deposit(1);
+        }
+        return synchronizedAccount.deposit(1);
+    }
+
+    @Benchmark
+    public TransactionResult transfer() {
+        if (implementation.equals("CAS")) {
+            casAccount.withdraw(1);
+            return casAccount.deposit(1);
+        }
+        synchronizedAccount.withdraw(1);
+        return synchronizedAccount.deposit(1);
+    }
+
+    /**
+     * Runs the benchmarks with 1 to 32 threads
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(AccountContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
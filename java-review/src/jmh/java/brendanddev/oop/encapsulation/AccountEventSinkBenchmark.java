@@ -0,0 +1,112 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures BankAccount.deposit() with each AccountEventListener.
+ *
+ * 'CONSOLE' prints every deposit synchronously, as BankAccount used to. 'NO_OP' is the default listener.
+ * 'ASYNC' queues the events for an AsyncAccountEventSink that waits for room when its queue is full, so in the
+ * long run deposits can only go as fast as the flusher prints. 'ASYNC_DROPPING' drops the events that do not fit.
+ *
+ * The listeners print to a PrintStream that is set up like System.out (autoflush, small buffer) but discards the
+ * bytes, so the terminal does not fill up and the measurement does not depend on how fast it scrolls. Real
+ * output is slower still, which only widens the gap to CONSOLE.
+ *
+ * Every thread deposits to its own account while all threads share the listener. main() runs this class once for
+ * each of 1, 2, 4, 8, 16 and 32 threads to show how the stream lock serializes CONSOLE.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountEventSinkBenchmark {
+
+    @Param({"CONSOLE", "NO_OP", "ASYNC", "ASYNC_DROPPING"})
+    String sink;
+
+    AccountEventListener listener;
+    AsyncAccountEventSink asyncSink;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        PrintStream out = new PrintStream(new BufferedOutputStream(discard, 128), true);
+        if (sink.equals("CONSOLE")) {
+            listener = AccountEventListener.console(out);
+        } else if (sink.equals("NO_OP")) {
+            listener = AccountEventListener.noOp();
+        } else {
+            asyncSink = new AsyncAccountEventSink(out, 1 << 14, sink.equals("ASYNC_DROPPING"));
+            listener = asyncSink;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (asyncSink != null) {
+            asyncSink.close();
+        }
+    }
+
+    /** The account of a single benchmark thread */
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        BankAccount account;
+
+        @Setup(Level.Trial)
+        public void setUp(AccountEventSinkBenchmark benchmark) {
+            account = new BankAccount(1, "ACC-1", "Alice", 0, benchmark.listener);
+        }
+    }
+
+    @Benchmark
+    public double deposit(ThreadAccount state) {
+        state.account.deposit(1);
+        return state.account.getBalance();
+    }
+
+    /**
+     * Runs the benchmark with 1 to 32 threads
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(AccountEventSinkBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
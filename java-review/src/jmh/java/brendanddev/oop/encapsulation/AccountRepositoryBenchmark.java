@@ -0,0 +1,152 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares looking up accounts in an AccountRepository against scanning a List, and restoring a repository from a
+ * binary snapshot against loading it from CSV.
+ *
+ * The lookup benchmarks look up one account per call, cycling through ids in random order. The list scans are
+ * O(n), so they are only run for the smaller size. The restore benchmarks build a whole repository per call and
+ * run as single shots.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountRepositoryBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    AccountRepository repository;
+    List<ConcurrentBankAccount> list;
+    int[] ids;
+    String[] numbers;
+    int next;
+
+    Path directory;
+    Path csv;
+    Path snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = new AccountRepository(16, size);
+        list = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            ConcurrentBankAccount account = new ConcurrentBankAccount(id, "ACC-" + id, "Holder " + id, id);
+            repository.add(account);
+            list.add(account);
+        }
+
+        Random random = new Random(SEED);
+        ids = new int[1 << 16];
+        numbers = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(size);
+            numbers[i] = "ACC-" + ids[i];
+        }
+
+        directory = Files.createTempDirectory("accounts");
+        snapshot = directory.resolve("accounts.snapshot");
+        repository.snapshot(snapshot);
+        csv = directory.resolve("accounts.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (ConcurrentBankAccount account : list) {
+                writer.write(account.getAccountId() + "," + account.getAccountNumber() + ","
+                        + account.accountHolderName + "," + account.getBalanceCents());
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ConcurrentBankAccount findById() {
+        return repository.findById(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public ConcurrentBankAccount findByAccountNumber() {
+        return repository.findByAccountNumber(numbers[next++ & (numbers.length - 1)]);
+    }
+
+    @Benchmark
+    public ConcurrentBankAccount listScanById() {
+        if (size > 10_000) {
+            return null;
+        }
+        int id = ids[next++ & (ids.length - 1)];
+        for (ConcurrentBankAccount account : list) {
+            if (account.getAccountId() == id) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public ConcurrentBankAccount listScanByAccountNumber() {
+        if (size > 10_000) {
+            return null;
+        }
+        String number = numbers[next++ & (numbers.length - 1)];
+        for (ConcurrentBankAccount account : list) {
+            if (account.getAccountNumber().equals(number)) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public AccountRepository restoreSnapshot() throws IOException {
+        AccountRepository restored = new AccountRepository(16, size);
+        restored.restore(snapshot);
+        return restored;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public AccountRepository loadCsv() throws IOException {
+        AccountRepository loaded = new AccountRepository(16, size);
+        loaded.loadCsv(csv);
+        return loaded;
+    }
+}
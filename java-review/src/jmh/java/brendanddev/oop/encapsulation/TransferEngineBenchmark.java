@@ -0,0 +1,75 @@
+package brendanddev.oop.encapsulation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sustained transfers per second of a TransferEngine across a million accounts.
+ *
+ * Every invocation applies the same batch of BATCH random transfers, so the score is in transfers per second.
+ * Each account starts with enough money that nearly every transfer succeeds. With a million accounts, two
+ * transfers rarely touch the same account, so the locks are almost never contended and the cost is dominated
+ * by cache misses on the accounts, the locking itself and the append to the TransactionLog.
+ *
+ * 'parallelism' is the number of worker threads a batch is split across. On a machine with fewer cores than
+ * workers the extra threads only add overhead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferEngineBenchmark {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final int BATCH = 1 << 16;
+    private static final long SEED = 42;
+
+    @Param({"1", "2", "4"})
+    int parallelism;
+
+    ConcurrentBankAccount[] accounts;
+    TransferBatch batch;
+    TransferEngine engine;
+
+    @Setup
+    public void setUp() {
+        accounts = new ConcurrentBankAccount[ACCOUNTS];
+        for (int id = 0; id < ACCOUNTS; id++) {
+            accounts[id] = new ConcurrentBankAccount(id, "ACC-" + id, "Holder " + id, 1_000_000_000L);
+        }
+        Random random = new Random(SEED);
+        batch = new TransferBatch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(random.nextInt(ACCOUNTS), random.nextInt(ACCOUNTS), 1 + random.nextInt(10_000));
+        }
+        ConcurrentBankAccount[] directory = accounts;
+        engine = new TransferEngine(id -> directory[id], new TransactionLog(1 << 20), parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int applyBatch() {
+        return engine.apply(batch);
+    }
+}
@@ -0,0 +1,161 @@
+package brendanddev.collections;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Decides how a hash collection hashes and compares its elements, instead of always calling the elements own
+ * hashCode() and equals().
+ *
+ * A hash collection is only as good as the hash codes of its keys. CustomObject hashes by its id alone,
+ * BetterHashCollision combines name and id, and HashCollision returns 'id % 2', so every HashCollision key ends
+ * up in one of two probe runs. With a strategy the collection can correct such keys itself, without touching the
+ * key class, for example by mixing the bits of a weak hash code or by hashing a better field.
+ *
+ * Implementations must be consistent like hashCode() and equals(): two elements that are equal according to
+ * equals(a, b) must get the same hash(). Elements passed to a strategy are never null, the collections handle
+ * null themselves. Two collections combined by a set operation should use equivalent strategies, since each
+ * one is probed with its own.
+ *
+ * @param <T> The type of element the strategy handles
+ */
+public interface HashingStrategy<T> {
+
+    /**
+     * Computes the hash code of an element
+     *
+     * @param element The element to hash, never null
+     * @return The hash code used to place the element in the table
+     */
+    int hash(T element);
+
+    /**
+     * Checks if two elements are equal
+     *
+     * @param a The first element, never null
+     * @param b The second element, never null
+     * @return true if the collection should treat both elements as the same element
+     */
+    boolean equals(T a, T b);
+
+    /**
+     * Returns the strategy that uses the elements own hashCode() and equals(), which is the default of every
+     * collection that accepts a strategy
+     */
+    @SuppressWarnings("unchecked")
+    static <T> HashingStrategy<T> natural() {
+        return (HashingStrategy<T>) Strategies.NATURAL;
+    }
+
+    /**
+     * Returns a strategy that compares elements by reference, like IdentityHashMap. Two distinct objects
+     * are always different elements, even if their equals() says otherwise, and hashing uses
+     * System.identityHashCode() so a slow or broken hashCode() is never called.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> HashingStrategy<T> identity() {
+        return (HashingStrategy<T>) Strategies.IDENTITY;
+    }
+
+    /**
+     * Returns a strategy that uses the elements own equals(), but passes their hashCode() through the
+     * finalizer of the 64-bit MurmurHash3 (see mix()).
+     *
+     * This repairs hash codes whose information sits in only a few bits, such as multiples of a power of two
+     * or values that only differ in their upper bits, since afterwards every input bit affects every output
+     * bit. It cannot repair hash codes that only take a few distinct values, like 'id % 2', because equal hash
+     * codes still mix to equal results. Use byField() for those.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> HashingStrategy<T> murmur3() {
+        return (HashingStrategy<T>) Strategies.MURMUR3;
+    }
+
+    /**
+     * Returns a strategy that hashes an element by one of its fields, mixed with mix(), and compares elements
+     * with their own equals().
+     *
+     * This replaces a weak hashCode() with one built from a field that tells the elements apart, for example
+     * 'HashingStrategy.byField(HashCollision::getId)'. The projected field must be one that equals() compares,
+     * otherwise equal elements could get different hash codes.
+     *
+     * @param projection Extracts the field to hash, may return null
+     * @return A strategy hashing by the projected field
+     */
+    static <T> HashingStrategy<T> byField(Function<? super T, ?> projection) {
+        Objects.requireNonNull(projection, "projection");
+        return new HashingStrategy<T>() {
+            @Override
+            public int hash(T element) {
+                return mix(Objects.hashCode(projection.apply(element)));
+            }
+
+            @Override
+            public boolean equals(T a, T b) {
+                return a.equals(b);
+            }
+        };
+    }
+
+    /**
+     * Spreads the bits of a hash code using the finalizer (fmix64) of MurmurHash3. The hash code is
+     * multiplied and xor-shifted twice in 64 bits, then the two halves are folded together.
+     *
+     * @param hash The hash code to mix
+     * @return The mixed hash code
+     */
+    static int mix(int hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) (h ^ (h >>> 32));
+    }
+}
+
+/**
+ * The shared instances of the built in strategies that do not need any state
+ */
+final class Strategies {
+
+    static final HashingStrategy<Object> NATURAL = new HashingStrategy<Object>() {
+        @Override
+        public int hash(Object element) {
+            return element.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a.equals(b);
+        }
+    };
+
+    static final HashingStrategy<Object> IDENTITY = new HashingStrategy<Object>() {
+        @Override
+        public int hash(Object element) {
+            return System.identityHashCode(element);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b;
+        }
+    };
+
+    static final HashingStrategy<Object> MURMUR3 = new HashingStrategy<Object>() {
+        @Override
+        public int hash(Object element) {
+            return HashingStrategy.mix(element.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a.equals(b);
+        }
+    };
+
+    private Strategies() {
+    }
+}
@@ -0,0 +1,47 @@
+package brendanddev.collections;
+
+/**
+ * Implemented by collections that can report how much memory their own internal structure uses.
+ *
+ * Array backed collections grow their array in steps (by 50% or 100%), so the array is usually
+ * larger than the number of elements stored in it. This interface exposes that difference directly,
+ * instead of having to read private fields through reflection, so long lived collections can be
+ * inspected and trimmed.
+ *
+ * The byte estimates only cover the collection object and the arrays it owns, not the elements
+ * stored in it, since elements may be shared with other objects. The sizes of object headers and
+ * references are taken from ObjectLayout, which accounts for compressed oops.
+ */
+public interface MemoryFootprint {
+
+    /**
+     * Returns the number of element slots currently allocated
+     *
+     * @return The length of the backing storage
+     */
+    int capacity();
+
+    /**
+     * Returns the number of elements currently stored
+     *
+     * @return The number of elements
+     */
+    int size();
+
+    /**
+     * Returns the number of allocated slots that do not hold an element
+     *
+     * @return capacity() - size()
+     */
+    default int wastedSlots() {
+        return capacity() - size();
+    }
+
+    /**
+     * Estimates the number of bytes retained by the collection itself, meaning the collection
+     * object and its backing arrays, excluding the elements they reference.
+     *
+     * @return The estimated retained size in bytes
+     */
+    long estimatedRetainedBytes();
+}
@@ -0,0 +1,120 @@
+package brendanddev.collections;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+
+/**
+ * Estimates the size of objects and arrays on the current JVM.
+ *
+ * On a 64-bit HotSpot JVM every object starts with a header made of an 8 byte mark word and a class pointer,
+ * and every object is padded to a multiple of 8 bytes. With compressed oops, which is the default for heaps
+ * below 32 GB, references are stored as 4 byte offsets instead of full 8 byte pointers, and with compressed
+ * class pointers the class pointer in the header shrinks from 8 to 4 bytes as well. Arrays additionally store
+ * their length as a 4 byte int in the header.
+ *
+ * The flags are read from the HotSpot diagnostic MXBean when it is available. On other JVMs the values fall back
+ * to the common 64-bit defaults (compressed oops and class pointers, 8 byte alignment).
+ */
+public final class ObjectLayout {
+
+    /** true if references are compressed to 4 bytes */
+    public static final boolean COMPRESSED_OOPS = booleanOption("UseCompressedOops", true);
+
+    /** true if the class pointer in object headers is compressed to 4 bytes */
+    public static final boolean COMPRESSED_CLASS_POINTERS = booleanOption("UseCompressedClassPointers", true);
+
+    /** Size of a reference field or array slot in bytes */
+    public static final int REFERENCE_SIZE = COMPRESSED_OOPS ? 4 : 8;
+
+    /** Size of a plain object header in bytes, mark word plus class pointer */
+    public static final int OBJECT_HEADER_SIZE = 8 + (COMPRESSED_CLASS_POINTERS ? 4 : 8);
+
+    /** Size of an array header in bytes, an object header plus the 4 byte length field */
+    public static final int ARRAY_HEADER_SIZE = OBJECT_HEADER_SIZE + 4;
+
+    /** Every object size is rounded up to a multiple of this many bytes */
+    public static final int OBJECT_ALIGNMENT = intOption("ObjectAlignmentInBytes", 8);
+
+    private ObjectLayout() {
+    }
+
+    /**
+     * Estimates the size of an object with the given fields
+     *
+     * @param referenceFields The number of reference fields
+     * @param primitiveBytes The total size of all primitive fields in bytes
+     * @return The aligned size of the object in bytes
+     */
+    public static long objectSize(int referenceFields, int primitiveBytes) {
+        return align(OBJECT_HEADER_SIZE + (long) referenceFields * REFERENCE_SIZE + primitiveBytes);
+    }
+
+    /**
+     * Estimates the size of an array of references
+     *
+     * @param length The length of the array
+     * @return The aligned size of the array in bytes
+     */
+    public static long referenceArraySize(int length) {
+        return arraySize(length, REFERENCE_SIZE);
+    }
+
+    /**
+     * Estimates the size of an array whose elements take the given number of bytes each
+     *
+     * @param length The length of the array
+     * @param elementSize The size of one element, e.g. Integer.BYTES for an int[]
+     * @return The aligned size of the array in bytes
+     */
+    public static long arraySize(int length, int elementSize) {
+        // 8 byte elements start at an 8 byte aligned offset after the header
+        long header = elementSize >= 8 ? align8(ARRAY_HEADER_SIZE) : ARRAY_HEADER_SIZE;
+        return align(header + (long) length * elementSize);
+    }
+
+    /**
+     * Rounds a size up to the object alignment
+     */
+    public static long align(long size) {
+        return (size + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+
+    private static long align8(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static boolean booleanOption(String name, boolean defaultValue) {
+        String value = vmOption(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static int intOption(String name, int defaultValue) {
+        String value = vmOption(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a VM flag through the HotSpot diagnostic MXBean
+     *
+     * @return The value of the flag, or null if it cannot be read on this JVM
+     */
+    private static String vmOption(String name) {
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            if (bean == null) {
+                return null;
+            }
+            VMOption option = bean.getVMOption(name);
+            return option.getValue();
+        } catch (RuntimeException | LinkageError e) {
+            // Not a HotSpot JVM, or the flag does not exist on this version
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package brendanddev.collections.equalsandhashcode;
+
+import java.util.Objects;
+
+/**
+ * Better implementation for comparison
+ * 
+ * This version of the class uses a much stronger hashCode implementation by combining both name and id fields into the calculation,
+ * which generates a more evenly distributed range of hash codes.
+ * 
+ * It is considered better because it uses more fields to generate the hash code, both of which are unique identifiers for the object,
+ * increasing the variety of hash outputs and reducing the likelihood of collisions. The algorithm also distributes values more evenly 
+ * across buckets, keeping operations fast and efficient, and reducing clustering. This leads to a lower collision rate, meaning fewer 
+ * different objects will end up with the same hash code, keeping operations fast.
+ * 
+ * The fields are combined as '31 * name.hashCode() + id', the same prime multiplier that Objects.hash() and Arrays.hashCode(Object[]) use.
+ * This spreads values well across the integer space, making it less likely for different objects to produce the same hash code. Calling
+ * Objects.hash(name, id) directly would be shorter, but it is a varargs method, so every call allocates an Object[] and boxes the id into
+ * an Integer. Writing the formula out avoids both allocations.
+ * 
+ * Since the class is final and its fields are final, the hash code is computed once in the constructor and stored. A key that is looked up
+ * many times, or compared with equals() against keys in the same bucket, never has to hash its name again. equals() also compares the stored
+ * hash codes first, which rejects most unequal keys without comparing their names.
+ * 
+ * Typically in a HashMap or HashSet, the hash code is processed, often with some bit shifting and masking, to pick a bucket index. The better
+ * and more uniform the distribution of hash codes, the more evenly objects are spread across the buckets, and the faster lookups remain.
+ */
+final class BetterHashCollision {
+    private final String name;
+    private final int id;
+
+    // The hash code, computed once since the fields it depends on never change
+    private final int hash;
+    
+    public BetterHashCollision(String name, int id) {
+        this.name = name;
+        this.id = id;
+        this.hash = 31 * Objects.hashCode(name) + id;
+    }
+
+    /**
+     * Compares this BetterHashCollision object with another object for equality 
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BetterHashCollision other = (BetterHashCollision) o;
+        return this.hash == other.hash && this.id == other.id && Objects.equals(this.name, other.name);
+    }
+
+    /**
+     * Returns the hash code combining both name and id fields, computed once in the constructor
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return "BetterHashCollision{name='" + name + "', id=" + id + ", hash=" + hashCode() + "}";
+    }
+}
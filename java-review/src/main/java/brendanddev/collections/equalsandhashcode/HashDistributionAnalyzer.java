@@ -0,0 +1,251 @@
+package brendanddev.collections.equalsandhashcode;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A reusable utility that measures how well a set of keys would be distributed across the buckets of a HashMap.
+ *
+ * It reproduces the way HashMap picks a bucket for a key: the hash code is first spread with 'h ^ (h >>> 16)' so
+ * that the high bits also affect the result, and then masked with 'capacity - 1', which only works because HashMap
+ * capacities are always powers of two. Counting how many keys land in each bucket shows the chain lengths a HashMap
+ * of that capacity would have, without building one.
+ *
+ * The resulting Report contains:
+ *
+ * - The longest chain, which bounds the number of equals() calls for a single lookup.
+ * - The chi-squared statistic of the bucket counts against a perfectly uniform distribution. For a good hash function
+ *   the statistic is close to the degrees of freedom (capacity - 1), so the report also gives their ratio as a
+ *   uniformity score where about 1.0 is ideal and much larger values mean clustering.
+ * - The predicted treeification rate. Once a chain grows beyond TREEIFY_THRESHOLD (8) nodes, HashMap converts the bucket
+ *   into a red-black tree, but only if the table has at least MIN_TREEIFY_CAPACITY (64) buckets, otherwise it resizes instead.
+ *   Treeified buckets mean the hash function is colliding badly.
+ *
+ * It is meant to be run in tests against real key types, so a regression like the 'id % 2' hash in HashCollision is
+ * caught before it reaches production. The keys are treated as distinct, as they would be in a map's key set.
+ */
+public final class HashDistributionAnalyzer {
+
+    // A chain longer than this is converted into a tree by HashMap
+    static final int TREEIFY_THRESHOLD = 8;
+
+    // HashMap resizes instead of treeifying when the table is smaller than this
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
+    // The default load factor of HashMap
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    // The largest capacity HashMap supports
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private HashDistributionAnalyzer() {
+    }
+
+    /**
+     * Analyzes the keys using the capacity a HashMap would grow to when holding all of them
+     * with the default load factor of 0.75.
+     *
+     * @param keys The keys to analyze
+     * @return The distribution report
+     */
+    public static Report analyze(Iterable<?> keys) {
+        int count = 0;
+        for (Object ignored : keys) {
+            count++;
+        }
+        return analyze(keys, tableSizeFor((int) Math.ceil(count / DEFAULT_LOAD_FACTOR)));
+    }
+
+    /**
+     * Analyzes the keys for a HashMap table with the given capacity.
+     * The capacity is rounded up to a power of two, as HashMap does.
+     *
+     * @param keys The keys to analyze
+     * @param capacity The number of buckets
+     * @return The distribution report
+     * @throws IllegalArgumentException If capacity is not positive
+     */
+    public static Report analyze(Iterable<?> keys, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        int tableSize = tableSizeFor(capacity);
+        int[] buckets = new int[tableSize];
+        int keyCount = 0;
+        for (Object key : keys) {
+            buckets[bucketIndex(key, tableSize)]++;
+            keyCount++;
+        }
+        return new Report(buckets, keyCount);
+    }
+
+    /**
+     * Computes the bucket a key is placed in by a HashMap with the given power of two capacity
+     *
+     * @param key The key, may be null (HashMap stores null in bucket 0)
+     * @param capacity The table capacity, must be a power of two
+     * @return The bucket index
+     */
+    public static int bucketIndex(Object key, int capacity) {
+        return spread(key) & (capacity - 1);
+    }
+
+    /**
+     * Applies the same bit spreading as HashMap.hash(), XORing the high 16 bits of the hash
+     * code into the low 16 bits so they take part in the bucket selection
+     */
+    static int spread(Object key) {
+        int h;
+        return (key == null) ? 0 : (h = key.hashCode()) ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     */
+    static int tableSizeFor(int capacity) {
+        if (capacity <= 1) {
+            return 1;
+        }
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * The result of analyzing a set of keys for one table capacity
+     */
+    public static final class Report {
+
+        private final int[] buckets;
+        private final int keyCount;
+        private final int usedBuckets;
+        private final int maxChainLength;
+        private final double chiSquared;
+        private final int treeifiedBuckets;
+        private final int keysInTreeifiedBuckets;
+
+        Report(int[] buckets, int keyCount) {
+            this.buckets = buckets;
+            this.keyCount = keyCount;
+
+            int used = 0;
+            int max = 0;
+            int treeified = 0;
+            int treeifiedKeys = 0;
+            double expected = (double) keyCount / buckets.length;
+            double chi = 0;
+            boolean canTreeify = buckets.length >= MIN_TREEIFY_CAPACITY;
+            for (int count : buckets) {
+                if (count > 0) {
+                    used++;
+                }
+                if (count > max) {
+                    max = count;
+                }
+                if (canTreeify && count > TREEIFY_THRESHOLD) {
+                    treeified++;
+                    treeifiedKeys += count;
+                }
+                double difference = count - expected;
+                chi += difference * difference;
+            }
+            this.usedBuckets = used;
+            this.maxChainLength = max;
+            this.chiSquared = expected > 0 ? chi / expected : 0;
+            this.treeifiedBuckets = treeified;
+            this.keysInTreeifiedBuckets = treeifiedKeys;
+        }
+
+        /** The number of buckets in the simulated table */
+        public int getCapacity() {
+            return buckets.length;
+        }
+
+        /** The number of keys analyzed */
+        public int getKeyCount() {
+            return keyCount;
+        }
+
+        /** The number of buckets holding at least one key */
+        public int getUsedBuckets() {
+            return usedBuckets;
+        }
+
+        /** The number of keys in the fullest bucket */
+        public int getMaxChainLength() {
+            return maxChainLength;
+        }
+
+        /** The average number of keys in the buckets that hold at least one key */
+        public double getAverageChainLength() {
+            return usedBuckets == 0 ? 0 : (double) keyCount / usedBuckets;
+        }
+
+        /** The number of keys in the given bucket */
+        public int getChainLength(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * The chi-squared statistic of the bucket counts against a uniform distribution,
+         * sum((observed - expected)^2 / expected) with expected = keys / capacity
+         */
+        public double getChiSquared() {
+            return chiSquared;
+        }
+
+        /**
+         * The chi-squared statistic divided by its degrees of freedom (capacity - 1).
+         * About 1.0 for a uniformly distributing hash, much larger when keys cluster.
+         */
+        public double getUniformityScore() {
+            return buckets.length > 1 ? chiSquared / (buckets.length - 1) : 0;
+        }
+
+        /** The number of buckets HashMap would convert into trees at this capacity */
+        public int getTreeifiedBuckets() {
+            return treeifiedBuckets;
+        }
+
+        /** The fraction of used buckets that would be treeified */
+        public double getTreeificationRate() {
+            return usedBuckets == 0 ? 0 : (double) treeifiedBuckets / usedBuckets;
+        }
+
+        /** The fraction of keys that would live in treeified buckets */
+        public double getTreeifiedKeyFraction() {
+            return keyCount == 0 ? 0 : (double) keysInTreeifiedBuckets / keyCount;
+        }
+
+        /**
+         * Counts how many buckets have each chain length
+         *
+         * @return A sorted map from chain length to number of buckets, leaving out empty buckets
+         */
+        public Map<Integer, Integer> getChainLengthHistogram() {
+            Map<Integer, Integer> histogram = new TreeMap<>();
+            for (int count : buckets) {
+                if (count > 0) {
+                    histogram.merge(count, 1, Integer::sum);
+                }
+            }
+            return histogram;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Keys: ").append(keyCount).append(", capacity: ").append(buckets.length).append('\n');
+            sb.append("Used buckets: ").append(usedBuckets)
+              .append(String.format(" (%.1f%%)", usedBuckets * 100.0 / buckets.length)).append('\n');
+            sb.append("Max chain length: ").append(maxChainLength)
+              .append(String.format(", average: %.2f", getAverageChainLength())).append('\n');
+            sb.append(String.format("Chi-squared: %.1f (uniformity score %.2f, ideal ~1.0)", chiSquared, getUniformityScore())).append('\n');
+            sb.append("Treeified buckets: ").append(treeifiedBuckets)
+              .append(String.format(" (%.1f%% of used buckets, %.1f%% of keys)",
+                      getTreeificationRate() * 100, getTreeifiedKeyFraction() * 100));
+            return sb.toString();
+        }
+    }
+}
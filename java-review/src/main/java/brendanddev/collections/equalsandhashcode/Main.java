@@ -2,6 +2,10 @@ package brendanddev.collections.equalsandhashcode;
 
 import java.util.*;
 
+import brendanddev.collections.HashingStrategy;
+import brendanddev.collections.map.CustomMap;
+import brendanddev.collections.set.ImprovedCustomSet;
+
 /**
  * A demonstration of hash collisions in Java using a poor hash function and how it affects the performance
  * of hash based collections like HashMap and HashSet. The class also includes methods to compare the performance
@@ -25,6 +29,9 @@ public class Main {
 
         // Analyze hash bucket distribution
         analyzeHashDistribution();
+
+        // Repair the poor hash at the collection level with a hashing strategy
+        demonstrateHashingStrategy();
     }
 
     /**
@@ -56,7 +63,7 @@ public class Main {
     }
     
     /**
-     * Compares the performance of a poor hash function (id % 2) vs a good one (using Objects.hash())
+     * Compares the performance of a poor hash function (id % 2) vs a good one (31 * name.hashCode() + id)
      * by measuring the time taken to perform lookups in a HashSet.
      * 
      * The time complexity of lookups in a HashSet is O(1) on average, but with poor hash functions,
@@ -180,35 +187,80 @@ public class Main {
         System.out.println("Collisions hurt performance but don't break correctness");
         System.out.println("equals() is used to resolve collisions");
         System.out.println("Good hash functions distribute objects evenly");
-        System.out.println("Use Objects.hash() for combining multiple fields");
+        System.out.println("Combine multiple fields with a prime multiplier like 31");
+        System.out.println("Immutable keys can compute their hash code once and cache it");
     }
 
      /**
-      * Analyzes how objects are distributed across hash buckets in a HashMap.
+      * Analyzes how objects are distributed across hash buckets in a HashMap using the
+      * HashDistributionAnalyzer, first for a handful of HashCollision objects, and then
+      * comparing 10,000 keys of the poor and the better hash function.
       */
     private static void analyzeHashDistribution() {
-        Map<Integer, List<HashCollision>> buckets = new HashMap<>();
-        
-        // Create several objects
+        List<HashCollision> fewKeys = new ArrayList<>();
         for (int i = 1; i <= 10; i++) {
-            HashCollision obj = new HashCollision("Person" + i, i);
-            
-            // Grab hash code using poor hash function
-            int hash = obj.hashCode();
-            
-            // Tries to add object to existing bucket or creates a new one if dosent exist
-            // This will show how many objects collide in each bucket
-            buckets.computeIfAbsent(hash, k -> new ArrayList<>()).add(obj);
+            fewKeys.add(new HashCollision("Person" + i, i));
         }
-        
-        // Print out the distribution of objects across buckets
+
+        // Print out the distribution of objects across the buckets of a default sized HashMap
+        HashDistributionAnalyzer.Report fewReport = HashDistributionAnalyzer.analyze(fewKeys, 16);
         System.out.println("Hash bucket distribution:");
-        buckets.forEach((hash, objects) -> {
-            System.out.println("Bucket " + hash + " (" + objects.size() + " objects): " + 
-                             objects.stream()
-                                   .map(o -> "id=" + o.getId())
-                                   .reduce((a, b) -> a + ", " + b)
-                                   .orElse("empty"));
-        });
+        for (int bucket = 0; bucket < fewReport.getCapacity(); bucket++) {
+            if (fewReport.getChainLength(bucket) > 0) {
+                System.out.println("Bucket " + bucket + " (" + fewReport.getChainLength(bucket) + " objects)");
+            }
+        }
+
+        // Compare the poor and the better hash function on a larger key set
+        List<HashCollision> poorKeys = new ArrayList<>();
+        List<BetterHashCollision> goodKeys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            poorKeys.add(new HashCollision("Person" + i, i));
+            goodKeys.add(new BetterHashCollision("Person" + i, i));
+        }
+        System.out.println("\nHashCollision (id % 2):");
+        System.out.println(HashDistributionAnalyzer.analyze(poorKeys));
+        System.out.println("\nBetterHashCollision (31 * name.hashCode() + id):");
+        System.out.println(HashDistributionAnalyzer.analyze(goodKeys));
+    }
+
+    /**
+     * Stores HashCollision keys in an ImprovedCustomSet, once with their own 'id % 2' hash code and once with a
+     * HashingStrategy that hashes them by id instead.
+     *
+     * With the poor hash every key lands in one of two probe runs, so building the set is O(n^2). The strategy
+     * fixes this inside the set, without changing HashCollision, and the same strategy works for CustomMap.
+     */
+    private static void demonstrateHashingStrategy() {
+        System.out.println("\n5. HASHING STRATEGY");
+        System.out.println("===================");
+
+        final int NUM_OBJECTS = 10000;
+        HashCollision[] keys = new HashCollision[NUM_OBJECTS];
+        for (int i = 0; i < NUM_OBJECTS; i++) {
+            keys[i] = new HashCollision("Person" + i, i);
+        }
+
+        long startTime = System.nanoTime();
+        ImprovedCustomSet<HashCollision> poorSet = new ImprovedCustomSet<>();
+        for (HashCollision key : keys) {
+            poorSet.add(key);
+        }
+        long poorTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        ImprovedCustomSet<HashCollision> fixedSet = new ImprovedCustomSet<>(HashingStrategy.byField(HashCollision::getId));
+        for (HashCollision key : keys) {
+            fixedSet.add(key);
+        }
+        long fixedTime = System.nanoTime() - startTime;
+
+        System.out.println("Build with hashCode() (id % 2): " + poorTime / 1_000_000.0 + " ms");
+        System.out.println("Build with HashingStrategy.byField(getId): " + fixedTime / 1_000_000.0 + " ms");
+
+        CustomMap<HashCollision, String> roles = new CustomMap<>(HashingStrategy.byField(HashCollision::getId));
+        roles.put(new HashCollision("Alice", 1), "Engineer");
+        roles.put(new HashCollision("Bob", 3), "Designer");
+        System.out.println("CustomMap lookup of Bob (id=3): " + roles.get(new HashCollision("Bob", 3)));
     }
-}
\ No newline at end of file
+}
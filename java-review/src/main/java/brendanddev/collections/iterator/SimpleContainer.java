@@ -1,16 +1,47 @@
 package brendanddev.collections.iterator;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
 
 /**
  * Simple container class that demonstrates how to implement Iterator interface.
  * This shows the basic pattern for making any custom collection iterable.
+ * 
+ * It also provides an array backed Spliterator, so the container can be used
+ * efficiently as the source of a parallel stream.
+ * 
+ * Removing through the iterator does not shift the tail of the array on every call.
+ * Instead the removed slots form a gap that travels along with the iterator: each
+ * following next() moves one element from behind the gap to its front, and the gap
+ * is closed in a single pass once iteration finishes. Removing k of n elements in
+ * one pass is therefore O(n) instead of O(n*k). While a gap is open, get() and size()
+ * already reflect the removals by skipping over it. The slots of the gap are always
+ * null, so an iterator that is abandoned halfway does not keep removed or moved
+ * elements reachable until the gap is closed by the next add() or iterator().
  */
-public class SimpleContainer<T> implements Iterable<T> {
+public class SimpleContainer<T> implements Iterable<T>, MemoryFootprint {
     private T[] elements;
     private int size;
     private static final int DEFAULT_CAPACITY = 10;
+
+    // Number of structural modifications, used to detect concurrent modification
+    private int modCount;
+
+    // Slots [gapStart, gapEnd) hold elements removed by an iterator that
+    // have not been compacted away yet, 'size' still counts them
+    private int gapStart;
+    private int gapEnd;
     
     public SimpleContainer() {
         elements = (T[]) new Object[DEFAULT_CAPACITY];
@@ -21,9 +52,11 @@ public class SimpleContainer<T> implements Iterable<T> {
      * Add an element to the container
      */
     public void add(T element) {
+        closeGap();
         if (size >= elements.length) {
             resize();
         }
+        modCount++;
         elements[size++] = element;
     }
     
@@ -31,24 +64,113 @@ public class SimpleContainer<T> implements Iterable<T> {
      * Get element at specific index
      */
     public T get(int index) {
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int logicalSize = size();
+        if (index < 0 || index >= logicalSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + logicalSize);
         }
-        return elements[index];
+        // Skip over removed slots that have not been compacted yet
+        return elements[index < gapStart ? index : index + (gapEnd - gapStart)];
     }
     
     /**
-     * Get current size
+     * Get current size, not counting removed slots awaiting compaction
      */
     public int size() {
-        return size;
+        return size - (gapEnd - gapStart);
+    }
+
+    /**
+     * Get the length of the internal array
+     */
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Estimate the memory used by the container and its internal array,
+     * not counting the elements themselves
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // One reference field (elements) and four int fields (size, modCount, gapStart, gapEnd)
+        return ObjectLayout.objectSize(1, 4 * Integer.BYTES) + ObjectLayout.referenceArraySize(elements.length);
+    }
+
+    /**
+     * Shrink the internal array to the current size, releasing the unused
+     * slots left behind by doubling the capacity
+     */
+    public void trimToSize() {
+        closeGap();
+        if (size < elements.length) {
+            modCount++;
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * Removes every element matching the filter in a single O(n) pass.
+     * Kept elements are moved down over the removed ones as the array is scanned,
+     * and the freed tail is cleared once at the end.
+     * 
+     * @param filter Returns true for elements to remove
+     * @return true if any element was removed
+     */
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        closeGap();
+        final int expectedModCount = modCount;
+        final T[] es = elements;
+        final int end = size;
+        int read = 0;
+        int write = 0;
+        try {
+            for (; read < end; read++) {
+                T element = es[read];
+                if (!filter.test(element)) {
+                    es[write++] = element;
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        } finally {
+            // If the filter threw, keep the elements that were not tested yet
+            if (read < end) {
+                System.arraycopy(es, read, es, write, end - read);
+                write += end - read;
+            }
+            if (write < end) {
+                Arrays.fill(es, write, end, null);
+                size = write;
+                modCount++;
+            }
+        }
+        return write < end;
     }
     
+    /**
+     * Compacts away the removed slots left behind by an iterator with a single
+     * arraycopy of the elements after the gap. Any iterator that is still using
+     * the gap will fail with a ConcurrentModificationException afterwards.
+     */
+    private void closeGap() {
+        int gap = gapEnd - gapStart;
+        if (gap > 0) {
+            System.arraycopy(elements, gapEnd, elements, gapStart, size - gapEnd);
+            Arrays.fill(elements, size - gap, size, null);  // Help GC
+            size -= gap;
+            modCount++;
+        }
+        gapStart = gapEnd = 0;
+    }
+
     /**
      * Resize internal array when needed
      */
     private void resize() {
-        T[] newElements = (T[]) new Object[elements.length * 2];
+        T[] newElements = (T[]) new Object[Math.max(DEFAULT_CAPACITY, elements.length * 2)];
         System.arraycopy(elements, 0, newElements, 0, size);
         elements = newElements;
     }
@@ -56,58 +178,196 @@ public class SimpleContainer<T> implements Iterable<T> {
     /**
      * Implementation of Iterable interface - must return an Iterator
      * This uses an anonymous inner class.
+     * 
+     * Any gap left by an earlier, abandoned iterator is closed first. The
+     * iterator is fail fast, it throws ConcurrentModificationException if the
+     * container is modified other than through its own remove().
      */
     @Override
     public Iterator<T> iterator() {
+        closeGap();
         return new Iterator<T>() {
-            private int currentIndex = 0;
-            private boolean canRemove = false;
+            private int currentIndex = 0;       // Physical index of the next element to read
+            private int lastReturned = -1;      // Physical index of the last element returned, -1 if none
+            private int expectedModCount = modCount;
             
             @Override
             public boolean hasNext() {
-                return currentIndex < size;
+                if (currentIndex < size) {
+                    return true;
+                }
+                // Iteration is over, compact away everything removed during it in one pass
+                if (gapStart < gapEnd && modCount == expectedModCount) {
+                    closeGap();
+                    expectedModCount = modCount;
+                    currentIndex = size;
+                }
+                return false;
             }
             
             @Override
             public T next() {
-                if (!hasNext()) {
+                checkForComodification();
+                if (currentIndex >= size) {
                     throw new NoSuchElementException("No more elements");
                 }
-                canRemove = true;  // Mark that we can now remove
-                return elements[currentIndex++];
+                T element = elements[currentIndex];
+                if (gapStart < gapEnd) {
+                    // Move the element in front of the gap, the gap moves one slot further along.
+                    // Its old slot becomes the last slot of the gap and is cleared, so the gap never
+                    // holds references, even if the iterator is abandoned before the gap is closed
+                    elements[gapStart] = element;
+                    elements[currentIndex] = null;
+                    lastReturned = gapStart;
+                    gapStart++;
+                    gapEnd++;
+                } else {
+                    lastReturned = currentIndex;
+                }
+                currentIndex++;
+                return element;
             }
             
             @Override
             public void remove() {
-                if (!canRemove) {
+                if (lastReturned < 0) {
                     throw new IllegalStateException("Cannot remove - call next() first");
                 }
+                checkForComodification();
                 
-                // Remove the last element returned by next()
-                int indexToRemove = currentIndex - 1;
-                
-                // Shift elements left to fill the gap
-                for (int i = indexToRemove; i < size - 1; i++) {
-                    elements[i] = elements[i + 1];
+                // The last returned element always sits directly in front of the gap,
+                // so removing it just widens the gap by one slot, no elements are shifted
+                if (gapStart < gapEnd) {
+                    gapStart--;
+                } else {
+                    gapStart = lastReturned;
+                    gapEnd = currentIndex;
                 }
+                elements[gapStart] = null;  // Help GC
                 
-                // Clean up and adjust
-                elements[--size] = null;  // Help GC and decrement size
-                currentIndex--;           // Adjust current position
-                canRemove = false;        // Reset remove flag
+                modCount++;
+                expectedModCount = modCount;
+                lastReturned = -1;          // Reset remove flag
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
             }
         };
     }
     
+    /**
+     * Creates a Spliterator that covers an index range of the backing array.
+     * It knows its exact size (SIZED, SUBSIZED) and splits in O(1) by handing off
+     * the lower half of its range, so parallel streams get balanced chunks.
+     * The range is bound on first use, and the spliterator fails fast if the
+     * container is modified after that.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ContainerSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential Stream over the elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the elements
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Index range based Spliterator over the backing array
+     */
+    private final class ContainerSpliterator implements Spliterator<T> {
+        private int index;             // current index
+        private int fence;             // one past the last index, -1 until first use
+        private int expectedModCount;  // modCount when the fence was set
+
+        ContainerSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                closeGap();
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ContainerSpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            if (index < hi) {
+                action.accept(elements[index++]);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            T[] es = elements;
+            for (int i = index; i < hi; i++) {
+                action.accept(es[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+    
     /**
      * String representation for easy printing
      */
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < size; i++) {
-            sb.append(elements[i]);
-            if (i < size - 1) {
+        int logicalSize = size();
+        for (int i = 0; i < logicalSize; i++) {
+            sb.append(get(i));
+            if (i < logicalSize - 1) {
                 sb.append(", ");
             }
         }
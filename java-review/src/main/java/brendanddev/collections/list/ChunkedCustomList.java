@@ -0,0 +1,313 @@
+package brendanddev.collections.list;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A variant of CustomList that stores its elements in many small fixed size arrays (chunks) instead of one large array.
+ *
+ * When CustomList runs out of space it allocates an array 50% larger and copies every element into it. For a list of
+ * 100 million elements that is a single allocation of hundreds of megabytes plus a copy of all existing references, and
+ * in G1 any array larger than half a region is a humongous object that is allocated directly in the old generation.
+ * The add() that triggers the resize therefore takes far longer than all the others, which shows up as a latency spike.
+ *
+ * This list only ever allocates a new chunk of CHUNK_SIZE references when the last one is full, so no element is ever
+ * copied when the list grows and every allocation is small. The chunks are kept in a directory array that does grow
+ * like CustomList, but it only holds one reference per chunk, so it is thousands of times smaller than the elements.
+ *
+ * CHUNK_SIZE is a power of two, so the chunk holding an index is index >>> CHUNK_SHIFT and the position inside it is
+ * index & CHUNK_MASK, which keeps get() O(1) at the cost of one extra array dereference compared to CustomList.
+ *
+ * Time Complexity: add() O(1) and never copies elements, get() O(1), remove() O(n) like CustomList.
+ */
+public class ChunkedCustomList<E> implements Iterable<E>, MemoryFootprint {
+
+    // Each chunk holds 1 << CHUNK_SHIFT elements, 16 KB of references with compressed oops
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Define default initial number of chunk slots in the directory
+    private static final int DEFAULT_DIRECTORY_CAPACITY = 8;
+
+    // The chunks, only the first chunkCount entries are allocated
+    private Object[][] chunks;
+    private int chunkCount;
+
+    // Current number of elements in the list
+    private int size = 0;
+
+    // Number of structural modifications, used by iterators to detect concurrent modification
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty ChunkedCustomList, no chunk is allocated until the first add
+     */
+    public ChunkedCustomList() {
+        chunks = new Object[DEFAULT_DIRECTORY_CAPACITY][];
+    }
+
+    /**
+     * Constructs an empty ChunkedCustomList with chunks for the specified initial capacity
+     * @param initialCapacity
+     */
+    public ChunkedCustomList(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be greater than zero");
+        }
+        chunks = new Object[Math.max(DEFAULT_DIRECTORY_CAPACITY, chunksFor(initialCapacity))][];
+        ensureCapacity(initialCapacity);
+    }
+
+    /**
+     * Returns the number of chunks needed to hold the given number of elements
+     */
+    private static int chunksFor(int capacity) {
+        return (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Ensures that enough chunks are allocated to hold at least minCapacity elements.
+     * New chunks are added after the existing ones, which are left untouched.
+     *
+     * @param minCapacity The minimum capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        int neededChunks = chunksFor(minCapacity);
+        if (neededChunks <= chunkCount) {
+            return;
+        }
+        if (neededChunks > chunks.length) {
+            // Grow the directory by 50%, it holds one reference per chunk so this copy is small
+            chunks = Arrays.copyOf(chunks, Math.max(neededChunks, chunks.length + (chunks.length / 2)));
+        }
+        while (chunkCount < neededChunks) {
+            chunks[chunkCount++] = new Object[CHUNK_SIZE];
+        }
+    }
+
+    /**
+     * Checks if the provided index is within the bounds of the list
+     *
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Adds a new element to the end of the list, allocating a new chunk if the last one is full.
+     *
+     * @param element The element to add to the list
+     */
+    public void add(E element) {
+        if (size == Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("List is full");
+        }
+        ensureCapacity(size + 1);
+        modCount++;
+        chunks[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = element;
+        size++;
+    }
+
+    /**
+     * Retrieves the element at the specified index after validating the index is within bounds.
+     *
+     * @param index The index of the element to retrieve (0-based)
+     * @return The element at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index);
+        return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Replaces the element at the specified index. The structure of the list does not change,
+     * so iterators that are in progress stay valid.
+     *
+     * @param index The index of the element to replace (0-based)
+     * @param element The element to store at the given index
+     * @return The element previously at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public E set(int index, E element) {
+        E oldElement = get(index);
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = element;
+        return oldElement;
+    }
+
+    /**
+     * Removes the element at the specified index and shifts subsequent elements left.
+     *
+     * Within each chunk the elements are moved with one System.arraycopy, and the first element
+     * of every following chunk is carried over to the last slot of the chunk before it.
+     *
+     * @param index the index of the element to remove (0-based)
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public E remove(int index) {
+        checkIndex(index);
+        modCount++;
+        E removedElement = get(index);
+
+        int last = size - 1;
+        int i = index;
+        while (i < last) {
+            Object[] chunk = chunks[i >>> CHUNK_SHIFT];
+            // Shift the rest of this chunk left by one
+            int lastInChunk = Math.min(last, i | CHUNK_MASK);
+            int offset = i & CHUNK_MASK;
+            System.arraycopy(chunk, offset + 1, chunk, offset, lastInChunk - i);
+            i = lastInChunk;
+            if (i < last) {
+                // Carry the first element of the next chunk into the last slot of this one
+                chunk[CHUNK_MASK] = chunks[(i + 1) >>> CHUNK_SHIFT][0];
+                i++;
+            }
+        }
+        chunks[last >>> CHUNK_SHIFT][last & CHUNK_MASK] = null; // Clear to let GC do its work
+        size--;
+        return removedElement;
+    }
+
+    /**
+     * Retrieves the current number of elements in the list
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of elements the allocated chunks can hold
+     *
+     * @return The capacity of the list
+     */
+    @Override
+    public int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) chunkCount << CHUNK_SHIFT);
+    }
+
+    /**
+     * Estimates the memory used by the list object, its chunk directory and the chunks, not counting
+     * the element objects themselves
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // One reference field (chunks) and three int fields (chunkCount, size, modCount)
+        return ObjectLayout.objectSize(1, 3 * Integer.BYTES)
+                + ObjectLayout.referenceArraySize(chunks.length)
+                + (long) chunkCount * ObjectLayout.referenceArraySize(CHUNK_SIZE);
+    }
+
+    /**
+     * Releases the chunks after the one holding the last element, and shrinks the chunk directory
+     * to the chunks in use. The last chunk itself keeps its full size, so at most CHUNK_SIZE - 1
+     * slots stay unused.
+     */
+    public void trimToSize() {
+        int neededChunks = chunksFor(size);
+        if (neededChunks < chunkCount) {
+            Arrays.fill(chunks, neededChunks, chunkCount, null);
+            chunkCount = neededChunks;
+        }
+        if (chunkCount < chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount);
+        }
+    }
+
+    /**
+     * Returns a string representation of the ChunkedCustomList, showing all elements in order
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(get(i));
+            if (i < size - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Returns a fail fast iterator that walks the chunks in order, keeping a reference to the current
+     * chunk so that most calls to next() are a single array read.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            // Index of the next element to return
+            int cursor = 0;
+
+            // The modCount the list had when this iterator was created
+            int expectedModCount = modCount;
+
+            // The chunk holding the element at cursor, loaded whenever the cursor enters a new chunk
+            Object[] chunk;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements to iterate over");
+                }
+                int i = cursor++;
+                int slot = i & CHUNK_MASK;
+                if (slot == 0) {
+                    chunk = chunks[i >>> CHUNK_SHIFT];
+                }
+                return (E) chunk[slot];
+            }
+        };
+    }
+
+    /**
+     * Performs the given action for each element of the list, in order, walking each chunk
+     * directly without creating an iterator.
+     *
+     * @param action The action to perform on each element
+     * @throws ConcurrentModificationException if the list is modified during the loop
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final int n = size;
+        for (int start = 0; start < n && modCount == expectedModCount; start += CHUNK_SIZE) {
+            Object[] chunk = chunks[start >>> CHUNK_SHIFT];
+            int end = Math.min(CHUNK_SIZE, n - start);
+            for (int j = 0; j < end && modCount == expectedModCount; j++) {
+                action.accept((E) chunk[j]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package brendanddev.collections.list;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A thread safe variant of CustomList that can be shared between threads.
+ *
+ * CustomList has no synchronization at all, so two threads adding at the same time can overwrite each others
+ * slots or lose a resize, and a reader can see a size that does not match the array it is reading from.
+ * This class keeps the same add/get/remove/size/ensureCapacity contract but makes reads lock free and
+ * serializes all writes.
+ *
+ * The backing array and the size are published together as a single immutable Snapshot object held in a
+ * volatile field. A reader reads that field once and then works only with the snapshot it got, so it always
+ * sees an array and a size that belong together, without taking any lock. Writers take a lock, build the next
+ * state, and publish it by writing a new Snapshot to the volatile field:
+ *
+ * - add() writes the new element into the first unused slot of the current array, which no published
+ *   snapshot can see yet since it is past their size, and then publishes a snapshot with the size increased by one.
+ * - remove() never shifts elements inside an array that readers may be using. It copies the remaining elements
+ *   into a new array instead (copy on write), so it is O(n) just like CustomList.remove().
+ * - Growing the array copies the elements into a larger array, as in CustomList.ensureCapacity().
+ *
+ * Iterators walk the snapshot that was current when they were created. They never throw
+ * ConcurrentModificationException and do not see changes made after they were created.
+ */
+public class ConcurrentCustomList<E> implements Iterable<E> {
+
+    // Define default initial capacity if none specified
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * An immutable pairing of a backing array and the number of elements in use.
+     * Readers must only access indices below 'size' of the array they got from the snapshot.
+     */
+    private static final class Snapshot {
+        final Object[] elements;
+        final int size;
+
+        Snapshot(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+    // The current state of the list, replaced as a whole on every write
+    private volatile Snapshot snapshot;
+
+    // Lock serializing all writers
+    private final Object writeLock = new Object();
+
+    /**
+     * Constructs an empty ConcurrentCustomList with the default initial capacity
+     */
+    public ConcurrentCustomList() {
+        snapshot = new Snapshot(new Object[DEFAULT_CAPACITY], 0);
+    }
+
+    /**
+     * Constructs an empty ConcurrentCustomList with the specified initial capacity
+     * @param initialCapacity
+     */
+    public ConcurrentCustomList(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be greater than zero");
+        }
+        snapshot = new Snapshot(new Object[initialCapacity], 0);
+    }
+
+    /**
+     * Ensures that the underlying array has enough capacity to hold at least minCapacity elements,
+     * increasing the capacity by 50% (or to minCapacity if that is larger) when a resize is needed.
+     *
+     * @param minCapacity The minimum capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (minCapacity > current.elements.length) {
+                snapshot = new Snapshot(grow(current.elements, current.size, minCapacity), current.size);
+            }
+        }
+    }
+
+    /**
+     * Adds a new element to the end of the list, resizing if necessary.
+     *
+     * @param element The element to add to the list
+     */
+    public void add(E element) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Object[] elements = current.elements;
+            int size = current.size;
+            if (size == elements.length) {
+                elements = grow(elements, size, size + 1);
+            }
+            // The slot is beyond the size of every published snapshot, so no reader is looking at it
+            elements[size] = element;
+            snapshot = new Snapshot(elements, size + 1);
+        }
+    }
+
+    /**
+     * Retrieves the element at the specified index without locking.
+     *
+     * @param index The index of the element to retrieve (0-based)
+     * @return The element at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        // Read the volatile field once so the bounds check and the read use the same state
+        Snapshot current = snapshot;
+        checkIndex(index, current.size);
+        return (E) current.elements[index];
+    }
+
+    /**
+     * Removes the element at the specified index.
+     * The remaining elements are copied into a new array so readers of the old array are not affected.
+     *
+     * @param index the index of the element to remove (0-based)
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            int size = current.size;
+            checkIndex(index, size);
+            Object[] elements = current.elements;
+            E removedElement = (E) elements[index];
+
+            Object[] newElements = new Object[elements.length];
+            System.arraycopy(elements, 0, newElements, 0, index);
+            System.arraycopy(elements, index + 1, newElements, index, size - index - 1);
+            snapshot = new Snapshot(newElements, size - 1);
+            return removedElement;
+        }
+    }
+
+    /**
+     * Retrieves the current number of elements in the list without locking
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Returns a string representation of the list as of a single snapshot
+     */
+    @Override
+    public String toString() {
+        Snapshot current = snapshot;
+        return Arrays.toString(Arrays.copyOf(current.elements, current.size));
+    }
+
+    /**
+     * Returns an iterator over the snapshot that is current at the time of the call.
+     * The iterator does not support remove().
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Snapshot current = snapshot;
+        return new Iterator<E>() {
+
+            int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < current.size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements to iterate over");
+                }
+                return (E) current.elements[cursor++];
+            }
+        };
+    }
+
+    /**
+     * Copies the first size elements into a new array grown by 50%, or to minCapacity if that is larger
+     */
+    private static Object[] grow(Object[] elements, int size, int minCapacity) {
+        int newCapacity = elements.length + (elements.length / 2);
+        if (newCapacity < minCapacity) {
+            newCapacity = minCapacity;
+        }
+        Object[] newElements = new Object[newCapacity];
+        System.arraycopy(elements, 0, newElements, 0, size);
+        return newElements;
+    }
+
+    /**
+     * Checks if the provided index is within the bounds of a snapshot with the given size
+     *
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+}
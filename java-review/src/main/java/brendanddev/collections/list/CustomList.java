@@ -1,6 +1,19 @@
 package brendanddev.collections.list;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
 
 /**
  * This class demonstrates a simplified generic dynamic array implementation similar to Java's ArrayList.
@@ -13,8 +26,20 @@ import java.util.Iterator;
  * Since generic arrays cannot be created directly in Java, the underlying array is created as Object[] and cast to E[] to satisfy type safety.
  * Index bounds are checked for all access methods to ensure safety and consistent exception handling, and the iterator is implemented as an 
  * anonymous inner class enabling easy access to outer class members without needing a separate Iterator implementation class.
+ * 
+ * Besides single element add() and remove(), the list has bulk operations (addAll, insertAll, removeRange, clear, removeIf)
+ * for loading and trimming batches. Each of them resizes the array at most once and moves the affected elements with a
+ * single System.arraycopy, instead of paying for a capacity check and a shift per element.
+ * 
+ * Like ArrayList, the list counts its structural modifications (adds and removes) in modCount. Iterators remember the count
+ * they started with and fail fast with a ConcurrentModificationException if the list is modified behind their back, instead
+ * of silently returning stale or skipped elements. For hot loops that should not allocate an iterator on every pass, the list
+ * also offers an allocation free forEach() and a reusable Cursor.
+ * 
+ * For use with streams, the list provides its own array backed Spliterator. It reports its exact size and splits
+ * by halving its index range, so parallelStream() can hand evenly sized chunks of the array to the fork join pool.
  */
-public class CustomList<E> implements Iterable<E> {
+public class CustomList<E> implements Iterable<E>, MemoryFootprint {
 
     // Define default initial capacity if none specified
     private static final int DEFAULT_CAPACITY = 10;
@@ -25,6 +50,9 @@ public class CustomList<E> implements Iterable<E> {
     // Current number of elements in the list
     private int size = 0;
 
+    // Number of structural modifications, used by iterators to detect concurrent modification
+    private int modCount = 0;
+
     /**
      * Constructs an empty CustomList with the default initial capacity
      */
@@ -59,21 +87,58 @@ public class CustomList<E> implements Iterable<E> {
         // Check if resize is needed
         if (minCapacity > elements.length) {
 
-            // Increase the capacity of the array by 50%
-            int newCapacity = elements.length + (elements.length / 2);
-
-            // Ensure new capacity is at least minCapacity
-            if (newCapacity < minCapacity) {
-                newCapacity = minCapacity;
-            }
-
             // Create a new array with the larger capacity and copy elements over
-            E[] newElements = (E[]) new Object[newCapacity];
+            E[] newElements = (E[]) new Object[newCapacity(minCapacity)];
             System.arraycopy(elements, 0, newElements, 0, size);
             elements = newElements;
         }
     }
 
+    /**
+     * Computes the capacity to grow to when at least minCapacity elements must fit.
+     * The capacity is increased by 50%, or to minCapacity if that is larger.
+     * 
+     * @param minCapacity The minimum capacity required
+     * @return The new capacity
+     * @throws OutOfMemoryError If minCapacity overflowed
+     */
+    private int newCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+
+        // Increase the capacity of the array by 50%
+        int newCapacity = elements.length + (elements.length / 2);
+
+        // Ensure new capacity is at least minCapacity, also when the increase overflowed
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        return newCapacity;
+    }
+
+    /**
+     * Opens a gap of count empty slots at index by moving the elements from index onwards to the right.
+     * 
+     * If the array is large enough the tail is shifted with a single System.arraycopy. Otherwise the array
+     * is grown once, and the elements before and after the gap are copied straight to their final positions
+     * in the new array, so no element is copied twice.
+     * 
+     * @param index The position of the first empty slot
+     * @param count The number of slots to open
+     */
+    private void openGap(int index, int count) {
+        int minCapacity = size + count;
+        if (minCapacity <= elements.length) {
+            System.arraycopy(elements, index, elements, index + count, size - index);
+        } else {
+            E[] newElements = (E[]) new Object[newCapacity(minCapacity)];
+            System.arraycopy(elements, 0, newElements, 0, index);
+            System.arraycopy(elements, index, newElements, index + count, size - index);
+            elements = newElements;
+        }
+    }
+
     /**
      * Checks if the provided index is within the bounds of the list
      * 
@@ -86,6 +151,18 @@ public class CustomList<E> implements Iterable<E> {
         }
     }
 
+    /**
+     * Checks if the provided index is a valid position to insert at, which includes size
+     * 
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
     /**
      * Adds a new element to the end of the list, resizing if necessary.
      * 
@@ -94,6 +171,7 @@ public class CustomList<E> implements Iterable<E> {
     public void add(E element) {
         // Ensure there is enough space, resize if needed
         ensureCapacity(size + 1);
+        modCount++;
         elements[size++] = element;
     }
 
@@ -123,6 +201,7 @@ public class CustomList<E> implements Iterable<E> {
     public E remove(int index) {
         // Validate the index is within bounds of the list
         checkIndex(index);
+        modCount++;
         E removedElement = elements[index];
         // Shift elements left to fill the gap
         int numMoved = size - index - 1;
@@ -133,6 +212,149 @@ public class CustomList<E> implements Iterable<E> {
         return removedElement;
     }
 
+    /**
+     * Inserts an element at the specified index, shifting the element currently at that
+     * position and all following elements to the right.
+     * 
+     * @param index The index to insert the element at (0 to size)
+     * @param element The element to insert
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public void add(int index, E element) {
+        checkPositionIndex(index);
+        modCount++;
+        openGap(index, 1);
+        elements[index] = element;
+        size++;
+    }
+
+    /**
+     * Appends every element of the given array to the end of the list.
+     * The list is resized at most once and the elements are copied with a single System.arraycopy.
+     * 
+     * @param values The elements to add
+     * @return true if the list changed
+     */
+    public boolean addAll(E[] values) {
+        return insertAll(size, values);
+    }
+
+    /**
+     * Appends every element of the given collection to the end of the list, in the order of its iterator.
+     * The collection is copied into an array once with toArray(), then added like addAll(E[]).
+     * 
+     * @param values The elements to add
+     * @return true if the list changed
+     */
+    public boolean addAll(Collection<? extends E> values) {
+        Object[] array = values.toArray();
+        int count = array.length;
+        if (count == 0) {
+            return false;
+        }
+        modCount++;
+        openGap(size, count);
+        System.arraycopy(array, 0, elements, size, count);
+        size += count;
+        return true;
+    }
+
+    /**
+     * Inserts every element of the given array at the specified index, shifting the element currently
+     * at that position and all following elements to the right.
+     * 
+     * The tail of the list is moved once by the full length of the array instead of once per element,
+     * so inserting k elements is O(n + k) rather than O(n * k).
+     * 
+     * @param index The index to insert the first element at (0 to size)
+     * @param values The elements to insert
+     * @return true if the list changed
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public boolean insertAll(int index, E[] values) {
+        checkPositionIndex(index);
+        int count = values.length;
+        if (count == 0) {
+            return false;
+        }
+        modCount++;
+        openGap(index, count);
+        System.arraycopy(values, 0, elements, index, count);
+        size += count;
+        return true;
+    }
+
+    /**
+     * Removes the elements from fromIndex (inclusive) to toIndex (exclusive).
+     * The elements after the range are moved left with a single System.arraycopy and the freed
+     * slots at the end are cleared in one pass, so removing k elements is O(n) instead of O(n * k).
+     * 
+     * @param fromIndex Index of the first element to remove
+     * @param toIndex Index after the last element to remove
+     * @throws IndexOutOfBoundsException If fromIndex or toIndex is out of range, or fromIndex > toIndex
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From index: " + fromIndex + ", To index: " + toIndex + ", Size: " + size);
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        modCount++;
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(elements, newSize, size, null); // Clear to let GC do its work
+        size = newSize;
+    }
+
+    /**
+     * Removes all elements from the list. The capacity is kept, use trimToSize() to release it.
+     */
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, 0, size, null); // Clear to let GC do its work
+        size = 0;
+    }
+
+    /**
+     * Removes every element matching the filter in a single O(n) pass.
+     * Kept elements are moved down over the removed ones as the array is scanned,
+     * and the freed tail is cleared once at the end.
+     * 
+     * @param filter Returns true for elements to remove
+     * @return true if any element was removed
+     * @throws ConcurrentModificationException if the filter modifies the list
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        final int expectedModCount = modCount;
+        final E[] es = elements;
+        final int end = size;
+        int read = 0;
+        int write = 0;
+        try {
+            for (; read < end; read++) {
+                E element = es[read];
+                if (!filter.test(element)) {
+                    es[write++] = element;
+                }
+            }
+            checkForComodification(expectedModCount);
+        } finally {
+            // If the filter threw, keep the elements that were not tested yet
+            if (read < end) {
+                System.arraycopy(es, read, es, write, end - read);
+                write += end - read;
+            }
+            if (write < end) {
+                Arrays.fill(es, write, end, null);
+                size = write;
+                modCount++;
+            }
+        }
+        return write < end;
+    }
+
     /**
      * Retrieves the current number of elements in the list
      * 
@@ -142,6 +364,39 @@ public class CustomList<E> implements Iterable<E> {
         return size;
     }
 
+    /**
+     * Retrieves the length of the underlying array, meaning how many elements the list
+     * can hold before it has to resize
+     * 
+     * @return The capacity of the list
+     */
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Estimates the memory used by the list object and its underlying array, not counting
+     * the element objects themselves
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // One reference field (elements) and two int fields (size, modCount)
+        return ObjectLayout.objectSize(1, 2 * Integer.BYTES) + ObjectLayout.referenceArraySize(elements.length);
+    }
+
+    /**
+     * Shrinks the underlying array to the current size of the list, releasing the unused
+     * slots left behind by the 50% growth policy. Useful for long lived lists that will not
+     * grow much further.
+     */
+    public void trimToSize() {
+        if (size < elements.length) {
+            modCount++;
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
     /**
      * Returns a string representation of the CustomList, showing all elements in order
      */
@@ -180,6 +435,9 @@ public class CustomList<E> implements Iterable<E> {
             // to traverse the same CustomList simultaneously without interfering
             int cursor = 0;
 
+            // The modCount the list had when this iterator was created
+            int expectedModCount = modCount;
+
             /**
              * Checks if there are more elements to iterate over.
              * This method is called before each call to next() to avoid going
@@ -197,19 +455,261 @@ public class CustomList<E> implements Iterable<E> {
              * This method should only be called if hasNext() returns true.
              * 
              * @return the next element of type E
-             * @throws IndexOutOfBoundsException if there are no more elements
+             * @throws NoSuchElementException if there are no more elements
+             * @throws ConcurrentModificationException if the list was modified since the iterator was created
              */
             @Override
             public E next() {
+                checkForComodification(expectedModCount);
                 if (!hasNext()) {
-                    throw new IndexOutOfBoundsException("No more elements to iterate over");
+                    throw new NoSuchElementException("No more elements to iterate over");
                 }
                 return elements[cursor++];
             }
         };
     }
 
+    /**
+     * Performs the given action for each element of the list, in order.
+     * 
+     * This overrides the default Iterable.forEach(), which creates an iterator, and instead walks
+     * the backing array directly, so no objects are allocated per loop. The list must not be
+     * structurally modified by the action.
+     * 
+     * @param action The action to perform on each element
+     * @throws ConcurrentModificationException if the list is modified during the loop
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final E[] es = elements;
+        final int n = size;
+        for (int i = 0; modCount == expectedModCount && i < n; i++) {
+            action.accept(es[i]);
+        }
+        checkForComodification(expectedModCount);
+    }
+
+    /**
+     * Creates a new Cursor positioned before the first element of the list.
+     * A cursor can be kept and reset() for every loop, so tight loops can walk the
+     * list repeatedly without allocating an iterator each time.
+     * 
+     * @return A new cursor over this list
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Creates a Spliterator over the elements of the list.
+     * 
+     * The default Iterable.spliterator() wraps the iterator, does not know the size of the list, and can only
+     * split by copying elements into batches, so parallel streams over it scale poorly. This spliterator instead
+     * works on an index range of the backing array. It is SIZED, SUBSIZED and ORDERED, and trySplit() simply hands
+     * off the lower half of its range, so every split is O(1) and the pieces are balanced.
+     * 
+     * The spliterator is late binding, it only reads the size of the list when it is first traversed, split or
+     * asked for its size, and it is fail fast if the list is structurally modified after that.
+     * 
+     * @return A Spliterator over the elements of this list
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new CustomListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential Stream with this list as its source
+     * 
+     * @return A sequential Stream over the elements in this list
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream with this list as its source
+     * 
+     * @return A possibly parallel Stream over the elements in this list
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Throws a ConcurrentModificationException if the list has been structurally
+     * modified since the caller recorded expectedModCount
+     */
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Index range based Spliterator over the backing array, see spliterator().
+     */
+    private final class CustomListSpliterator implements Spliterator<E> {
+
+        // Current index, advanced by tryAdvance() and trySplit()
+        private int index;
+
+        // One past the last index to cover, -1 until first use
+        private int fence;
+
+        // The modCount the list had when the fence was set
+        private int expectedModCount;
+
+        CustomListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds the spliterator to the current size of the list on first use
+         */
+        private int getFence() {
+            int hi = fence;
+            if (hi < 0) {
+                expectedModCount = modCount;
+                hi = fence = size;
+            }
+            return hi;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            // Hand off the lower half, or nothing if the range is too small to split
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new CustomListSpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int i = index;
+            if (i < hi) {
+                index = i + 1;
+                action.accept(elements[i]);
+                checkForComodification(expectedModCount);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            E[] es = elements;
+            int i = index;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(es[i]);
+            }
+            checkForComodification(expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * A reusable, allocation free alternative to the iterator.
+     * 
+     * A cursor starts before the first element. Each call to advance() moves it to the next element and
+     * returns false once the end is reached, and get() returns the element it is currently on. Calling
+     * reset() moves it back before the first element so the same cursor can be used for the next loop:
+     * 
+     * <pre>
+     * CustomList&lt;String&gt;.Cursor cursor = list.cursor();
+     * while (cursor.advance()) {
+     *     process(cursor.get());
+     * }
+     * cursor.reset();
+     * </pre>
+     * 
+     * Like the iterator it is fail fast, if the list is structurally modified after the last reset(), the
+     * next call to advance() or get() throws a ConcurrentModificationException.
+     */
+    public final class Cursor {
+
+        // Index of the current element, -1 while positioned before the first element
+        private int index = -1;
+
+        // The modCount the list had when this cursor was created or last reset
+        private int expectedModCount = modCount;
 
+        private Cursor() {
+        }
+
+        /**
+         * Moves the cursor back before the first element and accepts any modifications
+         * made to the list so far.
+         * 
+         * @return This cursor, to allow chaining
+         */
+        public Cursor reset() {
+            index = -1;
+            expectedModCount = modCount;
+            return this;
+        }
+
+        /**
+         * Moves the cursor to the next element.
+         * 
+         * @return true if the cursor is now on an element, false if it moved past the end
+         * @throws ConcurrentModificationException if the list was modified since the last reset
+         */
+        public boolean advance() {
+            checkForComodification(expectedModCount);
+            if (index + 1 < size) {
+                index++;
+                return true;
+            }
+            index = size;
+            return false;
+        }
 
-    
+        /**
+         * Returns the element the cursor is currently on.
+         * 
+         * @return The current element
+         * @throws NoSuchElementException if the cursor is before the first element or past the last one
+         * @throws ConcurrentModificationException if the list was modified since the last reset
+         */
+        public E get() {
+            checkForComodification(expectedModCount);
+            if (index < 0 || index >= size) {
+                throw new NoSuchElementException("Cursor is not positioned on an element");
+            }
+            return elements[index];
+        }
+
+        /**
+         * Returns the index of the element the cursor is currently on.
+         * 
+         * @return The current index, -1 before the first element or size() past the last one
+         */
+        public int index() {
+            return index;
+        }
+    }
 }
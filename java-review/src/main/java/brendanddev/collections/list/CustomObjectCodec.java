@@ -0,0 +1,73 @@
+package brendanddev.collections.list;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import brendanddev.collections.customobjects.CustomObject;
+
+/**
+ * A RecordCodec that stores a CustomObject as a fixed width record of 42 bytes:
+ *
+ * - 4 bytes: id
+ * - 4 bytes: value
+ * - 2 bytes: length of the name in bytes, or -1 for a null name
+ * - 32 bytes: the name encoded as UTF-8, padded with zeros
+ *
+ * Since every record has to be the same size, names longer than 32 bytes of UTF-8 cannot be stored.
+ */
+public class CustomObjectCodec implements RecordCodec<CustomObject> {
+
+    /** The maximum length of a name in UTF-8 bytes */
+    public static final int MAX_NAME_BYTES = 32;
+
+    private static final int ID_OFFSET = 0;
+    private static final int VALUE_OFFSET = 4;
+    private static final int NAME_LENGTH_OFFSET = 8;
+    private static final int NAME_OFFSET = 10;
+    private static final int RECORD_SIZE = NAME_OFFSET + MAX_NAME_BYTES;
+
+    @Override
+    public int recordSize() {
+        return RECORD_SIZE;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the name is longer than MAX_NAME_BYTES in UTF-8
+     */
+    @Override
+    public void write(ByteBuffer buffer, int offset, CustomObject element) {
+        buffer.putInt(offset + ID_OFFSET, element.getId());
+        buffer.putInt(offset + VALUE_OFFSET, element.getValue());
+
+        String name = element.getName();
+        if (name == null) {
+            buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) -1);
+            return;
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+        buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) nameBytes.length);
+        for (int i = 0; i < nameBytes.length; i++) {
+            buffer.put(offset + NAME_OFFSET + i, nameBytes[i]);
+        }
+    }
+
+    @Override
+    public CustomObject read(ByteBuffer buffer, int offset) {
+        int id = buffer.getInt(offset + ID_OFFSET);
+        int value = buffer.getInt(offset + VALUE_OFFSET);
+        int nameLength = buffer.getShort(offset + NAME_LENGTH_OFFSET);
+
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] nameBytes = new byte[nameLength];
+            for (int i = 0; i < nameLength; i++) {
+                nameBytes[i] = buffer.get(offset + NAME_OFFSET + i);
+            }
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+        }
+        return new CustomObject(name, value, id);
+    }
+}
@@ -0,0 +1,77 @@
+package brendanddev.collections.list;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers for the direct and memory mapped ByteBuffers used by OffHeapRecordList and MappedCustomList.
+ *
+ * free() releases the native memory behind a buffer (or unmaps a mapped one). Normally that only happens once the
+ * garbage collector finds the buffer object unreachable, which may take a long time for buffers that survived into
+ * the old generation. There is no public API for doing it earlier before the Panama MemorySegment API, so this uses
+ * the same internal hooks as other libraries: Unsafe.invokeCleaner() on Java 9 and later, and the buffer's Cleaner
+ * on Java 8. If neither is available the buffer is left to the garbage collector.
+ *
+ * A buffer must not be used in any way after it has been freed, since its memory may already be reused.
+ */
+final class DirectBuffers {
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Frees the memory of a direct buffer right away if the JVM allows it
+     *
+     * @param buffer The buffer to free, ignored if it is not direct
+     */
+    static void free(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            // Java 9+: sun.misc.Unsafe.invokeCleaner(ByteBuffer)
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Fall through to the Java 8 approach
+        }
+        try {
+            // Java 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Leave the buffer to the garbage collector
+        }
+    }
+
+    /**
+     * Copies length bytes from one buffer position to another in chunks the size of the scratch array.
+     *
+     * A bulk put() between overlapping regions of the same direct buffer is not guaranteed to work,
+     * so the bytes go through a small heap array instead. Copying front to back is safe for overlapping
+     * regions as long as the target is below the source, which is the case when shifting records left.
+     * The positions of the buffers are not changed.
+     */
+    static void copy(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset, int length, byte[] scratch) {
+        ByteBuffer source = from.duplicate();
+        ByteBuffer target = to.duplicate();
+        int copied = 0;
+        while (copied < length) {
+            int chunk = Math.min(scratch.length, length - copied);
+            source.position(fromOffset + copied);
+            source.get(scratch, 0, chunk);
+            target.position(toOffset + copied);
+            target.put(scratch, 0, chunk);
+            copied += chunk;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package brendanddev.collections.list;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A primitive specialization of CustomList that stores long values directly in a long[].
+ *
+ * CustomList<Long> has to box every value into a Long object, so each element costs a reference
+ * in the array plus a separate 16 byte object on the heap, and every get() has to follow that reference.
+ * This class keeps the values themselves in the backing array, using 8 bytes per element with no extra
+ * objects and no pointer chasing.
+ *
+ * It uses the same resizing strategy as CustomList, growing the capacity by 50% when it runs out of space.
+ * Since it does not implement Iterable<Long> (which would box every value again), elements are traversed
+ * with the primitive forEach(LongConsumer) or through the array returned by toArray().
+ */
+public class LongCustomList implements MemoryFootprint {
+
+    // Define default initial capacity if none specified
+    private static final int DEFAULT_CAPACITY = 10;
+
+    // Underlying array storing the primitive values
+    private long[] elements;
+
+    // Current number of elements in the list
+    private int size = 0;
+
+    /**
+     * Constructs an empty LongCustomList with the default initial capacity
+     */
+    public LongCustomList() {
+        elements = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructs an empty LongCustomList with the specified initial capacity
+     * @param initialCapacity
+     */
+    public LongCustomList(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be greater than zero");
+        }
+        elements = new long[initialCapacity];
+    }
+
+    /**
+     * Ensures that the underlying array has enough capacity to hold at least minCapacity elements,
+     * increasing the capacity by 50% (or to minCapacity if that is larger) when a resize is needed.
+     *
+     * @param minCapacity The minimum capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int newCapacity = elements.length + (elements.length / 2);
+            if (newCapacity < minCapacity) {
+                newCapacity = minCapacity;
+            }
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+    }
+
+    /**
+     * Checks if the provided index is within the bounds of the list
+     *
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Adds a new value to the end of the list, resizing if necessary.
+     *
+     * @param value The value to add to the list
+     */
+    public void add(long value) {
+        ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    /**
+     * Appends every value of the given array to the end of the list.
+     * The list is resized at most once and the values are copied with a single System.arraycopy call.
+     *
+     * @param values The values to add
+     */
+    public void addAll(long[] values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Retrieves the value at the specified index after validating the index is within bounds.
+     *
+     * @param index The index of the value to retrieve (0-based)
+     * @return The value at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Removes the value at the specified index and shifts subsequent values left.
+     * Unlike CustomList there is no reference to clear, since primitive slots hold no objects.
+     *
+     * @param index the index of the value to remove (0-based)
+     * @return the removed value
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public long remove(int index) {
+        checkIndex(index);
+        long removedValue = elements[index];
+        int numMoved = size - index - 1;
+        if (numMoved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, numMoved);
+        }
+        size--;
+        return removedValue;
+    }
+
+    /**
+     * Retrieves the current number of elements in the list
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the length of the underlying array
+     *
+     * @return The capacity of the list
+     */
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Estimates the memory used by the list object and its underlying array
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // One reference field (elements) and one int field (size)
+        return ObjectLayout.objectSize(1, Integer.BYTES) + ObjectLayout.arraySize(elements.length, Long.BYTES);
+    }
+
+    /**
+     * Shrinks the underlying array to the current size of the list
+     */
+    public void trimToSize() {
+        if (size < elements.length) {
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * Returns a copy of the values in the list, trimmed to its size
+     *
+     * @return long[] containing the values of the list in order
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Performs the given action for each value in the list, in order.
+     * The values are passed as primitives so no boxing takes place.
+     *
+     * @param action The action to perform on each value
+     */
+    public void forEach(LongConsumer action) {
+        long[] values = elements;
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    /**
+     * Returns a string representation of the LongCustomList, showing all values in order
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[i]);
+            if (i < size - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+}
@@ -1,6 +1,11 @@
 package brendanddev.collections.list;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import brendanddev.collections.ObjectLayout;
+import brendanddev.collections.customobjects.CustomObject;
 
 public class Main {
 
@@ -21,6 +26,9 @@ public class Main {
         // Estimate underlying array memory usage (approximate)
         estimateMemory(list);
 
+        // Compare a boxed CustomList<Integer> against the primitive IntCustomList
+        estimatePrimitiveSavings(100_000);
+
         // Remove an element (index 5 means 6th element)
         String removed = list.remove(5);
         System.out.println("\nRemoved element at index 5 (6th element): " + removed);
@@ -30,12 +38,65 @@ public class Main {
 
         System.out.println("Size: " + list.size());
 
+        // Bulk operations resize at most once and move elements with one arraycopy
+        CustomList<String> batch = new CustomList<>();
+        batch.addAll(new String[] {"A", "B", "C", "D", "E"});
+        batch.insertAll(2, new String[] {"X", "Y"});
+        batch.add(0, "Start");
+        System.out.println("\nAfter addAll, insertAll and add(0, ...): " + batch);
+        batch.removeRange(1, 3);
+        batch.removeIf(s -> s.equals("Y"));
+        System.out.println("After removeRange(1, 3) and removeIf: " + batch);
+
+        // Release the unused slots and show the difference
+        long before = list.estimatedRetainedBytes();
+        list.trimToSize();
+        System.out.println("\nAfter trimToSize(): capacity " + list.capacity() + ", "
+                + before + " -> " + list.estimatedRetainedBytes() + " bytes");
+
         // Iterate using iterator explicitly
         System.out.println("\nIterating with iterator:");
         for (String s : list) {
             System.out.println(s);
         }
 
+        // forEach walks the backing array directly without creating an iterator
+        System.out.println("\nIterating with forEach:");
+        list.forEach(s -> System.out.println(s));
+
+        // A cursor can be reused for several loops without allocating anything
+        System.out.println("\nIterating twice with one cursor:");
+        CustomList<String>.Cursor cursor = list.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            count++;
+        }
+        cursor.reset();
+        while (cursor.advance()) {
+            count++;
+        }
+        System.out.println("Visited " + count + " elements");
+
+        // Modifying the list while iterating is detected by the iterator
+        try {
+            for (String s : list) {
+                if (s.equals("Item 3")) {
+                    list.remove(0);
+                }
+            }
+        } catch (java.util.ConcurrentModificationException e) {
+            System.out.println("\nCaught expected exception: " + e);
+        }
+
+        // Grow a list in fixed size chunks instead of copying one large array
+        compareChunkedGrowth(1_000_000);
+
+        // Store records outside of the heap, closing the list frees the memory right away
+        demonstrateOffHeapList(100_000);
+
+        // Persist records to a memory mapped file and open them again without rebuilding
+        demonstrateMappedList(100_000);
+
     }
 
     /**
@@ -54,30 +115,31 @@ public class Main {
      * Provides a comprehensive breakdown of memory usage including array overhead, used vs unused slots,
      * and efficiency metrics.
      * 
-     * The Array object overhead is approximately 24 bytes (object header + length field + padding).
-     * The reference slots each hold references to objects, typically 4 bytes on a 32-bit JVM or 8 bytes on a 64-bit JVM.
+     * The capacity and byte estimates come from the MemoryFootprint interface that CustomList implements, and
+     * the header and reference sizes from ObjectLayout, which detects whether the JVM uses compressed oops
+     * (4 byte references) or full 8 byte references.
      * This estimate dosent include the memory used by the actual String objects being referenced.
      * 
      * @param list The CustomList to analyze
      */
     private static void estimateMemory(CustomList<?> list) {
 
-        // 8 bytes per reference on 64-bit JVM without compressed OOPs
-        int referenceSize = 8;
-        int arrayLength = getUnderlyingArrayLength(list);
+        int referenceSize = ObjectLayout.REFERENCE_SIZE;
+        int arrayLength = list.capacity();
         int actualSize = list.size();
 
         // Calculate memory components
-        long arrayOverhead = 24; // Object header + array length field + alignment padding
+        long arrayOverhead = ObjectLayout.ARRAY_HEADER_SIZE; // Object header + array length field
         long usedSlots = (long) actualSize * referenceSize;
-        long unusedSlots = (long) (arrayLength - actualSize) * referenceSize;
-        long totalArrayMemory = arrayOverhead + (arrayLength * referenceSize);
+        long unusedSlots = (long) list.wastedSlots() * referenceSize;
+        long totalArrayMemory = ObjectLayout.referenceArraySize(arrayLength);
         
         // Calculate efficiency
         double efficiency = arrayLength > 0 ? (double) actualSize / arrayLength * 100 : 0;
         
         // Display results
         System.out.println("=== Memory Analysis ===");
+        System.out.println("Compressed oops: " + ObjectLayout.COMPRESSED_OOPS);
         System.out.println("Array capacity: " + arrayLength + " slots");
         System.out.println("Elements stored: " + actualSize + " slots");
         System.out.println("Utilization: " + String.format("%.1f%%", efficiency));
@@ -85,47 +147,133 @@ public class Main {
         System.out.println("Memory breakdown:");
         System.out.println("  Array overhead: " + arrayOverhead + " bytes");
         System.out.println("  Used references: " + actualSize + " x " + referenceSize + " = " + usedSlots + " bytes");
-        System.out.println("  Unused references: " + (arrayLength - actualSize) + " x " + referenceSize + " = " + unusedSlots + " bytes");
-        System.out.println("  Total array memory: " + totalArrayMemory + " bytes");
+        System.out.println("  Unused references: " + list.wastedSlots() + " x " + referenceSize + " = " + unusedSlots + " bytes");
+        System.out.println("  Total array memory (aligned): " + totalArrayMemory + " bytes");
+        System.out.println("  Retained by list and array: " + list.estimatedRetainedBytes() + " bytes");
         System.out.println();
         System.out.println("Note: This excludes memory used by the actual String objects (estimated ~40-50 bytes each)");
         
         // Efficiency warning
         if (efficiency < 50 && arrayLength > 10) {
-            System.out.println("Low memory efficiency - consider trimming unused capacity");
+            System.out.println("Low memory efficiency - consider calling trimToSize()");
         }
     }
 
     /**
-     * Uses reflection to access the private 'elements' array field inside CustomList.
-     * This allows inspection of the physical capacity (array length) versus logical size.
-     * 
-     * Reflection is a powerful feature in Java that allows code to inspect and manipulate
-     * classes, methods, fields, and other elements at runtime, even if they are private or
-     * normally inaccessible.
-     * 
-     * Normally private fields cannot be accessed directly outside their class, but reflection
-     * bypasses that for advanced purposes like diagnostics or debugging. It should be used carefully
-     * as it breaks encapsulation and can lead to maintenance issues.
+     * Estimates how much memory is saved by storing the same int values in an IntCustomList instead of a boxed
+     * CustomList<Integer>.
+     *
+     * Both lists grow their backing array the same way, so they end up with the same capacity. The boxed list
+     * stores a reference per slot plus a separate Integer object (object header + 4 byte value) for every
+     * element, while the primitive list stores the 4 byte values directly in its int[].
+     * Integer.valueOf() caches the values -128 to 127, so those few elements share cached objects and are not
+     * counted as separate allocations.
+     *
+     * @param count The number of values to store in each list
+     */
+    private static void estimatePrimitiveSavings(int count) {
+
+        CustomList<Integer> boxedList = new CustomList<>();
+        IntCustomList primitiveList = new IntCustomList();
+        for (int i = 0; i < count; i++) {
+            boxedList.add(i);
+            primitiveList.add(i);
+        }
+
+        long integerObjectSize = ObjectLayout.objectSize(0, Integer.BYTES);
+
+        // Values in the Integer cache are shared and not allocated per element
+        int cachedValues = Math.max(0, Math.min(count, 128));
+        long boxedListMemory = boxedList.estimatedRetainedBytes();
+        long boxedObjectMemory = (long) (count - cachedValues) * integerObjectSize;
+        long boxedTotal = boxedListMemory + boxedObjectMemory;
+        long primitiveTotal = primitiveList.estimatedRetainedBytes();
+
+        System.out.println("\n=== Boxed vs Primitive (" + count + " ints) ===");
+        System.out.println("CustomList<Integer>:");
+        System.out.println("  List and reference array: " + boxedListMemory + " bytes");
+        System.out.println("  Integer objects: " + (count - cachedValues) + " x " + integerObjectSize + " = " + boxedObjectMemory + " bytes");
+        System.out.println("  Total: " + boxedTotal + " bytes");
+        System.out.println("IntCustomList:");
+        System.out.println("  List and int[]: " + primitiveTotal + " bytes");
+        System.out.println("Saved: " + (boxedTotal - primitiveTotal) + " bytes ("
+                + String.format("%.1f%%", (boxedTotal - primitiveTotal) * 100.0 / boxedTotal) + ")");
+    }
+
+    /**
+     * Stores CustomObjects as fixed width records in an OffHeapRecordList.
+     *
+     * The records live in direct memory, so the only heap objects are the list and its page buffers, and
+     * every get() decodes a fresh CustomObject from its record. The list is closed by try-with-resources,
+     * which frees the direct memory without waiting for the garbage collector.
+     *
+     * @param count The number of objects to store
+     */
+    private static void demonstrateOffHeapList(int count) {
+        try (OffHeapRecordList<CustomObject> records = new OffHeapRecordList<>(new CustomObjectCodec())) {
+            for (int i = 0; i < count; i++) {
+                records.add(new CustomObject("Object " + i, i * 10, i));
+            }
+            records.remove(0);
+
+            CustomObject first = records.get(0);
+            System.out.println("\n=== Off-heap records (" + count + " CustomObjects) ===");
+            System.out.println("First after removal: " + first.getName() + " (id " + first.getId() + ", value " + first.getValue() + ")");
+            System.out.println("Size: " + records.size() + ", capacity: " + records.capacity());
+            System.out.println("Direct memory: " + records.allocatedBytes() + " bytes");
+        }
+    }
+
+    /**
+     * Writes CustomObjects to a MappedCustomList backed by a temporary file, closes it, and opens the
+     * file again. The reopened list maps the existing records instead of creating the objects again.
      *
-     * @param list The CustomList instance to inspect
-     * @return The length of the internal 'elements' array, or -1 if an error occurs     
+     * @param count The number of objects to store
      */
-    private static int getUnderlyingArrayLength(CustomList<?> list) {
+    private static void demonstrateMappedList(int count) {
         try {
-            // Accesses the private 'elements' field by name using reflection
-            Field field = CustomList.class.getDeclaredField("elements");
-
-            // Bypasses the private access modifier to allow access
-            field.setAccessible(true);
-
-            // Retrieves the underlying array from the CustomList object
-            Object[] elements = (Object[]) field.get(list);
-            return elements.length;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return -1;
+            Path file = Files.createTempFile("mapped-list", ".bin");
+            Files.delete(file);
+            try (MappedCustomList<CustomObject> records = new MappedCustomList<>(file, new CustomObjectCodec())) {
+                for (int i = 0; i < count; i++) {
+                    records.add(new CustomObject("Object " + i, i * 10, i));
+                }
+                records.force();
+            }
+
+            long start = System.nanoTime();
+            try (MappedCustomList<CustomObject> reopened = new MappedCustomList<>(file, new CustomObjectCodec())) {
+                CustomObject last = reopened.get(reopened.size() - 1);
+                long micros = (System.nanoTime() - start) / 1000;
+                System.out.println("\n=== Memory mapped records (" + count + " CustomObjects) ===");
+                System.out.println("Reopened " + reopened.size() + " records in " + micros + " us, last: " + last.getName());
+                System.out.println("File size: " + Files.size(file) + " bytes");
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("Could not use a temporary file: " + e);
         }
     }
-    
+
+    /**
+     * Grows a CustomList and a ChunkedCustomList to the same size and compares their memory use.
+     *
+     * CustomList ends up with one large array that was copied on every resize, and up to a third of
+     * it is unused after the last 50% growth. ChunkedCustomList only has unused slots in its last chunk.
+     *
+     * @param count The number of elements to add to each list
+     */
+    private static void compareChunkedGrowth(int count) {
+        CustomList<Integer> list = new CustomList<>();
+        ChunkedCustomList<Integer> chunked = new ChunkedCustomList<>();
+        Integer value = 1;
+        for (int i = 0; i < count; i++) {
+            list.add(value);
+            chunked.add(value);
+        }
+        System.out.println("\n=== CustomList vs ChunkedCustomList (" + count + " elements) ===");
+        System.out.println("CustomList: capacity " + list.capacity() + ", " + list.estimatedRetainedBytes() + " bytes");
+        System.out.println("ChunkedCustomList: capacity " + chunked.capacity() + ", " + chunked.estimatedRetainedBytes() + " bytes");
+    }
+
 }
@@ -0,0 +1,400 @@
+package brendanddev.collections.list;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list whose elements are stored as fixed width records in a memory mapped file, so they survive a restart.
+ *
+ * Rebuilding a large CustomList means creating every element again, which takes time proportional to its size.
+ * This class keeps the records in a file mapped with FileChannel.map(), so reopening the same file only has to
+ * map it again: no record is read or decoded until get() asks for it, and the operating system pages the data in
+ * on demand (often straight from the page cache if the file was used recently).
+ *
+ * The file starts with a small header holding a magic number, the record size and the number of elements, followed
+ * by the records. The records are mapped in chunks of a fixed, power of two number of records, so the chunk and the
+ * offset of an index are found with a shift and a mask. Like ensureCapacity() in CustomList, growing the list maps
+ * further chunks at the end of the file when it runs out of space, but the records already stored are never copied.
+ *
+ * Changes are written to the mapped memory and reach the file whenever the operating system writes the pages back.
+ * force() writes them out right away, for durability against a crash of the machine. close() unmaps the file; it
+ * does not force it, so call force() first if that is needed.
+ *
+ * Time Complexity: add() amortized O(1), get() O(1), remove() O(n) like CustomList, reopening O(chunks).
+ *
+ * @param <E> The type of element stored, encoded by the codec
+ */
+public class MappedCustomList<E> implements Iterable<E>, AutoCloseable {
+
+    // Identifies files written by this class, "MCL1"
+    private static final int MAGIC = 0x4D434C31;
+
+    // Header layout: magic, record size, size, padded so the records start at a 16 byte boundary
+    private static final int HEADER_BYTES = 16;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+
+    // Upper bound on the size of a single mapped chunk, 8 MB
+    private static final int MAX_CHUNK_BYTES = 1 << 23;
+
+    // Size of the heap array records are moved through by remove()
+    private static final int SCRATCH_BYTES = 8192;
+
+    // Converts elements to and from their records
+    private final RecordCodec<E> codec;
+
+    // Size of one record in bytes
+    private final int recordSize;
+
+    // Number of records per chunk is 1 << chunkShift
+    private final int chunkShift;
+    private final int chunkMask;
+
+    // Heap array records are moved through by remove(), allocated once so removals create no garbage
+    private final byte[] scratch;
+
+    // The open file, kept open so more chunks can be mapped
+    private final FileChannel channel;
+
+    // The mapped header, the size is kept up to date in it on every change
+    private final MappedByteBuffer header;
+
+    // The mapped chunks, only the first chunkCount entries are used
+    private MappedByteBuffer[] chunks;
+    private int chunkCount;
+
+    // Current number of elements in the list
+    private int size;
+
+    // Set by close(), after which the mappings are gone
+    private boolean closed;
+
+    /**
+     * Opens the list stored in the given file, or creates an empty list if the file does not exist or is empty
+     *
+     * @param file The file holding the records
+     * @param codec The codec used to store the elements, must have the same record size the file was written with
+     * @throws IOException If the file cannot be opened or mapped, or its header claims more records than it holds
+     * @throws IllegalArgumentException If the file was not written by a MappedCustomList or uses another record size
+     */
+    public MappedCustomList(Path file, RecordCodec<E> codec) throws IOException {
+        if (codec.recordSize() <= 0) {
+            throw new IllegalArgumentException("Record size must be greater than zero");
+        }
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+
+        // Use the largest power of two number of records that fits in a chunk
+        int recordsPerChunk = Integer.highestOneBit(Math.max(1, MAX_CHUNK_BYTES / recordSize));
+        this.chunkShift = Integer.numberOfTrailingZeros(recordsPerChunk);
+        this.chunkMask = recordsPerChunk - 1;
+        this.chunks = new MappedByteBuffer[4];
+        this.scratch = new byte[Math.max(recordSize, SCRATCH_BYTES)];
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            int storedSize = 0;
+            if (fileSize > 0) {
+                // Mapping the header would extend a shorter file, so an existing file is checked through a plain
+                // read first and left untouched if it is not a list
+                storedSize = readHeader(file, fileSize);
+            }
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (fileSize == 0) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(RECORD_SIZE_OFFSET, recordSize);
+                header.putInt(SIZE_OFFSET, 0);
+            }
+            this.size = storedSize;
+            mapChunks(size);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads and validates the header of an existing file without mapping it
+     *
+     * @return The size stored in the header
+     * @throws IllegalArgumentException If the file was not written by a MappedCustomList or uses another record size
+     * @throws IOException If the header claims more records than the file holds
+     */
+    private int readHeader(Path file, long fileSize) throws IOException {
+        if (fileSize < HEADER_BYTES) {
+            throw new IllegalArgumentException("Not a MappedCustomList file: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file while reading the header of " + file);
+            }
+        }
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalArgumentException("Not a MappedCustomList file: " + file);
+        }
+        if (buffer.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+            throw new IllegalArgumentException("File uses records of " + buffer.getInt(RECORD_SIZE_OFFSET)
+                    + " bytes, codec uses " + recordSize);
+        }
+        int storedSize = buffer.getInt(SIZE_OFFSET);
+        // A truncated or corrupt file must not be extended to whatever size the header claims
+        if (storedSize < 0 || HEADER_BYTES + (long) storedSize * recordSize > fileSize) {
+            throw new IOException("Header of " + file + " claims " + storedSize
+                    + " records but the file holds " + fileSize + " bytes");
+        }
+        return storedSize;
+    }
+
+    /**
+     * Ensures that enough of the file is mapped to hold at least minCapacity records,
+     * mapping further chunks at the end of the file when needed.
+     *
+     * @param minCapacity The minimum capacity required
+     * @throws UncheckedIOException If the file cannot be extended or mapped
+     */
+    public void ensureCapacity(int minCapacity) {
+        checkOpen();
+        try {
+            mapChunks(minCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps chunks until at least minCapacity records are covered. Mapping a region
+     * past the end of the file extends the file to the end of the region.
+     */
+    private void mapChunks(int minCapacity) throws IOException {
+        int neededChunks = (int) (((long) minCapacity + chunkMask) >>> chunkShift);
+        if (neededChunks <= chunkCount) {
+            return;
+        }
+        if (neededChunks > chunks.length) {
+            // Grow the chunk directory by 50%, it only holds references so this copy is cheap
+            chunks = Arrays.copyOf(chunks, Math.max(neededChunks, chunks.length + (chunks.length / 2)));
+        }
+        long chunkBytes = (long) recordSize << chunkShift;
+        while (chunkCount < neededChunks) {
+            long position = HEADER_BYTES + chunkCount * chunkBytes;
+            chunks[chunkCount++] = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkBytes);
+        }
+    }
+
+    /**
+     * Checks if the provided index is within the bounds of the list
+     *
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException If the list has been closed
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("List has been closed");
+        }
+    }
+
+    /**
+     * Returns the chunk that holds the record at the given index
+     */
+    private ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    /**
+     * Returns the byte offset of the record at the given index within its chunk
+     */
+    private int offset(int index) {
+        return (index & chunkMask) * recordSize;
+    }
+
+    /**
+     * Stores the size in the list and in the mapped header
+     */
+    private void setSize(int newSize) {
+        size = newSize;
+        header.putInt(SIZE_OFFSET, newSize);
+    }
+
+    /**
+     * Adds a new element to the end of the list, mapping a new chunk if necessary.
+     *
+     * @param element The element to add to the list
+     * @throws UncheckedIOException If the file cannot be extended or mapped
+     */
+    public void add(E element) {
+        checkOpen();
+        ensureCapacity(size + 1);
+        codec.write(chunk(size), offset(size), element);
+        // The record is written before the size that makes it visible after a reopen
+        setSize(size + 1);
+    }
+
+    /**
+     * Decodes the element at the specified index after validating the index is within bounds.
+     * Every call returns a new object read from the stored record.
+     *
+     * @param index The index of the element to retrieve (0-based)
+     * @return The element at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public E get(int index) {
+        checkOpen();
+        checkIndex(index);
+        return codec.read(chunk(index), offset(index));
+    }
+
+    /**
+     * Removes the element at the specified index and shifts the records after it left by one,
+     * moving them as raw bytes in the same way as OffHeapRecordList.remove().
+     *
+     * @param index the index of the element to remove (0-based)
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public E remove(int index) {
+        checkOpen();
+        checkIndex(index);
+        E removedElement = codec.read(chunk(index), offset(index));
+
+        int i = index;
+        while (i < size - 1) {
+            ByteBuffer chunk = chunk(i);
+            // Shift the rest of this chunk left by one record
+            int lastInChunk = Math.min(size - 1, i | chunkMask);
+            int count = lastInChunk - i;
+            if (count > 0) {
+                DirectBuffers.copy(chunk, offset(i + 1), chunk, offset(i), count * recordSize, scratch);
+            }
+            i = lastInChunk;
+            if (i < size - 1) {
+                // Carry the first record of the next chunk into the last slot of this one
+                DirectBuffers.copy(chunk(i + 1), offset(i + 1), chunk, offset(i), recordSize, scratch);
+                i++;
+            }
+        }
+        setSize(size - 1);
+        return removedElement;
+    }
+
+    /**
+     * Retrieves the current number of elements in the list
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of records the mapped chunks can hold
+     *
+     * @return The capacity of the list
+     */
+    public int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) chunkCount << chunkShift);
+    }
+
+    /**
+     * Writes every change made to the mapped records and the header to the storage device,
+     * so they survive a crash of the machine and not just of the process.
+     */
+    public void force() {
+        checkOpen();
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].force();
+        }
+        // The header goes last so a reopened file never counts records that were not written
+        header.force();
+    }
+
+    /**
+     * Unmaps the file and closes it. Changes that were not forced are still written back by
+     * the operating system, but without a guarantee of when. Calling close() more than once
+     * has no effect.
+     *
+     * @throws UncheckedIOException If the file cannot be closed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectBuffers.free(chunks[i]);
+            chunks[i] = null;
+        }
+        chunkCount = 0;
+        if (header != null) {
+            DirectBuffers.free(header);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns an iterator that decodes the elements in order
+     */
+    @Override
+    public Iterator<E> iterator() {
+        checkOpen();
+        return new Iterator<E>() {
+
+            int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements to iterate over");
+                }
+                return get(cursor++);
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of the MappedCustomList, showing all elements in order
+     */
+    @Override
+    public String toString() {
+        if (closed) {
+            return "[closed]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(get(i));
+            if (i < size - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,307 @@
+package brendanddev.collections.list;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list that stores its elements outside of the Java heap as fixed width binary records.
+ *
+ * A CustomList holding tens of millions of objects keeps every one of them on the heap, and the garbage collector
+ * has to trace all of them on every full collection (and copy them around when they are promoted), which is what
+ * makes the pauses long. This class instead encodes each element into a record of RecordCodec.recordSize() bytes
+ * in direct ByteBuffers. The heap only holds a few buffer objects, so the GC has almost nothing to trace no matter
+ * how many elements are stored. The price is that get() decodes a new object from the record each time, so the
+ * returned element is a copy and changing it does not change the list.
+ *
+ * The memory is split into pages of a fixed number of records, always a power of two, so the page and the offset of
+ * an index are found with a shift and a mask. Pages are at most 1 MB, so even a list of 50 million elements only
+ * needs a few thousand buffer objects on the heap. Growing the list only allocates new pages, existing records are never
+ * copied, and a single ByteBuffer is never asked to be larger than its 2 GB limit.
+ *
+ * The list mirrors the add/get/remove/size/ensureCapacity contract of CustomList. Direct memory is only returned to
+ * the operating system when the buffers are garbage collected, which for long lived buffers can take a long time, so
+ * close() frees it right away. The list cannot be used after it has been closed.
+ *
+ * Time Complexity: add() amortized O(1), get() O(1), remove() O(n) like CustomList.
+ *
+ * @param <E> The type of element stored, encoded by the codec
+ */
+public class OffHeapRecordList<E> implements Iterable<E>, AutoCloseable {
+
+    // Define default initial capacity if none specified
+    private static final int DEFAULT_CAPACITY = 10;
+
+    // Upper bound on the size of a single page, 1 MB
+    private static final int MAX_PAGE_BYTES = 1 << 20;
+
+    // Size of the heap array records are moved through by remove()
+    private static final int SCRATCH_BYTES = 8192;
+
+    // Converts elements to and from their records
+    private final RecordCodec<E> codec;
+
+    // Size of one record in bytes
+    private final int recordSize;
+
+    // Number of records per page is 1 << pageShift
+    private final int pageShift;
+    private final int pageMask;
+
+    // Heap array records are moved through by remove(), allocated once so removals create no garbage
+    private final byte[] scratch;
+
+    // The allocated pages, only the first pageCount entries are used
+    private ByteBuffer[] pages;
+    private int pageCount;
+
+    // Current number of elements in the list
+    private int size = 0;
+
+    // Set by close(), after which the pages are gone
+    private boolean closed;
+
+    /**
+     * Constructs an empty OffHeapRecordList with the default initial capacity
+     *
+     * @param codec The codec used to store the elements
+     */
+    public OffHeapRecordList(RecordCodec<E> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty OffHeapRecordList with the specified initial capacity
+     *
+     * @param codec The codec used to store the elements
+     * @param initialCapacity The number of records to allocate space for up front
+     * @throws IllegalArgumentException If the initial capacity or the record size is not positive
+     */
+    public OffHeapRecordList(RecordCodec<E> codec, int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be greater than zero");
+        }
+        if (codec.recordSize() <= 0) {
+            throw new IllegalArgumentException("Record size must be greater than zero");
+        }
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+
+        // Use the largest power of two number of records that fits in a page
+        int recordsPerPage = Integer.highestOneBit(Math.max(1, MAX_PAGE_BYTES / recordSize));
+        this.pageShift = Integer.numberOfTrailingZeros(recordsPerPage);
+        this.pageMask = recordsPerPage - 1;
+
+        this.scratch = new byte[Math.max(recordSize, SCRATCH_BYTES)];
+        this.pages = new ByteBuffer[4];
+        ensureCapacity(initialCapacity);
+    }
+
+    /**
+     * Ensures that there are enough pages to hold at least minCapacity records.
+     * Only new pages are allocated, the records already stored are not moved.
+     *
+     * @param minCapacity The minimum capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        checkOpen();
+        int neededPages = (int) (((long) minCapacity + pageMask) >>> pageShift);
+        if (neededPages <= pageCount) {
+            return;
+        }
+        if (neededPages > pages.length) {
+            // Grow the page directory by 50%, it only holds references so this copy is cheap
+            pages = Arrays.copyOf(pages, Math.max(neededPages, pages.length + (pages.length / 2)));
+        }
+        int pageBytes = recordSize << pageShift;
+        while (pageCount < neededPages) {
+            pages[pageCount++] = ByteBuffer.allocateDirect(pageBytes);
+        }
+    }
+
+    /**
+     * Checks if the provided index is within the bounds of the list
+     *
+     * @param index The index to check
+     * @throws IndexOutOfBoundsException If index is invalid
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException If the list has been closed
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("List has been closed");
+        }
+    }
+
+    /**
+     * Returns the page that holds the record at the given index
+     */
+    private ByteBuffer page(int index) {
+        return pages[index >>> pageShift];
+    }
+
+    /**
+     * Returns the byte offset of the record at the given index within its page
+     */
+    private int offset(int index) {
+        return (index & pageMask) * recordSize;
+    }
+
+    /**
+     * Adds a new element to the end of the list, allocating a new page if necessary.
+     *
+     * @param element The element to add to the list
+     */
+    public void add(E element) {
+        checkOpen();
+        ensureCapacity(size + 1);
+        codec.write(page(size), offset(size), element);
+        size++;
+    }
+
+    /**
+     * Decodes the element at the specified index after validating the index is within bounds.
+     * Every call returns a new object read from the stored record.
+     *
+     * @param index The index of the element to retrieve (0-based)
+     * @return The element at the given index
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    public E get(int index) {
+        checkOpen();
+        checkIndex(index);
+        return codec.read(page(index), offset(index));
+    }
+
+    /**
+     * Removes the element at the specified index and shifts the records after it left by one.
+     *
+     * The records are moved as raw bytes without decoding them. Within a page a whole run of
+     * records is moved with bulk copies, and the first record of each following page is
+     * carried over to the last slot of the page before it.
+     *
+     * @param index the index of the element to remove (0-based)
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public E remove(int index) {
+        checkOpen();
+        checkIndex(index);
+        E removedElement = codec.read(page(index), offset(index));
+
+        // Records are moved through the scratch array, since a bulk put() between
+        // overlapping regions of the same direct buffer is not guaranteed to work
+        int i = index;
+        while (i < size - 1) {
+            ByteBuffer page = page(i);
+            // Shift the rest of this page left by one record
+            int lastInPage = Math.min(size - 1, i | pageMask);
+            int count = lastInPage - i;
+            if (count > 0) {
+                DirectBuffers.copy(page, offset(i + 1), page, offset(i), count * recordSize, scratch);
+            }
+            i = lastInPage;
+            if (i < size - 1) {
+                // Carry the first record of the next page into the last slot of this one
+                DirectBuffers.copy(page(i + 1), offset(i + 1), page, offset(i), recordSize, scratch);
+                i++;
+            }
+        }
+        size--;
+        return removedElement;
+    }
+
+    /**
+     * Retrieves the current number of elements in the list
+     *
+     * @return The size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of records the allocated pages can hold
+     *
+     * @return The capacity of the list
+     */
+    public int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) pageCount << pageShift);
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated for the pages
+     */
+    public long allocatedBytes() {
+        return (long) pageCount * (recordSize << pageShift);
+    }
+
+    /**
+     * Frees the direct memory of every page right away instead of waiting for the garbage collector.
+     * Calling close() more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < pageCount; i++) {
+            DirectBuffers.free(pages[i]);
+            pages[i] = null;
+        }
+        pageCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns an iterator that decodes the elements in order
+     */
+    @Override
+    public Iterator<E> iterator() {
+        checkOpen();
+        return new Iterator<E>() {
+
+            int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements to iterate over");
+                }
+                return get(cursor++);
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of the OffHeapRecordList, showing all elements in order
+     */
+    @Override
+    public String toString() {
+        if (closed) {
+            return "[closed]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(get(i));
+            if (i < size - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,41 @@
+package brendanddev.collections.list;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from fixed width binary records, so they can be stored outside of
+ * the Java heap by OffHeapRecordList.
+ *
+ * Every record written by a codec must take exactly recordSize() bytes. Implementations should
+ * use the absolute get/put methods of ByteBuffer (the ones taking an index), since the buffers
+ * are shared and their position is not meant to be changed.
+ *
+ * @param <E> The type of element the codec encodes
+ */
+public interface RecordCodec<E> {
+
+    /**
+     * Returns the number of bytes every record takes
+     *
+     * @return The fixed size of a record in bytes
+     */
+    int recordSize();
+
+    /**
+     * Writes an element as a record starting at the given offset
+     *
+     * @param buffer The buffer to write into
+     * @param offset The offset of the first byte of the record
+     * @param element The element to encode
+     */
+    void write(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Reads the record starting at the given offset back into an element
+     *
+     * @param buffer The buffer to read from
+     * @param offset The offset of the first byte of the record
+     * @return The decoded element
+     */
+    E read(ByteBuffer buffer, int offset);
+}
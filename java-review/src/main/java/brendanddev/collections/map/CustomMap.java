@@ -0,0 +1,532 @@
+package brendanddev.collections.map;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import brendanddev.collections.HashingStrategy;
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A hash map from keys to values, built the same way as ImprovedCustomSet.
+ *
+ * It uses open addressing with linear probing over two parallel arrays, one holding the keys and one holding the
+ * value of the key at the same index. Unlike java.util.HashMap there is no Node object per entry, so a mapping
+ * costs two array slots instead of two slots plus a 32 byte node, and walking a probe run reads neighbouring
+ * slots of one array instead of following next pointers. The table length is always a power of two, and it is
+ * doubled once the number of keys exceeds 'capacity * loadFactor'.
+ *
+ * Removal uses backward shift deletion, moving the keys and values that follow a removed key back into the gap
+ * where that does not move them before their home slot, so no tombstones are needed.
+ *
+ * Keys are hashed and compared through a HashingStrategy, by default their own hashCode() and equals(). A key
+ * class with a poor hashCode(), such as HashCollision, can be fixed for this map alone by passing a strategy like
+ * HashingStrategy.byField(HashCollision::getId). A null key is stored as a private sentinel object, and null
+ * values are allowed, so get() returning null does not tell a missing key from a null value (use containsKey()).
+ *
+ * computeIfAbsent() and merge() follow java.util.Map, but find the slot of the key once and reuse it for the
+ * insert, instead of a get() followed by a put(). The functions they call must not modify the map, otherwise
+ * the slot could be stale, and a ConcurrentModificationException is thrown like in HashMap.
+ *
+ * For int keys, IntObjectMap avoids boxing the keys as well.
+ */
+public class CustomMap<K, V> implements MemoryFootprint {
+
+    // The default number of keys the map can hold before its table is resized
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    // The default fraction of the table that may be filled before it is resized
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    // The largest power of two table length that can be allocated
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // Stand-in for a null key, since null marks an empty slot in the table
+    private static final Object NULL_KEY = new Object();
+
+    // The keys of the table, its length is always a power of two
+    private Object[] keys;
+
+    // The value of the key at the same index in keys
+    private Object[] values;
+
+    // Current number of keys in the map
+    private int size;
+
+    // The maximum number of keys allowed before the table is resized
+    private int threshold;
+
+    // Fraction of the table that may be used before resizing
+    private final float loadFactor;
+
+    // Hashes and compares the keys
+    private final HashingStrategy<? super K> strategy;
+
+    // Number of structural modifications (inserts, removals, resizes), used to detect changes made by callbacks
+    private int modCount;
+
+
+    /**
+     * Constructs an empty CustomMap with the default capacity and load factor
+     */
+    public CustomMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR, HashingStrategy.natural());
+    }
+
+    /**
+     * Constructs an empty CustomMap that can hold at least the given number of keys without resizing
+     *
+     * @param expectedSize The number of keys the map should hold without resizing
+     */
+    public CustomMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, HashingStrategy.natural());
+    }
+
+    /**
+     * Constructs an empty CustomMap that hashes and compares its keys with the given strategy
+     *
+     * @param strategy The strategy used instead of the keys hashCode() and equals()
+     */
+    public CustomMap(HashingStrategy<? super K> strategy) {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR, strategy);
+    }
+
+    /**
+     * Constructs an empty CustomMap that can hold at least the given number of keys without resizing,
+     * using the given load factor and hashing strategy
+     *
+     * @param expectedSize The number of keys the map should hold without resizing
+     * @param loadFactor The fraction of the table that may be filled, between 0 and 1 (exclusive)
+     * @param strategy The strategy used instead of the keys hashCode() and equals()
+     * @throws IllegalArgumentException If expectedSize is negative or loadFactor is out of range
+     */
+    public CustomMap(int expectedSize, float loadFactor, HashingStrategy<? super K> strategy) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+        allocateTable(tableSizeFor((int) Math.ceil(expectedSize / (double) loadFactor) + 1));
+    }
+
+
+    /**
+     * Associates a value with a key, replacing the previous value of that key.
+     *
+     * Time Complexity is O(1) on average, ignoring the occasional O(n) cost of resizing the table.
+     *
+     * @param key The key
+     * @param value The value to store
+     * @return The previous value of the key, or null if it had none
+     */
+    public V put(K key, V value) {
+        Object masked = maskNull(key);
+        int index = findSlot(masked);
+        if (keys[index] != null) {
+            V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+        insertAt(index, masked, value);
+        return null;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * Time Complexity is O(1) on average.
+     *
+     * @param key The key to look up
+     * @return The value of the key, or null if it is not in the map
+     */
+    public V get(K key) {
+        int index = findIndex(maskNull(key));
+        return index < 0 ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the value of a key, or the given default if the key is not in the map
+     *
+     * @param key The key to look up
+     * @param defaultValue The value to return if the key is missing
+     * @return The value of the key, or defaultValue
+     */
+    public V getOrDefault(K key, V defaultValue) {
+        int index = findIndex(maskNull(key));
+        return index < 0 ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Returns the value of a key, computing and storing it first if the key is missing or mapped to null.
+     * The probe run is walked once, and a new mapping is stored in the empty slot that ended it.
+     *
+     * @param key The key to look up
+     * @param mappingFunction Computes the value of a missing key, returning null stores nothing
+     * @return The current (existing or computed) value, or null if the function returned null
+     * @throws ConcurrentModificationException If the function modified this map
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Object masked = maskNull(key);
+        int index = findSlot(masked);
+        if (keys[index] != null && values[index] != null) {
+            return valueAt(index);
+        }
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value != null) {
+            if (keys[index] != null) {
+                values[index] = value;
+            } else {
+                insertAt(index, masked, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value if the key is missing or mapped to null, and otherwise replaces the current value with
+     * the result of the remapping function, removing the key if that result is null. Counting occurrences is
+     * 'merge(word, 1, Integer::sum)'.
+     *
+     * @param key The key to merge into
+     * @param value The value to store or combine with the current one, must not be null
+     * @param remappingFunction Combines the current value and the given value
+     * @return The new value of the key, or null if it was removed
+     * @throws ConcurrentModificationException If the function modified this map
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value, "value");
+        Object masked = maskNull(key);
+        int index = findSlot(masked);
+        if (keys[index] == null) {
+            insertAt(index, masked, value);
+            return value;
+        }
+        V current = valueAt(index);
+        if (current == null) {
+            values[index] = value;
+            return value;
+        }
+        int expectedModCount = modCount;
+        V merged = remappingFunction.apply(current, value);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (merged == null) {
+            deleteSlot(index);
+            size--;
+        } else {
+            values[index] = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * Passes every key and its value to the action, in table order
+     *
+     * @param action The action to run for each mapping
+     * @throws ConcurrentModificationException If the action added or removed keys
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        Object[] tab = keys;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != null) {
+                @SuppressWarnings("unchecked")
+                K key = (K) unmaskNull(tab[i]);
+                action.accept(key, valueAt(i));
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Checks if the map contains a key
+     *
+     * @param key The key to check
+     * @return true if the key is in the map, even if its value is null
+     */
+    public boolean containsKey(K key) {
+        return findIndex(maskNull(key)) >= 0;
+    }
+
+    /**
+     * Removes a key and its value from the map if it exists.
+     *
+     * Time Complexity is O(1) on average.
+     *
+     * @param key The key to remove
+     * @return The value the key had, or null if it was not in the map
+     */
+    public V remove(K key) {
+        int index = findIndex(maskNull(key));
+        if (index < 0) {
+            return null;
+        }
+        V previous = valueAt(index);
+        deleteSlot(index);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of keys currently in the map
+     *
+     * @return Number of keys currently in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty
+     *
+     * @return true if the map holds no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys and values while keeping the current table capacity.
+     *
+     * Time complexity is O(capacity) since every slot of both arrays has to be cleared.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of slots in the table
+     */
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Estimates the bytes used by the map and its two arrays, excluding the keys and values themselves.
+     * With the default load factor the table is 25% to 50% full, so this is 16 to 32 bytes per mapping
+     * with compressed oops.
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // Three reference fields (keys, values, strategy), three ints (size, threshold, modCount) and a float
+        return ObjectLayout.objectSize(3, 3 * Integer.BYTES + Float.BYTES)
+                + 2 * ObjectLayout.referenceArraySize(keys.length);
+    }
+
+    /**
+     * Returns a copy of the keys in an array, in table order
+     *
+     * @return Object[] containing the keys of the map
+     */
+    public Object[] keys() {
+        Object[] result = new Object[size];
+        int j = 0;
+        for (Object key : keys) {
+            if (key != null) {
+                result[j++] = unmaskNull(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the map, in table order
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(unmaskNull(keys[i])).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Finds the slot that holds the given (already masked) key.
+     *
+     * @param key The key to look for
+     * @return The index of the slot holding the key, or -1 if it is not in the table
+     */
+    private int findIndex(Object key) {
+        int index = findSlot(key);
+        return keys[index] == null ? -1 : index;
+    }
+
+    /**
+     * Walks the probe run of a (masked) key until it finds the key or the empty slot that ends the run.
+     * The table always has an empty slot, so the walk terminates.
+     *
+     * @return The index of the key, or of the empty slot where it would be inserted
+     */
+    private int findSlot(Object key) {
+        Object[] tab = keys;
+        int mask = tab.length - 1;
+        int i = indexFor(hash(key), mask);
+        Object current;
+        while ((current = tab[i]) != null) {
+            if (same(current, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Stores a new mapping in an empty slot found by findSlot(), growing the table if it got too full
+     */
+    private void insertAt(int index, Object key, Object value) {
+        keys[index] = key;
+        values[index] = value;
+        modCount++;
+        if (++size > threshold) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Empties the slot at the given index using backward shift deletion, moving keys and values together.
+     * See ImprovedCustomSet.deleteSlot() for how the probe run is kept free of holes.
+     *
+     * @param index The index of the slot to empty
+     */
+    private void deleteSlot(int index) {
+        Object[] tab = keys;
+        int mask = tab.length - 1;
+        int gap = index;
+        int i = (index + 1) & mask;
+        Object current;
+        while ((current = tab[i]) != null) {
+            int home = indexFor(hash(current), mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                tab[gap] = current;
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[gap] = null;
+        values[gap] = null;
+        modCount++;
+    }
+
+    /**
+     * Replaces the table with a new one of the given length and re-inserts every mapping.
+     *
+     * This operation is O(n) in time complexity.
+     *
+     * @param newCapacity The new table length, must be a power of two
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("Map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocateTable(newCapacity);
+        Object[] tab = keys;
+        int mask = tab.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null) {
+                int i = indexFor(hash(key), mask);
+                while (tab[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                tab[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Allocates empty key and value arrays with the given length and recomputes the resize threshold,
+     * keeping at least one slot empty to terminate probe runs
+     */
+    private void allocateTable(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Hashes a (masked) key with the maps strategy. The null sentinel is never passed to the strategy.
+     */
+    @SuppressWarnings("unchecked")
+    private int hash(Object key) {
+        return key == NULL_KEY ? 0 : strategy.hash((K) key);
+    }
+
+    /**
+     * Checks if two (masked) keys are the same key according to the maps strategy
+     */
+    @SuppressWarnings("unchecked")
+    private boolean same(Object current, Object key) {
+        if (current == key) {
+            return true;
+        }
+        if (current == NULL_KEY || key == NULL_KEY) {
+            return false;
+        }
+        return strategy.equals((K) current, (K) key);
+    }
+
+    /**
+     * Maps a hash code to a slot index by multiplying it with the golden ratio constant and folding
+     * the high bits into the low bits, the same as ImprovedCustomSet
+     */
+    private static int indexFor(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY || capacity < 0) {
+            return MAXIMUM_CAPACITY;
+        }
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(n, 2);
+    }
+
+    // Replaces a null key with the sentinel so it can be stored in the table
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    // Turns the sentinel back into null when handing keys out
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+}
@@ -0,0 +1,524 @@
+package brendanddev.collections.map;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A primitive specialization of CustomMap for int keys, such as CustomObject.getId().
+ *
+ * CustomMap<Integer, V> has to box every key into an Integer object, which costs a separate 16 byte object per
+ * mapping and a pointer to follow on every probe. This map keeps the keys in an int[] next to an Object[] of
+ * values, so a probe run is a scan over neighbouring ints and comparing two keys is a single int comparison.
+ *
+ * Since an int has no spare value for an empty slot, the key 0 marks empty slots in the table, and a mapping for
+ * the key 0 itself is kept in two separate fields (hasZeroKey and zeroValue) outside the table. Everything else
+ * works like CustomMap: linear probing over a power of two table, golden ratio hashing of the key, doubling at
+ * the load factor, and backward shift deletion.
+ */
+public class IntObjectMap<V> implements MemoryFootprint {
+
+    // The default number of keys the map can hold before its table is resized
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    // The default fraction of the table that may be filled before it is resized
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    // The largest power of two table length that can be allocated
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // The keys of the table, 0 marks an empty slot
+    private int[] keys;
+
+    // The value of the key at the same index in keys
+    private Object[] values;
+
+    // Whether the key 0 is in the map, it is stored outside the table
+    private boolean hasZeroKey;
+
+    // The value of the key 0
+    private Object zeroValue;
+
+    // Current number of keys in the map, including the key 0
+    private int size;
+
+    // The maximum number of keys in the table allowed before it is resized
+    private int threshold;
+
+    // Fraction of the table that may be used before resizing
+    private final float loadFactor;
+
+    // Number of structural modifications, used to detect changes made by callbacks
+    private int modCount;
+
+    /**
+     * Consumes a mapping of an IntObjectMap without boxing its key
+     */
+    @FunctionalInterface
+    public interface IntObjectConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    /**
+     * Constructs an empty IntObjectMap with the default capacity and load factor
+     */
+    public IntObjectMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty IntObjectMap that can hold at least the given number of keys without resizing
+     *
+     * @param expectedSize The number of keys the map should hold without resizing
+     */
+    public IntObjectMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty IntObjectMap that can hold at least the given number of keys without resizing,
+     * using the given load factor
+     *
+     * @param expectedSize The number of keys the map should hold without resizing
+     * @param loadFactor The fraction of the table that may be filled, between 0 and 1 (exclusive)
+     * @throws IllegalArgumentException If expectedSize is negative or loadFactor is out of range
+     */
+    public IntObjectMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocateTable(tableSizeFor((int) Math.ceil(expectedSize / (double) loadFactor) + 1));
+    }
+
+    /**
+     * Associates a value with a key, replacing the previous value of that key.
+     *
+     * @param key The key
+     * @param value The value to store
+     * @return The previous value of the key, or null if it had none
+     */
+    public V put(int key, V value) {
+        if (key == 0) {
+            V previous = zeroValue();
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                modCount++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int index = findSlot(key);
+        if (keys[index] != 0) {
+            V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+        insertAt(index, key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value of a key
+     *
+     * @param key The key to look up
+     * @return The value of the key, or null if it is not in the map
+     */
+    public V get(int key) {
+        if (key == 0) {
+            return zeroValue();
+        }
+        int index = findSlot(key);
+        return keys[index] == 0 ? null : valueAt(index);
+    }
+
+    /**
+     * Returns the value of a key, or the given default if the key is not in the map
+     *
+     * @param key The key to look up
+     * @param defaultValue The value to return if the key is missing
+     * @return The value of the key, or defaultValue
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue() : defaultValue;
+        }
+        int index = findSlot(key);
+        return keys[index] == 0 ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Checks if the map contains a key
+     *
+     * @param key The key to check
+     * @return true if the key is in the map, even if its value is null
+     */
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return keys[findSlot(key)] != 0;
+    }
+
+    /**
+     * Removes a key and its value from the map if it exists
+     *
+     * @param key The key to remove
+     * @return The value the key had, or null if it was not in the map
+     */
+    public V remove(int key) {
+        if (key == 0) {
+            V previous = zeroValue();
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+                modCount++;
+            }
+            return previous;
+        }
+        int index = findSlot(key);
+        if (keys[index] == 0) {
+            return null;
+        }
+        V previous = valueAt(index);
+        deleteSlot(index);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the value of a key, computing and storing it first if the key is missing or mapped to null.
+     * The probe run is walked once, and a new mapping is stored in the empty slot that ended it.
+     *
+     * @param key The key to look up
+     * @param mappingFunction Computes the value of a missing key, returning null stores nothing
+     * @return The current (existing or computed) value, or null if the function returned null
+     * @throws ConcurrentModificationException If the function modified this map
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+        if (key == 0) {
+            if (zeroValue == null) {
+                int expectedModCount = modCount;
+                V value = mappingFunction.apply(0);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (value != null) {
+                    put(0, value);
+                }
+                return value;
+            }
+            return zeroValue();
+        }
+        int index = findSlot(key);
+        if (keys[index] != 0 && values[index] != null) {
+            return valueAt(index);
+        }
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value != null) {
+            if (keys[index] != 0) {
+                values[index] = value;
+            } else {
+                insertAt(index, key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value if the key is missing or mapped to null, and otherwise replaces the current value with
+     * the result of the remapping function, removing the key if that result is null
+     *
+     * @param key The key to merge into
+     * @param value The value to store or combine with the current one, must not be null
+     * @param remappingFunction Combines the current value and the given value
+     * @return The new value of the key, or null if it was removed
+     * @throws ConcurrentModificationException If the function modified this map
+     */
+    public V merge(int key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value, "value");
+        if (key == 0) {
+            V current = zeroValue();
+            V merged = value;
+            if (current != null) {
+                int expectedModCount = modCount;
+                merged = remappingFunction.apply(current, value);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+            if (merged == null) {
+                remove(0);
+            } else {
+                put(0, merged);
+            }
+            return merged;
+        }
+        int index = findSlot(key);
+        if (keys[index] == 0) {
+            insertAt(index, key, value);
+            return value;
+        }
+        V current = valueAt(index);
+        if (current == null) {
+            values[index] = value;
+            return value;
+        }
+        int expectedModCount = modCount;
+        V merged = remappingFunction.apply(current, value);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (merged == null) {
+            deleteSlot(index);
+            size--;
+        } else {
+            values[index] = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * Passes every key and its value to the action without boxing the keys. The key 0 comes first,
+     * the other keys follow in table order.
+     *
+     * @param action The action to run for each mapping
+     * @throws ConcurrentModificationException If the action added or removed keys
+     */
+    public void forEach(IntObjectConsumer<? super V> action) {
+        int expectedModCount = modCount;
+        if (hasZeroKey) {
+            action.accept(0, zeroValue());
+        }
+        int[] tab = keys;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0) {
+                action.accept(tab[i], valueAt(i));
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the number of keys currently in the map
+     *
+     * @return Number of keys currently in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty
+     *
+     * @return true if the map holds no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys and values while keeping the current table capacity
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the keys of the map, the key 0 first and the others in table order
+     *
+     * @return int[] containing the keys of the map
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int j = hasZeroKey ? 1 : 0;
+        for (int key : keys) {
+            if (key != 0) {
+                result[j++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of slots in the table
+     */
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Estimates the bytes used by the map and its two arrays, excluding the values themselves.
+     * With the default load factor this is 16 to 32 bytes per mapping, and no key objects.
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // Three reference fields (keys, values, zeroValue), three ints (size, threshold, modCount),
+        // a float (loadFactor) and a boolean (hasZeroKey)
+        return ObjectLayout.objectSize(3, 3 * Integer.BYTES + Float.BYTES + 1)
+                + ObjectLayout.arraySize(keys.length, Integer.BYTES)
+                + ObjectLayout.referenceArraySize(values.length);
+    }
+
+    /**
+     * Returns a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Walks the probe run of a non-zero key until it finds the key or the empty slot that ends the run
+     *
+     * @return The index of the key, or of the empty slot where it would be inserted
+     */
+    private int findSlot(int key) {
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        int i = indexFor(key, mask);
+        int current;
+        while ((current = tab[i]) != 0) {
+            if (current == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Stores a new mapping in an empty slot found by findSlot(), growing the table if it got too full
+     */
+    private void insertAt(int index, int key, Object value) {
+        keys[index] = key;
+        values[index] = value;
+        modCount++;
+        if (++size - (hasZeroKey ? 1 : 0) > threshold) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Empties the slot at the given index using backward shift deletion, moving keys and values together
+     *
+     * @param index The index of the slot to empty
+     */
+    private void deleteSlot(int index) {
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        int gap = index;
+        int i = (index + 1) & mask;
+        int current;
+        while ((current = tab[i]) != 0) {
+            int home = indexFor(current, mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                tab[gap] = current;
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[gap] = 0;
+        values[gap] = null;
+        modCount++;
+    }
+
+    /**
+     * Replaces the table with a new one of the given length and re-inserts every mapping
+     *
+     * @param newCapacity The new table length, must be a power of two
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("Map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocateTable(newCapacity);
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = indexFor(key, mask);
+                while (tab[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                tab[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Allocates empty key and value arrays with the given length and recomputes the resize threshold,
+     * keeping at least one slot empty to terminate probe runs
+     */
+    private void allocateTable(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V zeroValue() {
+        return (V) zeroValue;
+    }
+
+    /**
+     * Maps a key to a slot index by multiplying it with the golden ratio constant and folding the high
+     * bits into the low bits, so sequential ids are spread over the table
+     */
+    private static int indexFor(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY || capacity < 0) {
+            return MAXIMUM_CAPACITY;
+        }
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(n, 2);
+    }
+
+}
@@ -0,0 +1,81 @@
+package brendanddev.collections.map;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import brendanddev.collections.ObjectLayout;
+import brendanddev.collections.customobjects.CustomObject;
+
+public class Main {
+
+    public static void main(String[] args) {
+
+        // CustomMap supports the usual put/get/remove, with keys and values in two parallel arrays
+        System.out.println("\n====== CustomMap ======");
+        CustomMap<String, Integer> stock = new CustomMap<>();
+        stock.put("Apple", 3);
+        stock.put("Banana", 5);
+        stock.put("Cherry", 7);
+        stock.put("Apple", 4); // Replaces the previous value
+        stock.remove("Banana");
+        System.out.println("Stock: " + stock + " (size " + stock.size() + ")");
+
+        // merge() counts occurrences with a single probe per word
+        CustomMap<String, Integer> counts = new CustomMap<>();
+        for (String word : "the quick fox jumps over the lazy dog the end".split(" ")) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        System.out.println("Count of 'the': " + counts.get("the"));
+
+        // IntObjectMap keys CustomObjects by their int id without boxing the ids
+        System.out.println("\n====== IntObjectMap ======");
+        IntObjectMap<CustomObject> byId = new IntObjectMap<>();
+        for (int id = 0; id < 5; id++) {
+            byId.put(id, new CustomObject("Object " + id, id * 10, id));
+        }
+        CustomObject created = byId.computeIfAbsent(42, id -> new CustomObject("Object " + id, id * 10, id));
+        System.out.println("Object 3: " + byId.get(3).getName() + ", computed: " + created.getName());
+        System.out.println("Contains id 0? " + byId.containsKey(0) + ", size " + byId.size());
+
+        compareBytesPerEntry(100_000);
+    }
+
+    /**
+     * Fills a HashMap<Integer, CustomObject>, a CustomMap<Integer, CustomObject> and an IntObjectMap<CustomObject>
+     * with the same mappings and compares their estimated memory per entry, excluding the shared values.
+     *
+     * HashMap pays for its table, a 32 byte Node per mapping and a boxed Integer key. CustomMap pays for two
+     * table slots and the boxed key, and IntObjectMap only for an int and a reference slot.
+     *
+     * @param count The number of mappings
+     */
+    private static void compareBytesPerEntry(int count) {
+        Map<Integer, CustomObject> hashMap = new HashMap<>();
+        CustomMap<Integer, CustomObject> customMap = new CustomMap<>();
+        IntObjectMap<CustomObject> intMap = new IntObjectMap<>();
+        CustomObject value = new CustomObject("Shared", 0, 0);
+        for (int i = 0; i < count; i++) {
+            hashMap.put(i, value);
+            customMap.put(i, value);
+            intMap.put(i, value);
+        }
+
+        // Values in the Integer cache are shared and not allocated per key
+        long boxes = (long) Math.max(0, count - 128) * ObjectLayout.objectSize(0, Integer.BYTES);
+        int table = Integer.highestOneBit((int) (count / 0.75f) - 1) << 1;
+        long hashMapBytes = ObjectLayout.objectSize(4, 3 * Integer.BYTES + Float.BYTES)
+                + ObjectLayout.referenceArraySize(table)
+                + (long) count * ObjectLayout.objectSize(3, Integer.BYTES)
+                + boxes;
+        long customMapBytes = customMap.estimatedRetainedBytes() + boxes;
+        long intMapBytes = intMap.estimatedRetainedBytes();
+
+        System.out.println("\n====== Bytes per entry (" + count + " mappings) ======");
+        System.out.println("HashMap<Integer, V>: " + String.format("%.1f", hashMapBytes / (double) count));
+        System.out.println("CustomMap<Integer, V>: " + String.format("%.1f", customMapBytes / (double) count)
+                + " (capacity " + customMap.capacity() + ")");
+        System.out.println("IntObjectMap<V>: " + String.format("%.1f", intMapBytes / (double) count)
+                + " (capacity " + intMap.capacity() + ")");
+    }
+
+}
@@ -0,0 +1,278 @@
+package brendanddev.collections.set;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe hash set that many threads can add to, query and remove from at the same time.
+ *
+ * CustomSet scans its whole array on every operation and has no synchronization, and guarding a single
+ * ImprovedCustomSet with one lock would make every thread wait for every other thread. This class uses lock
+ * striping instead: the set is split into a fixed number of segments, each one an ImprovedCustomSet guarded by its
+ * own lock, and every element belongs to exactly one segment chosen from its hash code. Threads working on elements
+ * in different segments never contend, so throughput grows with the number of threads until they start to collide
+ * on the same segments.
+ *
+ * The segment is picked from the high bits of the hash code multiplied by the golden ratio constant, while the
+ * segment itself uses the low bits to pick a slot, so the elements of one segment still spread across its table.
+ *
+ * The total size is kept in a LongAdder rather than by summing the segments. A LongAdder spreads its updates over
+ * several cells when threads contend, so counting adds and removes does not become a shared hot spot of its own.
+ * While other threads are modifying the set, size() is only an estimate.
+ *
+ * Iterators are weakly consistent, like those of ConcurrentHashMap. They copy one segment at a time under its lock
+ * when they reach it, so they never throw ConcurrentModificationException and reflect some, but not necessarily all,
+ * changes made after they were created. Null elements are permitted, as in ImprovedCustomSet.
+ */
+public class ConcurrentCustomSet<T> implements Iterable<T> {
+
+    // The default number of segments, and so the number of threads that can modify the set without contention
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    // The largest number of segments allowed
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    // The segments, each one is also the lock guarding itself
+    private final ImprovedCustomSet<T>[] segments;
+
+    // Number of bits the spread hash is shifted right to get a segment index
+    private final int segmentShift;
+
+    // Number of elements in all segments, updated after every successful add or remove
+    private final LongAdder count = new LongAdder();
+
+
+    /**
+     * Constructs an empty ConcurrentCustomSet with the default concurrency level
+     */
+    public ConcurrentCustomSet() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs an empty ConcurrentCustomSet with at least the given number of segments
+     *
+     * @param concurrencyLevel The number of threads expected to modify the set at the same time,
+     *                         rounded up to a power of two
+     * @throws IllegalArgumentException If concurrencyLevel is not positive
+     */
+    public ConcurrentCustomSet(int concurrencyLevel) {
+        this(concurrencyLevel, 0);
+    }
+
+    /**
+     * Constructs an empty ConcurrentCustomSet with at least the given number of segments, sized
+     * so that the expected number of elements fit without resizing any segment
+     *
+     * @param concurrencyLevel The number of threads expected to modify the set at the same time,
+     *                         rounded up to a power of two
+     * @param expectedSize The number of elements the set should hold without resizing
+     * @throws IllegalArgumentException If concurrencyLevel is not positive or expectedSize is negative
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentCustomSet(int concurrencyLevel, int expectedSize) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be greater than zero");
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        int segmentCount = concurrencyLevel >= MAX_SEGMENTS ? MAX_SEGMENTS
+                : Integer.highestOneBit(Math.max(concurrencyLevel, 2) - 1) << 1;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+
+        // Leave some headroom so an uneven split does not make the fuller segments resize right away
+        int perSegment = expectedSize / segmentCount;
+        perSegment += perSegment / 4 + 1;
+        this.segments = new ImprovedCustomSet[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new ImprovedCustomSet<>(perSegment);
+        }
+    }
+
+
+    /**
+     * Returns the segment responsible for the given element.
+     *
+     * The hash code is multiplied by the golden ratio constant and its top bits select the segment.
+     */
+    private ImprovedCustomSet<T> segmentFor(Object element) {
+        int h = (element == null ? 0 : element.hashCode()) * 0x9E3779B9;
+        return segments[h >>> segmentShift];
+    }
+
+    /**
+     * Adds an element to the set if it is not already present.
+     * Only the segment of the element is locked.
+     *
+     * @param element Element to add
+     * @return true if the element was added, false if it was already in the set
+     */
+    public boolean add(T element) {
+        ImprovedCustomSet<T> segment = segmentFor(element);
+        boolean added;
+        synchronized (segment) {
+            added = segment.add(element);
+        }
+        if (added) {
+            count.increment();
+        }
+        return added;
+    }
+
+    /**
+     * Checks if the set contains a given element.
+     * Only the segment of the element is locked.
+     *
+     * @param element Element to check
+     * @return true if the element exists in the set, false otherwise
+     */
+    public boolean contains(T element) {
+        ImprovedCustomSet<T> segment = segmentFor(element);
+        synchronized (segment) {
+            return segment.contains(element);
+        }
+    }
+
+    /**
+     * Removes an element from the set if it exists.
+     * Only the segment of the element is locked.
+     *
+     * @param element The element to remove
+     * @return true if the element was removed, false if it wasn't found
+     */
+    public boolean remove(T element) {
+        ImprovedCustomSet<T> segment = segmentFor(element);
+        boolean removed;
+        synchronized (segment) {
+            removed = segment.remove(element);
+        }
+        if (removed) {
+            count.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of elements in the set, read from the LongAdder without locking.
+     * If other threads are modifying the set at the same time the result is an estimate.
+     *
+     * @return Number of elements currently in the set
+     */
+    public int size() {
+        long sum = count.sum();
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(0, sum);
+    }
+
+    /**
+     * Returns whether the set is empty, with the same caveat as size()
+     */
+    public boolean isEmpty() {
+        return count.sum() <= 0;
+    }
+
+    /**
+     * Removes all elements from the set, one segment at a time.
+     * Elements added to an already cleared segment while clear() runs are kept.
+     */
+    public void clear() {
+        for (ImprovedCustomSet<T> segment : segments) {
+            int removed;
+            synchronized (segment) {
+                removed = segment.size();
+                segment.clear();
+            }
+            count.add(-removed);
+        }
+    }
+
+    /**
+     * Returns a copy of the sets elements in an array, copying one segment at a time
+     *
+     * @return Object[] containing the elements of the set
+     */
+    public Object[] toArray() {
+        List<Object> result = new ArrayList<>(size());
+        for (ImprovedCustomSet<T> segment : segments) {
+            Object[] elements;
+            synchronized (segment) {
+                elements = segment.toArray();
+            }
+            for (Object element : elements) {
+                result.add(element);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements.
+     *
+     * The iterator copies the elements of a segment under its lock when it reaches it, and then walks
+     * the copy, so it holds no lock between calls. remove() removes the last returned element from the set.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            // Index of the next segment to copy
+            int nextSegment = 0;
+
+            // Copy of the current segment and the position in it
+            Object[] current = new Object[0];
+            int index = 0;
+
+            // The last element returned, and whether remove() may be called
+            T lastReturned;
+            boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                while (index >= current.length) {
+                    if (nextSegment >= segments.length) {
+                        return false;
+                    }
+                    ImprovedCustomSet<T> segment = segments[nextSegment++];
+                    synchronized (segment) {
+                        current = segment.toArray();
+                    }
+                    index = 0;
+                }
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements");
+                }
+                lastReturned = (T) current[index++];
+                canRemove = true;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException("Cannot remove - call next() first");
+                }
+                ConcurrentCustomSet.this.remove(lastReturned);
+                canRemove = false;
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
@@ -1,6 +1,10 @@
 package brendanddev.collections.set;
 
 import java.util.Arrays;
+import java.util.function.Predicate;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
 
 /**
  * This class defines a custom implementation of a Set like data structure, CustomSet.
@@ -8,8 +12,15 @@ import java.util.Arrays;
  * 
  * This class stores unique elements only, is backed by a simple dynamically resizing array, and provides
  * basic operations such as adding elements, checking for existence, getting the size, and removing elements.
+ * 
+ * It also provides the set operations union, intersection, difference, containsAll and retainAll. Answering
+ * contains() on this set is a linear scan, so checking every element of one set against another with nested loops
+ * would be O(n*m). Instead, these operations iterate the smaller set (where the operation allows it) and probe the
+ * larger one through a temporary hash index (an ImprovedCustomSet) built from it, which makes them O(n + m). The
+ * result is presized so it never has to grow. Once the set being iterated has at least getParallelThreshold()
+ * elements, the probing runs as a parallel stream.
  */
-public class CustomSet<T> {
+public class CustomSet<T> implements MemoryFootprint {
 
     // Internal array to hold the elements of the set
     private Object[] elements;
@@ -20,6 +31,15 @@ public class CustomSet<T> {
     // The default capacity of the sets internal array
     private static final int DEFAULT_CAPACITY = 10;
 
+    // The default number of elements from which set operations run in parallel
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    // Sets up to this size are probed with a linear scan instead of building a hash index
+    private static final int LINEAR_PROBE_LIMIT = 16;
+
+    // Set operations iterating at least this many elements run in parallel
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
 
     /**
      * Constructs an instance of the CustomSet with a default capacity
@@ -29,6 +49,20 @@ public class CustomSet<T> {
         size = 0;
     }
 
+    /**
+     * Constructs an instance of the CustomSet that can hold the given number of elements without resizing
+     * 
+     * @param initialCapacity The initial capacity of the internal array
+     * @throws IllegalArgumentException If initialCapacity is negative
+     */
+    public CustomSet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative");
+        }
+        elements = new Object[initialCapacity];
+        size = 0;
+    }
+
 
     /**
      * Adds an elements to the set if it is not already present.
@@ -106,6 +140,37 @@ public class CustomSet<T> {
         return size;
     }
 
+    /**
+     * Returns the length of the internal array, meaning how many elements the set
+     * can hold before it has to resize
+     * 
+     * @return The capacity of the set
+     */
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Estimates the memory used by the set object and its internal array, not counting
+     * the element objects themselves
+     */
+    @Override
+    public long estimatedRetainedBytes() {
+        // One reference field (elements) and two int fields (size, parallelThreshold)
+        return ObjectLayout.objectSize(1, 2 * Integer.BYTES) + ObjectLayout.referenceArraySize(elements.length);
+    }
+
+    /**
+     * Shrinks the internal array to the current size of the set, releasing the unused
+     * slots left behind by doubling the capacity.
+     */
+    public void trimToSize() {
+        if (size < elements.length) {
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
     /**
      * Clears the contents of the set by filling the used portion of the internal
      * array with null values and resetting the size to 0.
@@ -136,6 +201,176 @@ public class CustomSet<T> {
         return Arrays.toString(toArray());
     }
 
+    /**
+     * Returns a new set holding every element that is in this set, the other set, or both.
+     * 
+     * The elements of the larger set are copied over in one go, since they are already distinct,
+     * and then only the elements of the smaller set that are not in the larger one are appended.
+     * 
+     * Time Complexity is O(n + m).
+     * 
+     * @param other The set to combine with this one
+     * @return A new set presized to hold both sets
+     */
+    public CustomSet<T> union(CustomSet<? extends T> other) {
+        CustomSet<?> larger = size >= other.size ? this : other;
+        CustomSet<?> smaller = larger == this ? other : this;
+        CustomSet<T> result = new CustomSet<>(size + other.size);
+        System.arraycopy(larger.elements, 0, result.elements, 0, larger.size);
+        result.size = larger.size;
+        result.appendAll(smaller.select(larger.membership().negate(), parallelThreshold));
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements that are in both this set and the other set.
+     * The smaller set is iterated and the larger one probed.
+     * 
+     * Time Complexity is O(n + m).
+     * 
+     * @param other The set to intersect with this one
+     * @return A new set presized to the size of the smaller set
+     */
+    public CustomSet<T> intersection(CustomSet<? extends T> other) {
+        CustomSet<?> larger = size >= other.size ? this : other;
+        CustomSet<?> smaller = larger == this ? other : this;
+        CustomSet<T> result = new CustomSet<>(smaller.size);
+        result.appendAll(smaller.select(larger.membership(), parallelThreshold));
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements of this set that are not in the other set.
+     * Every element of this set has to be checked, so this set is iterated and the other set probed.
+     * 
+     * Time Complexity is O(n + m).
+     * 
+     * @param other The set whose elements are left out
+     * @return A new set presized to the size of this set
+     */
+    public CustomSet<T> difference(CustomSet<? extends T> other) {
+        CustomSet<T> result = new CustomSet<>(size);
+        result.appendAll(select(other.membership().negate(), parallelThreshold));
+        return result;
+    }
+
+    /**
+     * Checks if every element of the other set is also in this set.
+     * A larger set can never be contained in a smaller one, so that case returns right away.
+     * 
+     * Time Complexity is O(n + m).
+     * 
+     * @param other The set to check
+     * @return true if this set contains all elements of the other set
+     */
+    public boolean containsAll(CustomSet<? extends T> other) {
+        if (other.size > size) {
+            return false;
+        }
+        return !other.anyMatch(membership().negate(), parallelThreshold);
+    }
+
+    /**
+     * Removes every element of this set that is not in the other set.
+     * The kept elements are compacted to the front of the array in place and the freed slots cleared.
+     * 
+     * Time Complexity is O(n + m).
+     * 
+     * @param other The set whose elements are kept
+     * @return true if this set changed
+     */
+    public boolean retainAll(CustomSet<? extends T> other) {
+        Object[] kept = select(other.membership(), parallelThreshold);
+        if (kept.length == size) {
+            return false;
+        }
+        System.arraycopy(kept, 0, elements, 0, kept.length);
+        Arrays.fill(elements, kept.length, size, null);
+        size = kept.length;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements from which the set operations run in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the number of elements from which the set operations probe in parallel. The parallel path
+     * uses the common fork join pool and only pays off for large sets with cheap equals() methods.
+     * 
+     * @param parallelThreshold The minimum number of iterated elements, Integer.MAX_VALUE to never run in parallel
+     * @throws IllegalArgumentException If parallelThreshold is not positive
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns a test for membership in this set.
+     * Small sets are scanned directly, larger ones get a temporary hash index so each probe is O(1).
+     * The returned test only reads, so it can be used from several threads.
+     */
+    private Predicate<Object> membership() {
+        if (size <= LINEAR_PROBE_LIMIT) {
+            return this::containsObject;
+        }
+        ImprovedCustomSet<Object> index = new ImprovedCustomSet<>(size);
+        for (int i = 0; i < size; i++) {
+            index.add(elements[i]);
+        }
+        return index::contains;
+    }
+
+    /**
+     * Returns the elements of this set that pass the test, in order.
+     * At or above the threshold the elements are tested by a parallel stream.
+     */
+    private Object[] select(Predicate<Object> test, int threshold) {
+        if (size >= threshold) {
+            return Arrays.stream(elements, 0, size).parallel().filter(test).toArray();
+        }
+        Object[] selected = new Object[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (test.test(elements[i])) {
+                selected[count++] = elements[i];
+            }
+        }
+        return count == size ? selected : Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Checks if any element of this set passes the test, stopping at the first one that does
+     */
+    private boolean anyMatch(Predicate<Object> test, int threshold) {
+        if (size >= threshold) {
+            return Arrays.stream(elements, 0, size).parallel().anyMatch(test);
+        }
+        for (int i = 0; i < size; i++) {
+            if (test.test(elements[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends elements that are known to be distinct and not in this set, into a presized array
+     */
+    private void appendAll(Object[] distinct) {
+        if (size + distinct.length > elements.length) {
+            elements = Arrays.copyOf(elements, size + distinct.length);
+        }
+        System.arraycopy(distinct, 0, elements, size, distinct.length);
+        size += distinct.length;
+    }
+
     /**
      * Checks if the set contains a given element.
      * 
@@ -145,6 +380,13 @@ public class CustomSet<T> {
      * @return true if the element exists in the set, false otherwise
      */
     public boolean contains(T element) {
+        return containsObject(element);
+    }
+
+    /**
+     * Linear search for an element of any type, used by contains() and by the set operations
+     */
+    private boolean containsObject(Object element) {
         for (int i = 0; i < size; i++) {
             if (equals(elements[i], element)) {
                 return true;
@@ -163,8 +405,8 @@ public class CustomSet<T> {
      */
     private void ensureCapacity() {
         if (size == elements.length) {
-            // Double capacity
-            elements = Arrays.copyOf(elements, size * 2);
+            // Double capacity, starting over from the default if the array was trimmed to zero
+            elements = Arrays.copyOf(elements, size == 0 ? DEFAULT_CAPACITY : size * 2);
         }
     }
 
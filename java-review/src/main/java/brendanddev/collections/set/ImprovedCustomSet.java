@@ -1,11 +1,548 @@
 package brendanddev.collections.set;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
 
-
+import brendanddev.collections.HashingStrategy;
 
 /**
- * A improved version of the CustomSet class that ...
+ * A improved version of the CustomSet class that stores its elements in a hash table instead of a plain array.
+ *
+ * CustomSet has to scan every stored element to answer contains(), which makes add() and remove() O(n) as well,
+ * so building a set of n elements costs O(n^2). This class keeps the same add/contains/remove/size/clear/toArray
+ * surface so it can be swapped in directly, but each of those operations is O(1) on average.
+ *
+ * It uses open addressing with linear probing. Elements are stored directly in a single Object[] table (no Entry
+ * or node objects), and an element whose home slot is already taken is placed in the next free slot after it.
+ * The table length is always a power of two, so a hash code is turned into a slot index with a bit mask instead
+ * of the slower modulo operation. When the number of elements exceeds 'capacity * loadFactor' the table is doubled
+ * and every element is re-inserted.
+ *
+ * Removal uses backward shift deletion rather than tombstones. After an element is removed, the elements that follow
+ * it in the same probe run are shifted back into the gap if that does not move them before their home slot. This keeps
+ * every probe run free of holes, so lookups never have to skip over deleted markers and the table never fills up
+ * with them.
+ *
+ * Since an empty slot is represented by null, a null element is stored as a private sentinel object instead.
+ *
+ * The set operations union, intersection, difference, containsAll and retainAll iterate the smaller set where the
+ * operation allows it and probe the larger one, so they cost O(min(n, m)) probes instead of O(n * m). Results are
+ * presized for their final size, and their elements are inserted without equality checks since they are already known
+ * to be distinct. Once the iterated set has at least getParallelThreshold() elements, the probing runs as a parallel
+ * stream over the table.
+ *
+ * Elements are hashed and compared through a HashingStrategy, which by default calls their own hashCode() and
+ * equals(). Passing another strategy to the constructor lets the set repair keys with a poor hashCode(), such as
+ * HashCollision, or compare elements by identity. The set operations build their results with this sets strategy
+ * and expect the other set to use an equivalent one.
  */
-public class ImprovedCustomSet {
-    
+public class ImprovedCustomSet<T> {
+
+    // The default number of elements the set can hold before its table is resized
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    // The default fraction of the table that may be filled before it is resized
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    // The largest power of two table length that can be allocated
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // Stand-in for a null element, since null marks an empty slot in the table
+    private static final Object NULL_ELEMENT = new Object();
+
+    // The default number of elements from which set operations run in parallel
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    // Hash table holding the elements, its length is always a power of two
+    private Object[] table;
+
+    // Current number of elements in the set
+    private int size;
+
+    // The maximum number of elements allowed before the table is resized
+    private int threshold;
+
+    // Fraction of the table that may be used before resizing
+    private final float loadFactor;
+
+    // Set operations iterating at least this many elements run in parallel
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    // Hashes and compares the elements
+    private final HashingStrategy<? super T> strategy;
+
+
+    /**
+     * Constructs an empty ImprovedCustomSet with the default capacity and load factor
+     */
+    public ImprovedCustomSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty ImprovedCustomSet that can hold at least the given number of
+     * elements without resizing, using the default load factor
+     *
+     * @param expectedSize The number of elements the set should hold without resizing
+     */
+    public ImprovedCustomSet(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty ImprovedCustomSet that can hold at least the given number of
+     * elements without resizing, using the given load factor.
+     *
+     * Lower load factors keep probe runs short at the cost of more empty slots, higher load factors
+     * save memory but make lookups probe further.
+     *
+     * @param expectedSize The number of elements the set should hold without resizing
+     * @param loadFactor The fraction of the table that may be filled, between 0 and 1 (exclusive)
+     * @throws IllegalArgumentException If expectedSize is negative or loadFactor is out of range
+     */
+    public ImprovedCustomSet(int expectedSize, float loadFactor) {
+        this(expectedSize, loadFactor, HashingStrategy.natural());
+    }
+
+    /**
+     * Constructs an empty ImprovedCustomSet with the default capacity and load factor that hashes and
+     * compares its elements with the given strategy
+     *
+     * @param strategy The strategy used instead of the elements hashCode() and equals()
+     */
+    public ImprovedCustomSet(HashingStrategy<? super T> strategy) {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR, strategy);
+    }
+
+    /**
+     * Constructs an empty ImprovedCustomSet that can hold at least the given number of elements without
+     * resizing, using the given load factor and hashing strategy
+     *
+     * @param expectedSize The number of elements the set should hold without resizing
+     * @param loadFactor The fraction of the table that may be filled, between 0 and 1 (exclusive)
+     * @param strategy The strategy used instead of the elements hashCode() and equals()
+     * @throws IllegalArgumentException If expectedSize is negative or loadFactor is out of range
+     */
+    public ImprovedCustomSet(int expectedSize, float loadFactor, HashingStrategy<? super T> strategy) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+        allocateTable(tableSizeFor((int) Math.ceil(expectedSize / (double) loadFactor) + 1));
+    }
+
+
+    /**
+     * Adds an element to the set if it is not already present.
+     *
+     * It probes from the elements home slot until it either finds an equal element, in which case
+     * nothing is added, or an empty slot, where the element is stored.
+     *
+     * Time Complexity is O(1) on average, ignoring the occasional O(n) cost of resizing the table.
+     *
+     * @param element Element to add
+     * @return true if the element was added, false if it was already in the set
+     */
+    public boolean add(T element) {
+        Object key = maskNull(element);
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        int i = indexFor(hash(key), mask);
+
+        // Walk the probe run until an empty slot is found
+        Object current;
+        while ((current = tab[i]) != null) {
+            if (same(current, key)) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[i] = key;
+
+        // Grow the table once it gets too full to keep probe runs short
+        if (++size > threshold) {
+            resize(tab.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the set contains a given element.
+     *
+     * Time Complexity is O(1) on average since only the probe run starting at the elements home
+     * slot has to be checked.
+     *
+     * @param element Element to check
+     * @return true if the element exists in the set, false otherwise
+     */
+    public boolean contains(T element) {
+        return findIndex(maskNull(element)) >= 0;
+    }
+
+    /**
+     * Removes an element from the set if it exists.
+     *
+     * The slot it leaves behind is filled by shifting later elements of the same probe run back
+     * (see deleteSlot()), so no tombstone has to be left in the table.
+     *
+     * Time Complexity is O(1) on average.
+     *
+     * @param element The element to remove
+     * @return true if the element was removed, false if it wasn't found
+     */
+    public boolean remove(T element) {
+        int index = findIndex(maskNull(element));
+        if (index < 0) {
+            return false;
+        }
+        deleteSlot(index);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements currently in the set
+     *
+     * @return Number of elements currently in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements from the set while keeping the current table capacity.
+     *
+     * Time complexity is O(capacity) since every slot of the table has to be cleared.
+     */
+    public void clear() {
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a new set holding every element that is in this set, the other set, or both.
+     *
+     * The elements of the larger set are inserted without any equality checks, then the smaller set
+     * is iterated and only its elements that the larger set does not contain are inserted.
+     *
+     * @param other The set to combine with this one
+     * @return A new set presized to hold both sets
+     */
+    public ImprovedCustomSet<T> union(ImprovedCustomSet<? extends T> other) {
+        ImprovedCustomSet<?> larger = size >= other.size ? this : other;
+        ImprovedCustomSet<?> smaller = larger == this ? other : this;
+        ImprovedCustomSet<T> result = new ImprovedCustomSet<>(size + other.size, loadFactor, strategy);
+        result.insertDistinct(larger.table);
+        result.insertDistinct(smaller.selectKeys(key -> larger.findIndex(key) < 0, parallelThreshold));
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements that are in both this set and the other set.
+     * The smaller set is iterated and the larger one probed.
+     *
+     * @param other The set to intersect with this one
+     * @return A new set presized to the size of the smaller set
+     */
+    public ImprovedCustomSet<T> intersection(ImprovedCustomSet<? extends T> other) {
+        ImprovedCustomSet<?> larger = size >= other.size ? this : other;
+        ImprovedCustomSet<?> smaller = larger == this ? other : this;
+        Object[] keys = smaller.selectKeys(key -> larger.findIndex(key) >= 0, parallelThreshold);
+        ImprovedCustomSet<T> result = new ImprovedCustomSet<>(keys.length, loadFactor, strategy);
+        result.insertDistinct(keys);
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements of this set that are not in the other set.
+     * Every element of this set has to be checked, so this set is iterated and the other set probed.
+     *
+     * @param other The set whose elements are left out
+     * @return A new set presized to the number of remaining elements
+     */
+    public ImprovedCustomSet<T> difference(ImprovedCustomSet<? extends T> other) {
+        Object[] keys = selectKeys(key -> other.findIndex(key) < 0, parallelThreshold);
+        ImprovedCustomSet<T> result = new ImprovedCustomSet<>(keys.length, loadFactor, strategy);
+        result.insertDistinct(keys);
+        return result;
+    }
+
+    /**
+     * Checks if every element of the other set is also in this set, stopping at the first one that is not.
+     * A larger set can never be contained in a smaller one, so that case returns right away.
+     *
+     * @param other The set to check
+     * @return true if this set contains all elements of the other set
+     */
+    public boolean containsAll(ImprovedCustomSet<? extends T> other) {
+        if (other.size > size) {
+            return false;
+        }
+        return !other.anyKey(key -> findIndex(key) < 0, parallelThreshold);
+    }
+
+    /**
+     * Removes every element of this set that is not in the other set.
+     * The kept elements are collected first and then re-inserted into the cleared table, which keeps
+     * its capacity, since removing slots while scanning the table would shift elements under the scan.
+     *
+     * @param other The set whose elements are kept
+     * @return true if this set changed
+     */
+    public boolean retainAll(ImprovedCustomSet<? extends T> other) {
+        Object[] kept = selectKeys(key -> other.findIndex(key) >= 0, parallelThreshold);
+        if (kept.length == size) {
+            return false;
+        }
+        clear();
+        insertDistinct(kept);
+        return true;
+    }
+
+    /**
+     * Returns the number of elements from which the set operations run in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the number of elements from which the set operations probe in parallel. The parallel path
+     * uses the common fork join pool and only pays off for large sets with cheap equals() methods.
+     *
+     * @param parallelThreshold The minimum number of iterated elements, Integer.MAX_VALUE to never run in parallel
+     * @throws IllegalArgumentException If parallelThreshold is not positive
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns a copy of the sets elements in an array, in table order.
+     *
+     * @return Object[] containing the elements of the set
+     */
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int j = 0;
+        for (Object key : table) {
+            if (key != null) {
+                result[j++] = unmaskNull(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Finds the slot that holds the given (already masked) key.
+     *
+     * @param key The key to look for
+     * @return The index of the slot holding the key, or -1 if it is not in the table
+     */
+    private int findIndex(Object key) {
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        int i = indexFor(hash(key), mask);
+        Object current;
+        while ((current = tab[i]) != null) {
+            if (same(current, key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the (masked) keys of the table that pass the test, probing in parallel once the
+     * set has at least threshold elements. The test must only read from other sets.
+     */
+    private Object[] selectKeys(Predicate<Object> test, int threshold) {
+        if (size >= threshold) {
+            return Arrays.stream(table).parallel().filter(key -> key != null && test.test(key)).toArray();
+        }
+        Object[] selected = new Object[size];
+        int count = 0;
+        for (Object key : table) {
+            if (key != null && test.test(key)) {
+                selected[count++] = key;
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Checks if any (masked) key of the table passes the test, stopping at the first one that does
+     */
+    private boolean anyKey(Predicate<Object> test, int threshold) {
+        if (size >= threshold) {
+            return Arrays.stream(table).parallel().anyMatch(key -> key != null && test.test(key));
+        }
+        for (Object key : table) {
+            if (key != null && test.test(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts masked keys that are known to be distinct and not in this set, skipping null slots.
+     * Since no key can be a duplicate, each one is placed in the first empty slot of its probe run
+     * without calling equals().
+     */
+    private void insertDistinct(Object[] keys) {
+        for (Object key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Object[] tab = table;
+            int mask = tab.length - 1;
+            int i = indexFor(hash(key), mask);
+            while (tab[i] != null) {
+                i = (i + 1) & mask;
+            }
+            tab[i] = key;
+            if (++size > threshold) {
+                resize(tab.length << 1);
+            }
+        }
+    }
+
+    /**
+     * Empties the slot at the given index using backward shift deletion.
+     *
+     * Every element after the gap in the same probe run is checked. If its home slot is not located
+     * cyclically between the gap and its current position, it can legally move back into the gap, and
+     * its old slot becomes the new gap. The walk stops at the first empty slot, which marks the end of
+     * the probe run.
+     *
+     * @param index The index of the slot to empty
+     */
+    private void deleteSlot(int index) {
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        int gap = index;
+        int i = (index + 1) & mask;
+        Object current;
+        while ((current = tab[i]) != null) {
+            int home = indexFor(hash(current), mask);
+            // Distance from the home slot to i is at least the distance from the gap to i,
+            // meaning the home slot is at or before the gap so the element can move into it
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                tab[gap] = current;
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[gap] = null;
+    }
+
+    /**
+     * Replaces the table with a new one of the given length and re-inserts every element.
+     *
+     * This operation is O(n) in time complexity.
+     *
+     * @param newCapacity The new table length, must be a power of two
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("Set cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        Object[] oldTable = table;
+        allocateTable(newCapacity);
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        for (Object key : oldTable) {
+            if (key != null) {
+                int i = indexFor(hash(key), mask);
+                while (tab[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                tab[i] = key;
+            }
+        }
+    }
+
+    /**
+     * Allocates an empty table with the given length and recomputes the resize threshold.
+     * The threshold is kept at least one below the length so the table always has an empty
+     * slot to terminate probe runs.
+     */
+    private void allocateTable(int capacity) {
+        table = new Object[capacity];
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /**
+     * Hashes a (masked) key with the sets strategy. The null sentinel is never passed to the strategy.
+     */
+    @SuppressWarnings("unchecked")
+    private int hash(Object key) {
+        return key == NULL_ELEMENT ? 0 : strategy.hash((T) key);
+    }
+
+    /**
+     * Checks if two (masked) keys are the same element according to the sets strategy
+     */
+    @SuppressWarnings("unchecked")
+    private boolean same(Object current, Object key) {
+        if (current == key) {
+            return true;
+        }
+        if (current == NULL_ELEMENT || key == NULL_ELEMENT) {
+            return false;
+        }
+        return strategy.equals((T) current, (T) key);
+    }
+
+    /**
+     * Maps a hash code to a slot index.
+     *
+     * The hash code is multiplied by the golden ratio constant and its high bits are folded into the low bits,
+     * so that keys whose hash codes differ only in their upper bits (or are sequential) still spread across the
+     * table instead of forming long probe runs.
+     */
+    private static int indexFor(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY || capacity < 0) {
+            return MAXIMUM_CAPACITY;
+        }
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(n, 2);
+    }
+
+    // Replaces a null element with the sentinel so it can be stored in the table
+    private static Object maskNull(Object element) {
+        return element == null ? NULL_ELEMENT : element;
+    }
+
+    // Turns the sentinel back into null when handing elements out
+    private static Object unmaskNull(Object key) {
+        return key == NULL_ELEMENT ? null : key;
+    }
+
 }
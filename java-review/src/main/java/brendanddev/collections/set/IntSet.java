@@ -0,0 +1,942 @@
+package brendanddev.collections.set;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A compressed set of int values, organized like a Roaring bitmap.
+ *
+ * CustomSet<Integer> and HashSet<Integer> box every value into a separate Integer object (16 bytes) and keep a
+ * reference to it (4 bytes), plus an Entry or Node object per element in the case of HashSet. Ids such as
+ * CustomObject.getId() are usually dense, so storing them as bits or as short runs is far more compact.
+ *
+ * Every value is split into its high 16 bits, which select a chunk of 65536 values, and its low 16 bits, which are
+ * stored in that chunk's container. The chunk keys are kept sorted in a char[], so finding a chunk is a binary search
+ * over at most 65536 keys. Each chunk uses whichever of three containers is smallest for its contents:
+ *
+ * - An array container stores up to 4096 low halves as a sorted char[] (2 bytes per value).
+ * - A bitmap container stores one bit for each of the 65536 possible values in a long[1024] (8 KB). This is smaller
+ *   than an array once a chunk holds more than 4096 values.
+ * - A run container stores sequences of consecutive values as (start, length) pairs (4 bytes per run), which makes
+ *   a chunk that holds a contiguous range of ids almost free.
+ *
+ * Array containers turn into bitmaps when they grow past 4096 values and bitmaps turn back into arrays when they
+ * shrink to 4096. Run containers are created by runOptimize() and turn into an array or bitmap as soon as adding or
+ * removing values fragments them so much that they are no longer the smallest encoding.
+ *
+ * and(), or() and andNot() work chunk by chunk. Chunks that only appear in one set are copied or skipped without
+ * looking at their values, and two bitmaps are combined 64 values at a time with single long operations.
+ *
+ * The high halves are stored with their sign bit flipped, so chunks, and therefore toArray() and forEach(), are in
+ * ascending signed order and negative values are supported.
+ */
+public class IntSet {
+
+    // The maximum number of values an array container holds before it becomes a bitmap
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    // The number of longs in a bitmap container, 65536 bits
+    private static final int BITMAP_WORDS = 1024;
+
+    // The default number of chunks the set has room for
+    private static final int DEFAULT_CHUNKS = 4;
+
+    // Sorted high halves of the chunks in use
+    private char[] keys;
+
+    // Container of each chunk, at the same index as its key
+    private Container[] containers;
+
+    // Number of chunks in use
+    private int chunks;
+
+    // Number of values in the set
+    private int size;
+
+
+    /**
+     * Constructs an empty IntSet
+     */
+    public IntSet() {
+        this(DEFAULT_CHUNKS);
+    }
+
+    /**
+     * Constructs an empty IntSet with room for the given number of chunks
+     */
+    private IntSet(int chunkCapacity) {
+        keys = new char[Math.max(chunkCapacity, 1)];
+        containers = new Container[keys.length];
+    }
+
+
+    /**
+     * Adds a value to the set if it is not already present.
+     *
+     * Time Complexity is O(log c) to find the chunk, where c is the number of chunks, plus O(1) for bitmaps
+     * and up to 4096 shifted values for arrays and runs.
+     *
+     * @param value The value to add
+     * @return true if the value was added, false if it was already in the set
+     */
+    public boolean add(int value) {
+        char high = highBits(value);
+        int index = findChunk(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int before = container.cardinality;
+        container = container.add((char) value);
+        containers[index] = container;
+        if (container.cardinality == before) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks if the set contains a given value.
+     *
+     * @param value The value to check
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        int index = findChunk(highBits(value));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Removes a value from the set if it exists. A chunk is dropped as soon as its last value is removed.
+     *
+     * @param value The value to remove
+     * @return true if the value was removed, false if it wasn't found
+     */
+    public boolean remove(int value) {
+        int index = findChunk(highBits(value));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality;
+        container = container.remove((char) value);
+        if (container.cardinality == before) {
+            return false;
+        }
+        size--;
+        if (container.cardinality == 0) {
+            removeChunk(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of values currently in the set
+     *
+     * @return Number of values currently in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the set is empty
+     *
+     * @return true if the set holds no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from the set, releasing every container
+     */
+    public void clear() {
+        Arrays.fill(containers, 0, chunks, null);
+        chunks = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a new set holding the values that are in both this set and the other set.
+     * Only chunks present in both sets are combined.
+     *
+     * @param other The set to intersect with this one
+     * @return A new set with the common values
+     */
+    public IntSet and(IntSet other) {
+        IntSet result = new IntSet(Math.min(chunks, other.chunks));
+        int i = 0;
+        int j = 0;
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding every value that is in this set, the other set, or both.
+     * Chunks present in only one of the sets are copied over without being combined.
+     *
+     * @param other The set to combine with this one
+     * @return A new set with the values of both sets
+     */
+    public IntSet or(IntSet other) {
+        IntSet result = new IntSet(chunks + other.chunks);
+        int i = 0;
+        int j = 0;
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || (i < chunks && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], containers[i].copy());
+                i++;
+            } else if (i == chunks || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the values of this set that are not in the other set.
+     * Chunks of this set that the other set does not have are copied over unchanged.
+     *
+     * @param other The set whose values are left out
+     * @return A new set with the remaining values
+     */
+    public IntSet andNot(IntSet other) {
+        IntSet result = new IntSet(chunks);
+        int j = 0;
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                result.appendChunk(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.appendChunk(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts every chunk whose values form few enough runs into a run container, and every run container
+     * that is not the smallest encoding back into an array or bitmap. Best called once a set is fully built.
+     *
+     * @return true if any container changed its encoding
+     */
+    public boolean runOptimize() {
+        boolean changed = false;
+        for (int i = 0; i < chunks; i++) {
+            Container optimized = containers[i].runOptimize();
+            if (optimized != containers[i]) {
+                containers[i] = optimized;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Passes every value of the set to the consumer, in ascending order, without boxing them
+     *
+     * @param action The action to run for each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunks; i++) {
+            containers[i].forEach(lowBase(keys[i]), action);
+        }
+    }
+
+    /**
+     * Returns the values of the set in ascending order
+     *
+     * @return int[] containing the values of the set
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int offset = 0;
+        for (int i = 0; i < chunks; i++) {
+            offset = containers[i].fill(lowBase(keys[i]), result, offset);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the number of bytes retained by the set, meaning the set object, its key and container
+     * arrays, and every container with its arrays. Unlike a set of Integers there are no per value objects,
+     * so this is the full cost of storing the values.
+     *
+     * @return The estimated retained size in bytes
+     */
+    public long estimatedRetainedBytes() {
+        // Two reference fields (keys, containers) and two int fields (chunks, size)
+        long bytes = ObjectLayout.objectSize(2, 2 * Integer.BYTES)
+                + ObjectLayout.arraySize(keys.length, Character.BYTES)
+                + ObjectLayout.referenceArraySize(containers.length);
+        for (int i = 0; i < chunks; i++) {
+            bytes += containers[i].estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns how many chunks use each kind of container, e.g. for checking what runOptimize() did
+     *
+     * @return A summary such as "array=2, bitmap=1, run=3"
+     */
+    public String containerSummary() {
+        int arrays = 0;
+        int bitmaps = 0;
+        int runs = 0;
+        for (int i = 0; i < chunks; i++) {
+            if (containers[i] instanceof ArrayContainer) {
+                arrays++;
+            } else if (containers[i] instanceof BitmapContainer) {
+                bitmaps++;
+            } else {
+                runs++;
+            }
+        }
+        return "array=" + arrays + ", bitmap=" + bitmaps + ", run=" + runs;
+    }
+
+    /**
+     * Returns a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Finds the chunk with the given high half
+     *
+     * @return The index of the chunk, or (-(insertion point) - 1) if there is none
+     */
+    private int findChunk(char high) {
+        return Arrays.binarySearch(keys, 0, chunks, high);
+    }
+
+    /**
+     * Inserts a chunk at the given index, shifting later chunks right and doubling the arrays when full
+     */
+    private void insertChunk(int index, char high, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks << 1);
+            containers = Arrays.copyOf(containers, chunks << 1);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunks - index);
+        System.arraycopy(containers, index, containers, index + 1, chunks - index);
+        keys[index] = high;
+        containers[index] = container;
+        chunks++;
+    }
+
+    /**
+     * Removes the chunk at the given index, shifting later chunks left
+     */
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+        containers[--chunks] = null;
+    }
+
+    /**
+     * Appends a chunk whose key is greater than every existing key, skipping empty containers.
+     * Used by the set operations, which produce chunks in ascending order.
+     */
+    private void appendChunk(char high, Container container) {
+        if (container.cardinality == 0) {
+            return;
+        }
+        insertChunk(chunks, high, container);
+        size += container.cardinality;
+    }
+
+    // The chunk key of a value, with the sign bit flipped so keys sort in signed order
+    private static char highBits(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    // The value whose low half is zero in the chunk with the given key
+    private static int lowBase(char high) {
+        return (high ^ 0x8000) << 16;
+    }
+
+    // Picks the smaller of an array or a bitmap container for the given bits
+    private static Container fromWords(long[] words, int cardinality) {
+        if (cardinality > ARRAY_MAX_SIZE) {
+            return new BitmapContainer(words, cardinality);
+        }
+        char[] values = new char[cardinality];
+        int j = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[j++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality);
+    }
+
+    // Sets the bits from start to end (inclusive) in a bitmap
+    private static void setRange(long[] words, int start, int end) {
+        int first = start >>> 6;
+        int last = end >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[w] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    // Counts the runs of consecutive set bits in a bitmap
+    private static int countRuns(long[] words) {
+        int runs = 0;
+        long previous = 0;
+        for (long word : words) {
+            // A run starts at every set bit whose lower neighbour (possibly in the previous word) is clear
+            runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+            previous = word;
+        }
+        return runs;
+    }
+
+    /**
+     * The values of one chunk. Every operation that may change the best encoding returns the container
+     * that should replace this one, which is either this container or a new one of another kind.
+     */
+    private abstract static class Container {
+
+        // Number of values in the container
+        int cardinality;
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract int fill(int base, int[] target, int offset);
+
+        abstract Container copy();
+
+        abstract Container runOptimize();
+
+        abstract long estimatedBytes();
+
+        /**
+         * Returns the containers values as a bitmap. Bitmap containers return their own words,
+         * which must not be modified.
+         */
+        abstract long[] words();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter(this, true);
+            }
+            long[] a = words();
+            long[] b = other.words();
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = a[w] & b[w];
+                count += Long.bitCount(result[w]);
+            }
+            return fromWords(result, count);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer
+                    && cardinality + other.cardinality <= ARRAY_MAX_SIZE) {
+                return ((ArrayContainer) this).merge((ArrayContainer) other);
+            }
+            long[] a = words();
+            long[] b = other.words();
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = a[w] | b[w];
+                count += Long.bitCount(result[w]);
+            }
+            return fromWords(result, count);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, false);
+            }
+            long[] a = words();
+            long[] b = other.words();
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result[w] = a[w] & ~b[w];
+                count += Long.bitCount(result[w]);
+            }
+            return fromWords(result, count);
+        }
+
+        // Turns this container into a run container if that takes fewer bytes than its current encoding
+        Container toRunsIfSmaller(int runs, long currentBytes) {
+            if (RunContainer.payloadBytes(runs) >= currentBytes) {
+                return this;
+            }
+            RunContainer result = new RunContainer(runs);
+            forEach(0, value -> result.appendValue((char) value));
+            return result;
+        }
+    }
+
+    /**
+     * Stores up to 4096 values as a sorted char[]
+     */
+    private static final class ArrayContainer extends Container {
+
+        // Sorted low halves, valid in [0, cardinality)
+        private char[] values;
+
+        ArrayContainer() {
+            values = new char[4];
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX_SIZE) {
+                return new BitmapContainer(words(), cardinality).add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, cardinality + (cardinality >> 1) + 1));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        int fill(int base, int[] target, int offset) {
+            for (int i = 0; i < cardinality; i++) {
+                target[offset++] = base | values[i];
+            }
+            return offset;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        Container runOptimize() {
+            int runs = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return toRunsIfSmaller(runs, (long) cardinality * Character.BYTES);
+        }
+
+        @Override
+        long estimatedBytes() {
+            // One reference field (values) and one int field (cardinality)
+            return ObjectLayout.objectSize(1, Integer.BYTES) + ObjectLayout.arraySize(values.length, Character.BYTES);
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        /**
+         * Keeps the values that the other container contains (keep == true) or does not contain (keep == false).
+         * The result can only be smaller than this container, so it stays an array.
+         */
+        Container filter(Container other, boolean keep) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        /**
+         * Merges two sorted arrays whose combined size fits in an array container
+         */
+        Container merge(ArrayContainer other) {
+            char[] result = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i];
+                char b = other.values[j];
+                if (a <= b) {
+                    result[count++] = a;
+                    i++;
+                    if (a == b) {
+                        j++;
+                    }
+                } else {
+                    result[count++] = b;
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                result[count++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                result[count++] = other.values[j++];
+            }
+            return new ArrayContainer(result, count);
+        }
+    }
+
+    /**
+     * Stores one bit for each of the 65536 possible values
+     */
+    private static final class BitmapContainer extends Container {
+
+        // Bit i is set if low half i is in the container
+        private final long[] words;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            if (after != before) {
+                words[low >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            if (after == before) {
+                return this;
+            }
+            words[low >>> 6] = after;
+            cardinality--;
+            // Back to an array once that is no larger than the bitmap
+            return cardinality <= ARRAY_MAX_SIZE ? fromWords(words, cardinality) : this;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | ((w << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int fill(int base, int[] target, int offset) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    target[offset++] = base | ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        Container runOptimize() {
+            return toRunsIfSmaller(countRuns(words), (long) BITMAP_WORDS * Long.BYTES);
+        }
+
+        @Override
+        long estimatedBytes() {
+            // One reference field (words) and one int field (cardinality)
+            return ObjectLayout.objectSize(1, Integer.BYTES) + ObjectLayout.arraySize(BITMAP_WORDS, Long.BYTES);
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+    }
+
+    /**
+     * Stores sequences of consecutive values as a start and a length, sorted by start.
+     * Lengths are stored minus one, so a single run can cover all 65536 values of a chunk.
+     */
+    private static final class RunContainer extends Container {
+
+        // First value of each run, valid in [0, runs)
+        private char[] starts;
+
+        // Number of values after the first in each run
+        private char[] lengths;
+
+        // Number of runs in use
+        private int runs;
+
+        RunContainer(int capacity) {
+            starts = new char[Math.max(capacity, 1)];
+            lengths = new char[starts.length];
+        }
+
+        // The number of bytes the run data takes, used to compare encodings
+        static long payloadBytes(int runs) {
+            return (long) runs * 2 * Character.BYTES;
+        }
+
+        // The last value of the given run
+        private int end(int run) {
+            return starts[run] + lengths[run];
+        }
+
+        /**
+         * Finds the last run that starts at or before the given value
+         *
+         * @return The index of the run, or -1 if every run starts after the value
+         */
+        private int floorRun(char low) {
+            int index = Arrays.binarySearch(starts, 0, runs, low);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        @Override
+        boolean contains(char low) {
+            int run = floorRun(low);
+            return run >= 0 && low <= end(run);
+        }
+
+        @Override
+        Container add(char low) {
+            int run = floorRun(low);
+            if (run >= 0 && low <= end(run)) {
+                return this;
+            }
+            boolean extendsPrevious = run >= 0 && end(run) + 1 == low;
+            boolean extendsNext = run + 1 < runs && low + 1 == starts[run + 1];
+            if (extendsPrevious && extendsNext) {
+                // The value closes the gap between two runs
+                lengths[run] = (char) (end(run + 1) - starts[run]);
+                deleteRun(run + 1);
+            } else if (extendsPrevious) {
+                lengths[run]++;
+            } else if (extendsNext) {
+                starts[run + 1] = low;
+                lengths[run + 1]++;
+            } else {
+                insertRun(run + 1, low, 0);
+            }
+            cardinality++;
+            return shrinkIfLarger();
+        }
+
+        @Override
+        Container remove(char low) {
+            int run = floorRun(low);
+            if (run < 0 || low > end(run)) {
+                return this;
+            }
+            int start = starts[run];
+            int end = end(run);
+            if (start == end) {
+                deleteRun(run);
+            } else if (low == start) {
+                starts[run]++;
+                lengths[run]--;
+            } else if (low == end) {
+                lengths[run]--;
+            } else {
+                // Split the run around the removed value
+                lengths[run] = (char) (low - 1 - start);
+                insertRun(run + 1, (char) (low + 1), end - low - 1);
+            }
+            cardinality--;
+            return cardinality == 0 ? this : shrinkIfLarger();
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int r = 0; r < runs; r++) {
+                for (int value = starts[r], end = end(r); value <= end; value++) {
+                    action.accept(base | value);
+                }
+            }
+        }
+
+        @Override
+        int fill(int base, int[] target, int offset) {
+            for (int r = 0; r < runs; r++) {
+                for (int value = starts[r], end = end(r); value <= end; value++) {
+                    target[offset++] = base | value;
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        Container copy() {
+            RunContainer result = new RunContainer(runs);
+            System.arraycopy(starts, 0, result.starts, 0, runs);
+            System.arraycopy(lengths, 0, result.lengths, 0, runs);
+            result.runs = runs;
+            result.cardinality = cardinality;
+            return result;
+        }
+
+        @Override
+        Container runOptimize() {
+            return shrinkIfLarger();
+        }
+
+        @Override
+        long estimatedBytes() {
+            // Two reference fields (starts, lengths) and two int fields (cardinality, runs)
+            return ObjectLayout.objectSize(2, 2 * Integer.BYTES)
+                    + 2 * ObjectLayout.arraySize(starts.length, Character.BYTES);
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int r = 0; r < runs; r++) {
+                setRange(words, starts[r], end(r));
+            }
+            return words;
+        }
+
+        /**
+         * Appends a value that is greater than every value in the container, used when building from a
+         * sorted sequence
+         */
+        void appendValue(char low) {
+            if (runs > 0 && end(runs - 1) + 1 == low) {
+                lengths[runs - 1]++;
+            } else {
+                insertRun(runs, low, 0);
+            }
+            cardinality++;
+        }
+
+        /**
+         * Converts to an array or bitmap once the runs take more bytes than the smaller of the two would
+         */
+        private Container shrinkIfLarger() {
+            long arrayOrBitmap = Math.min((long) cardinality * Character.BYTES, (long) BITMAP_WORDS * Long.BYTES);
+            if (payloadBytes(runs) <= arrayOrBitmap) {
+                return this;
+            }
+            return fromWords(words(), cardinality);
+        }
+
+        private void insertRun(int index, char start, int length) {
+            if (runs == starts.length) {
+                int newCapacity = runs + (runs >> 1) + 1;
+                starts = Arrays.copyOf(starts, newCapacity);
+                lengths = Arrays.copyOf(lengths, newCapacity);
+            }
+            System.arraycopy(starts, index, starts, index + 1, runs - index);
+            System.arraycopy(lengths, index, lengths, index + 1, runs - index);
+            starts[index] = start;
+            lengths[index] = (char) length;
+            runs++;
+        }
+
+        private void deleteRun(int index) {
+            System.arraycopy(starts, index + 1, starts, index, runs - index - 1);
+            System.arraycopy(lengths, index + 1, lengths, index, runs - index - 1);
+            runs--;
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package brendanddev.collections.set;
 
+import brendanddev.collections.ObjectLayout;
+import brendanddev.collections.customobjects.CustomObject;
 
 
 public class Main {
@@ -45,10 +47,128 @@ public class Main {
         System.out.println("\n====== Set Size ======");
         System.out.println("Size of the set: " + customSet.size());
 
+        // ImprovedCustomSet has the same add/contains/remove/size surface, so it can be
+        // swapped in wherever a CustomSet is used, but is backed by a hash table
+        System.out.println("\n====== ImprovedCustomSet ======");
+        ImprovedCustomSet<String> improvedSet = new ImprovedCustomSet<>();
+        for (Object element : customSet.toArray()) {
+            improvedSet.add((String) element);
+        }
+        improvedSet.add("Apple"); // Duplicate, should not be added
+        System.out.println("Contains Cherry? " + improvedSet.contains("Cherry"));
+        System.out.println("Elements: " + improvedSet + " (size " + improvedSet.size() + ")");
+
+        // Compare how long it takes to build each set, CustomSet does a linear scan on
+        // every add so its build time grows quadratically with the number of elements
+        System.out.println("\n====== Build Time Comparison ======");
+        final int NUM_ELEMENTS = 20_000;
+
+        long startTime = System.nanoTime();
+        CustomSet<Integer> linearSet = new CustomSet<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            linearSet.add(i);
+        }
+        long linearTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        ImprovedCustomSet<Integer> hashedSet = new ImprovedCustomSet<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            hashedSet.add(i);
+        }
+        long hashedTime = System.nanoTime() - startTime;
+
+        System.out.println("CustomSet build time: " + linearTime / 1_000_000.0 + " ms");
+        System.out.println("ImprovedCustomSet build time: " + hashedTime / 1_000_000.0 + " ms");
+
+        // SortedCustomSet keeps its elements ordered, so lookups use binary search and
+        // ranges can be copied out directly. Bulk loading with load() and sorting once
+        // in freeze() avoids shifting the array on every insert
+        System.out.println("\n====== SortedCustomSet ======");
+        SortedCustomSet<Integer> sortedSet = new SortedCustomSet<>();
+        for (int i = NUM_ELEMENTS - 1; i >= 0; i -= 3) {
+            sortedSet.load(i);
+            sortedSet.load(i); // Duplicates are removed by freeze()
+        }
+        sortedSet.freeze();
+        System.out.println("Size after freeze: " + sortedSet.size());
+        System.out.println("Contains 4? " + sortedSet.contains(4) + ", contains 3? " + sortedSet.contains(3));
+        System.out.println("subSet(0, 20): " + sortedSet.subSet(0, 20));
 
+        // CustomObject is Comparable (by value), so it can be stored directly
+        SortedCustomSet<CustomObject> objects = new SortedCustomSet<>();
+        objects.add(new CustomObject("Object A", 10, 1));
+        objects.add(new CustomObject("Object B", 20, 2));
+        objects.add(new CustomObject("Object C", 5, 3));
+        System.out.println("Lowest value: " + objects.first().getName() + ", highest value: " + objects.last().getName());
+
+        // ConcurrentCustomSet can be shared by several threads, each element's segment is locked separately
+        System.out.println("\n====== ConcurrentCustomSet ======");
+        ConcurrentCustomSet<Integer> sharedSet = new ConcurrentCustomSet<>();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            // Every thread offers the same keys, each key is only added once
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    sharedSet.add(i);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("Size after " + workers.length + " threads added the same " + NUM_ELEMENTS + " keys: " + sharedSet.size());
+
+        // IntSet stores dense int ids as bits or runs per 64K chunk instead of boxing them
+        compareIntSetMemory(NUM_ELEMENTS);
 
-        
 
     }
-    
+
+    /**
+     * Stores the same dense ids in a CustomSet<Integer>, a HashSet<Integer> and an IntSet and compares their
+     * estimated memory use.
+     *
+     * The boxed sets pay for an Integer object per value (values in the Integer cache are shared), and HashSet
+     * additionally pays for a HashMap.Node per value and a table that is at most 75% full. The IntSet estimate
+     * covers everything it allocates, since it stores no objects per value.
+     *
+     * @param count The number of ids to store
+     */
+    private static void compareIntSetMemory(int count) {
+        CustomSet<Integer> customSet = new CustomSet<>(count);
+        IntSet intSet = new IntSet();
+        for (int i = 0; i < count; i++) {
+            customSet.add(i);
+            intSet.add(i);
+        }
+
+        long integerObjectSize = ObjectLayout.objectSize(0, Integer.BYTES);
+        long boxes = (long) Math.max(0, count - 128) * integerObjectSize;
+        long customTotal = customSet.estimatedRetainedBytes() + boxes;
+
+        // HashSet wraps a HashMap, whose nodes hold hash, key, value and next
+        int table = Integer.highestOneBit(Math.max(1, (int) (count / 0.75f)) - 1) << 1;
+        long hashSetTotal = ObjectLayout.objectSize(1, 0)
+                + ObjectLayout.objectSize(4, 3 * Integer.BYTES + Float.BYTES)
+                + ObjectLayout.referenceArraySize(table)
+                + (long) count * ObjectLayout.objectSize(3, Integer.BYTES)
+                + boxes;
+
+        long bitmapTotal = intSet.estimatedRetainedBytes();
+        intSet.runOptimize();
+        long runTotal = intSet.estimatedRetainedBytes();
+
+        System.out.println("\n====== Memory for " + count + " dense ids ======");
+        System.out.println("CustomSet<Integer>: " + customTotal + " bytes (" + customTotal / count + " per id)");
+        System.out.println("HashSet<Integer>: " + hashSetTotal + " bytes (" + hashSetTotal / count + " per id)");
+        System.out.println("IntSet: " + bitmapTotal + " bytes, after runOptimize(): " + runTotal + " bytes ("
+                + intSet.containerSummary() + ")");
+    }
+
 }
+
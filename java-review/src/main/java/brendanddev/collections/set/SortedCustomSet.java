@@ -0,0 +1,401 @@
+package brendanddev.collections.set;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import brendanddev.collections.MemoryFootprint;
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * A variant of CustomSet that keeps its elements sorted in the internal array, so that lookups can use
+ * binary search instead of a linear scan.
+ *
+ * Since the array is always sorted, contains() only needs O(log n) comparisons, and the elements between two
+ * bounds form one contiguous block of the array, which makes range queries like subSet() a single array copy.
+ * Inserting or removing a single element still has to shift the elements after it, so add() and remove() are O(n).
+ *
+ * Many sets are built once and then only probed. For those, elements can be appended with load() without keeping
+ * the array sorted, and freeze() then sorts the array and removes duplicates in one O(n log n) pass, instead of paying
+ * O(n) for every single add(). Freezing also trims the array and makes the set read only. If a query is made while
+ * loaded elements are still unsorted, they are sorted at that point.
+ *
+ * Elements are ordered by their natural ordering (Comparable) or by a Comparator passed to the constructor. Like a
+ * TreeSet, two elements are considered duplicates when the ordering compares them as equal, which is not necessarily
+ * the same as equals(). For example CustomObject is ordered by its value field while its equals() compares ids, so in
+ * this set two CustomObjects with the same value count as the same element. Null elements are not permitted.
+ *
+ * The set is not thread safe, not even for readers only. While loaded elements are still unsorted, read methods
+ * such as contains(), size() and first() sort and compact the array in place, so two threads reading at the same
+ * time can corrupt it. A set must be confined to one thread, or guarded by a lock, until freeze() has been called.
+ * A frozen set is never modified again, so once it has been safely published (for example through a final or
+ * volatile field) any number of threads can read it.
+ */
+public class SortedCustomSet<T> implements MemoryFootprint {
+
+    // The default capacity of the sets internal array
+    private static final int DEFAULT_CAPACITY = 10;
+
+    // Internal array holding the elements, sorted in [0, sortedSize)
+    private Object[] elements;
+
+    // Current number of elements in the array, including unsorted loaded ones
+    private int size;
+
+    // Number of leading elements that are known to be sorted and distinct
+    private int sortedSize;
+
+    // The ordering of the set, or null for natural ordering
+    private final Comparator<? super T> comparator;
+
+    // Whether freeze() has been called, after which the set is read only
+    private boolean frozen;
+
+
+    /**
+     * Constructs an empty SortedCustomSet that orders its elements by their natural ordering.
+     * The elements must implement Comparable.
+     */
+    public SortedCustomSet() {
+        this(null);
+    }
+
+    /**
+     * Constructs an empty SortedCustomSet that orders its elements using the given comparator
+     *
+     * @param comparator The comparator used to order the elements, or null to use their natural ordering
+     */
+    public SortedCustomSet(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.elements = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Constructs a set holding a copy of the given range of an already sorted, distinct array
+     */
+    private SortedCustomSet(Comparator<? super T> comparator, Object[] source, int from, int to) {
+        this.comparator = comparator;
+        this.elements = Arrays.copyOfRange(source, from, to);
+        this.size = to - from;
+        this.sortedSize = size;
+    }
+
+
+    /**
+     * Adds an element to the set if it is not already present, keeping the array sorted.
+     *
+     * Binary search finds either the element or the position it belongs at, then the elements
+     * after that position are shifted right by one with System.arraycopy.
+     *
+     * Time Complexity is O(log n) to find the position plus O(n) to shift the elements.
+     *
+     * @param element Element to add
+     * @return true if the element was added, false if it was already in the set
+     * @throws UnsupportedOperationException If the set has been frozen
+     */
+    public boolean add(T element) {
+        checkNotFrozen();
+        Objects.requireNonNull(element, "SortedCustomSet does not permit null elements");
+        ensureSorted();
+        int index = search(element);
+        if (index >= 0) {
+            return false;
+        }
+        // binarySearch returns (-(insertion point) - 1) for missing elements
+        int insertAt = -(index + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, insertAt, elements, insertAt + 1, size - insertAt);
+        elements[insertAt] = element;
+        size++;
+        sortedSize = size;
+        return true;
+    }
+
+    /**
+     * Appends an element without keeping the array sorted or checking for duplicates.
+     * Meant for bulk loading a set before calling freeze(), which sorts and deduplicates
+     * everything that was loaded in one pass.
+     *
+     * Time Complexity is amortized O(1).
+     *
+     * @param element Element to append
+     * @throws UnsupportedOperationException If the set has been frozen
+     */
+    public void load(T element) {
+        checkNotFrozen();
+        Objects.requireNonNull(element, "SortedCustomSet does not permit null elements");
+        ensureCapacity(size + 1);
+        elements[size++] = element;
+    }
+
+    /**
+     * Sorts and deduplicates all loaded elements, trims the internal array to the size of the set,
+     * and makes the set read only. Any later call to add(), load(), remove() or clear() throws an
+     * UnsupportedOperationException.
+     *
+     * Time Complexity is O(n log n) for the sort and O(n) for removing duplicates.
+     *
+     * @return This set, to allow chaining
+     */
+    public SortedCustomSet<T> freeze() {
+        ensureSorted();
+        trimToSize();
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Returns whether freeze() has been called on this set
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks if the set contains a given element using binary search.
+     *
+     * Time Complexity is O(log n).
+     *
+     * @param element Element to check
+     * @return true if the element exists in the set, false otherwise
+     */
+    public boolean contains(T element) {
+        ensureSorted();
+        return element != null && search(element) >= 0;
+    }
+
+    /**
+     * Removes an element from the set if it exists, shifting the elements after it left by one.
+     *
+     * Time Complexity is O(log n) to find the element plus O(n) to shift the elements.
+     *
+     * @param element The element to remove
+     * @return true if the element was removed, false if it wasn't found
+     * @throws UnsupportedOperationException If the set has been frozen
+     */
+    public boolean remove(T element) {
+        checkNotFrozen();
+        ensureSorted();
+        if (element == null) {
+            return false;
+        }
+        int index = search(element);
+        if (index < 0) {
+            return false;
+        }
+        int numMoved = size - index - 1;
+        if (numMoved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, numMoved);
+        }
+        elements[--size] = null;
+        sortedSize = size;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements currently in the set
+     *
+     * @return Number of elements currently in the set
+     */
+    @Override
+    public int size() {
+        ensureSorted();
+        return size;
+    }
+
+    /**
+     * Removes all elements from the set
+     *
+     * @throws UnsupportedOperationException If the set has been frozen
+     */
+    public void clear() {
+        checkNotFrozen();
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        sortedSize = 0;
+    }
+
+    /**
+     * Returns the lowest element in the set
+     *
+     * @throws NoSuchElementException If the set is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T first() {
+        ensureSorted();
+        if (size == 0) {
+            throw new NoSuchElementException("Set is empty");
+        }
+        return (T) elements[0];
+    }
+
+    /**
+     * Returns the highest element in the set
+     *
+     * @throws NoSuchElementException If the set is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T last() {
+        ensureSorted();
+        if (size == 0) {
+            throw new NoSuchElementException("Set is empty");
+        }
+        return (T) elements[size - 1];
+    }
+
+    /**
+     * Returns a new set holding the elements from fromElement (inclusive) to toElement (exclusive).
+     *
+     * Both bounds are located with binary search and the elements between them are copied with a
+     * single array copy, so this is O(log n + k) for k returned elements. The result is a copy, not
+     * a view, and changes to it do not affect this set.
+     *
+     * @param fromElement Low endpoint (inclusive)
+     * @param toElement High endpoint (exclusive)
+     * @return A new, unfrozen set with the elements in the range
+     * @throws IllegalArgumentException If fromElement is greater than toElement
+     */
+    public SortedCustomSet<T> subSet(T fromElement, T toElement) {
+        if (compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        ensureSorted();
+        return range(lowerBound(fromElement), lowerBound(toElement));
+    }
+
+    /**
+     * Returns a new set holding the elements strictly less than toElement.
+     *
+     * @param toElement High endpoint (exclusive)
+     * @return A new, unfrozen set with the elements in the range
+     */
+    public SortedCustomSet<T> headSet(T toElement) {
+        ensureSorted();
+        return range(0, lowerBound(toElement));
+    }
+
+    /**
+     * Returns a new set holding the elements greater than or equal to fromElement.
+     *
+     * @param fromElement Low endpoint (inclusive)
+     * @return A new, unfrozen set with the elements in the range
+     */
+    public SortedCustomSet<T> tailSet(T fromElement) {
+        ensureSorted();
+        return range(lowerBound(fromElement), size);
+    }
+
+    /**
+     * Returns a copy of the sets elements in an array, in sorted order
+     *
+     * @return Object[] containing the elements of the set
+     */
+    public Object[] toArray() {
+        ensureSorted();
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Returns a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    @Override
+    public int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    public long estimatedRetainedBytes() {
+        // Two reference fields (elements, comparator), two ints (size, sortedSize) and a boolean (frozen)
+        return ObjectLayout.objectSize(2, 2 * Integer.BYTES + 1) + ObjectLayout.referenceArraySize(elements.length);
+    }
+
+    /**
+     * Shrinks the internal array to the current size of the set
+     */
+    public void trimToSize() {
+        ensureSorted();
+        if (size < elements.length) {
+            elements = Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * Sorts any elements appended by load() into place and removes duplicates.
+     *
+     * The whole used part of the array is sorted, then a single pass keeps only the first of each run
+     * of elements that compare as equal. This runs once after a bulk load rather than on every query.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void ensureSorted() {
+        if (sortedSize == size) {
+            return;
+        }
+        Arrays.sort(elements, 0, size, (Comparator) comparator);
+
+        // Compact the array, skipping every element equal to the last one kept
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (write == 0 || compare((T) elements[write - 1], (T) elements[read]) != 0) {
+                elements[write++] = elements[read];
+            }
+        }
+        Arrays.fill(elements, write, size, null);
+        size = write;
+        sortedSize = write;
+    }
+
+    /**
+     * Creates a new set from the sorted elements in [from, to)
+     */
+    private SortedCustomSet<T> range(int from, int to) {
+        return new SortedCustomSet<>(comparator, elements, from, Math.max(from, to));
+    }
+
+    /**
+     * Returns the index of the first element that is greater than or equal to the given one
+     */
+    private int lowerBound(T element) {
+        int index = search(element);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * Performs a binary search over the sorted elements using the sets ordering
+     *
+     * @return The index of the element, or (-(insertion point) - 1) if it is not present
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int search(T element) {
+        return Arrays.binarySearch(elements, 0, size, element, (Comparator) comparator);
+    }
+
+    /**
+     * Compares two elements using the comparator, or their natural ordering if there is none
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(T a, T b) {
+        return comparator != null ? comparator.compare(a, b) : ((Comparable<? super T>) a).compareTo(b);
+    }
+
+    /**
+     * Ensures the internal array can hold at least minCapacity elements, doubling it when needed
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length * 2)));
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Set has been frozen");
+        }
+    }
+
+}
@@ -1,5 +1,8 @@
 package brendanddev.oop.abstractclasses;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class Main {
     public static void main(String[] args) {
         
@@ -20,6 +23,13 @@ public class Main {
         shape.displayColor();
         System.out.println("Shape reference to Rectangle area: " + shape.getArea());
 
+        // Many rectangles stored column by column, with their areas summed in a single loop
+        List<Rectangle> rectangles = Arrays.asList(rectangle, new Rectangle("Blue", 2, 3), new Rectangle("Red", 1, 4));
+        ShapeBatch batch = ShapeBatch.of(rectangles);
+        System.out.println("Total area of " + batch.size() + " rectangles: " + batch.totalArea());
+        System.out.println("Total area of red rectangles: " + batch.totalArea("Red"));
+        System.out.println("Total area of rectangles of at least 5: " + batch.totalAreaAtLeast(5));
+
     }
     
 }
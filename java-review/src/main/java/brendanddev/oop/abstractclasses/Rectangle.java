@@ -20,6 +20,14 @@ public class Rectangle extends Shape {
         this.height = height;
     }
 
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
     /**
      * Implementation of abstract method getArea() for rectangle.
      */
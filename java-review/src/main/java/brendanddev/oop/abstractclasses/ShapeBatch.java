@@ -0,0 +1,324 @@
+package brendanddev.oop.abstractclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of shapes of one kind stored column by column (a struct of arrays), for computing areas in bulk.
+ *
+ * A List<Shape> holds a reference to every shape, and summing their areas calls getArea() on each one. Every call
+ * follows a reference to a separate object on the heap, and when the list mixes several subclasses of Shape the call
+ * site sees many receiver types, so the JIT can no longer inline getArea() and has to dispatch through the vtable
+ * for every element. This class keeps the widths and heights of all shapes in two double[] columns instead, so a
+ * total is a single loop over two arrays that are read front to back, with no calls and no pointer chasing, and
+ * the CPU prefetcher can stream them from memory.
+ *
+ * A batch holds a single kind of shape, whose area is 'areaFactor * width * height': 1 for rectangles, 0.5 for
+ * right triangles, PI / 4 for ellipses. The factor is applied once to a total rather than to every element. Shapes
+ * of different kinds go into one batch per kind.
+ *
+ * Colors are dictionary encoded: every distinct color is stored once and each shape keeps the int id of its color
+ * in a third column, so filtering by color compares ints instead of calling String.equals() per shape.
+ *
+ * The loops sum into four independent partial sums. Floating point addition is not associative, so the JIT may
+ * not reorder a single running sum and every addition has to wait for the previous one. Four sums let four
+ * additions run at the same time. The result can therefore differ from a sequential sum in its last bits.
+ * The jdk.incubator.vector API could process several elements per instruction, but it needs Java 16 or later
+ * with --add-modules, while this project compiles for Java 8.
+ */
+public class ShapeBatch {
+
+    // Define default initial capacity if none specified
+    private static final int DEFAULT_CAPACITY = 10;
+
+    // The bits of positive infinity, every larger long with a clear sign bit is a NaN
+    private static final long INFINITY_BITS = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    // The area of a shape of this kind is areaFactor * width * height
+    private final double areaFactor;
+
+    // The columns, the shape at index i is (colorIds[i], widths[i], heights[i])
+    private double[] widths;
+    private double[] heights;
+    private int[] colorIds;
+
+    // The distinct colors, a color id is an index into this list
+    private final List<String> colors = new ArrayList<>();
+    private final Map<String, Integer> colorIdsByName = new HashMap<>();
+
+    // Current number of shapes in the batch
+    private int size;
+
+    /**
+     * Constructs an empty batch of shapes whose area is areaFactor * width * height
+     *
+     * @param areaFactor The factor of the area formula, e.g. 1 for rectangles
+     * @throws IllegalArgumentException If areaFactor is not positive
+     */
+    public ShapeBatch(double areaFactor) {
+        this(areaFactor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty batch with room for the given number of shapes
+     *
+     * @param areaFactor The factor of the area formula, e.g. 1 for rectangles
+     * @param initialCapacity The number of shapes the batch can hold before it grows
+     * @throws IllegalArgumentException If areaFactor or initialCapacity is not positive
+     */
+    public ShapeBatch(double areaFactor, int initialCapacity) {
+        if (!(areaFactor > 0)) {
+            throw new IllegalArgumentException("Area factor must be greater than zero");
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be greater than zero");
+        }
+        this.areaFactor = areaFactor;
+        widths = new double[initialCapacity];
+        heights = new double[initialCapacity];
+        colorIds = new int[initialCapacity];
+    }
+
+    /**
+     * Returns an empty batch of rectangles
+     */
+    public static ShapeBatch rectangles() {
+        return new ShapeBatch(1.0);
+    }
+
+    /**
+     * Returns a batch holding the given rectangles, in iteration order
+     */
+    public static ShapeBatch of(Collection<? extends Rectangle> rectangles) {
+        ShapeBatch batch = new ShapeBatch(1.0, Math.max(rectangles.size(), 1));
+        for (Rectangle rectangle : rectangles) {
+            batch.add(rectangle.color, rectangle.getWidth(), rectangle.getHeight());
+        }
+        return batch;
+    }
+
+    /**
+     * Ensures that the columns can hold at least minCapacity shapes, increasing the capacity by 50%
+     * (or to minCapacity if that is larger) when a resize is needed.
+     *
+     * @param minCapacity The minimum capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > widths.length) {
+            int newCapacity = widths.length + (widths.length / 2);
+            if (newCapacity < minCapacity) {
+                newCapacity = minCapacity;
+            }
+            widths = Arrays.copyOf(widths, newCapacity);
+            heights = Arrays.copyOf(heights, newCapacity);
+            colorIds = Arrays.copyOf(colorIds, newCapacity);
+        }
+    }
+
+    /**
+     * Adds a shape to the end of the batch, resizing if necessary
+     *
+     * @param color The color of the shape, may be null
+     * @param width The width of the shape
+     * @param height The height of the shape
+     */
+    public void add(String color, double width, double height) {
+        ensureCapacity(size + 1);
+        colorIds[size] = colorIdOf(color);
+        widths[size] = width;
+        heights[size] = height;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getAreaFactor() {
+        return areaFactor;
+    }
+
+    public double getWidth(int index) {
+        checkIndex(index);
+        return widths[index];
+    }
+
+    public double getHeight(int index) {
+        checkIndex(index);
+        return heights[index];
+    }
+
+    public String getColor(int index) {
+        checkIndex(index);
+        return colors.get(colorIds[index]);
+    }
+
+    /**
+     * Returns the area of the shape at the given index
+     */
+    public double getArea(int index) {
+        checkIndex(index);
+        return areaFactor * widths[index] * heights[index];
+    }
+
+    /**
+     * Returns the sum of the areas of all shapes
+     */
+    public double totalArea() {
+        double[] w = widths;
+        double[] h = heights;
+        int n = size;
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += w[i] * h[i];
+            s1 += w[i + 1] * h[i + 1];
+            s2 += w[i + 2] * h[i + 2];
+            s3 += w[i + 3] * h[i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += w[i] * h[i];
+        }
+        return areaFactor * ((s0 + s1) + (s2 + s3));
+    }
+
+    /**
+     * Returns the sum of the areas of the shapes with the given color.
+     *
+     * The color is looked up once, then the loop only compares color ids. Shapes of other colors are not skipped
+     * with an if or a ?: select, which the JIT compiles into conditional jumps that the CPU mispredicts about half
+     * the time when colors are mixed at random. Instead the bits of every area are ANDed with a mask that is all
+     * ones for a match and all zeros otherwise, so another color adds exactly +0.0. Multiplying by 1 or 0 would be
+     * shorter, but 'NaN * 0' and 'Infinity * 0' are NaN, so a single excluded shape with a NaN dimension or an
+     * area that overflows would turn the whole total into NaN.
+     *
+     * @param color The color to filter by, may be null
+     */
+    public double totalArea(String color) {
+        Integer id = colorIdsByName.get(color);
+        if (id == null) {
+            return 0;
+        }
+        int target = id;
+        double[] w = widths;
+        double[] h = heights;
+        int[] c = colorIds;
+        int n = size;
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += select(w[i] * h[i], matchMask(c[i], target));
+            s1 += select(w[i + 1] * h[i + 1], matchMask(c[i + 1], target));
+            s2 += select(w[i + 2] * h[i + 2], matchMask(c[i + 2], target));
+            s3 += select(w[i + 3] * h[i + 3], matchMask(c[i + 3], target));
+        }
+        for (; i < n; i++) {
+            s0 += select(w[i] * h[i], matchMask(c[i], target));
+        }
+        return areaFactor * ((s0 + s1) + (s2 + s3));
+    }
+
+    /**
+     * Returns the sum of the areas of the shapes whose area is at least minArea, using the same
+     * branch free selection as totalArea(String). A shape whose area is NaN is never at least minArea,
+     * so it is left out of the total like any other shape below the threshold.
+     */
+    public double totalAreaAtLeast(double minArea) {
+        double f = areaFactor;
+        double[] w = widths;
+        double[] h = heights;
+        int n = size;
+        if (Double.isNaN(minArea) || Double.isInfinite(minArea)) {
+            // atLeastMask() needs a finite threshold, these rare cases take a plain loop
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                double a = f * w[i] * h[i];
+                if (a >= minArea) {
+                    sum += a;
+                }
+            }
+            return sum;
+        }
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            double a0 = f * w[i] * h[i];
+            double a1 = f * w[i + 1] * h[i + 1];
+            double a2 = f * w[i + 2] * h[i + 2];
+            double a3 = f * w[i + 3] * h[i + 3];
+            s0 += select(a0, atLeastMask(a0, minArea));
+            s1 += select(a1, atLeastMask(a1, minArea));
+            s2 += select(a2, atLeastMask(a2, minArea));
+            s3 += select(a3, atLeastMask(a3, minArea));
+        }
+        for (; i < n; i++) {
+            double a = f * w[i] * h[i];
+            s0 += select(a, atLeastMask(a, minArea));
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Shrinks the columns to the current number of shapes
+     */
+    public void trimToSize() {
+        if (size < widths.length) {
+            widths = Arrays.copyOf(widths, size);
+            heights = Arrays.copyOf(heights, size);
+            colorIds = Arrays.copyOf(colorIds, size);
+        }
+    }
+
+    /**
+     * Returns value if mask is all ones and +0.0 if mask is zero, whatever value is, including NaN and infinity
+     */
+    private static double select(double value, long mask) {
+        return Double.longBitsToDouble(Double.doubleToRawLongBits(value) & mask);
+    }
+
+    /**
+     * Returns a mask of all ones if the two color ids are equal and zero otherwise, without a branch. Both ids are
+     * not negative, so 'a ^ b' is 0 only when they are equal, and subtracting 1 sets the sign bit only in that case.
+     * The arithmetic shift copies the sign bit into every bit, and the cast to long keeps it in the upper half.
+     */
+    private static long matchMask(int a, int b) {
+        return ((a ^ b) - 1) >> 31;
+    }
+
+    /**
+     * Returns a mask of all ones if a is at least b and zero otherwise, without a branch. b must be finite.
+     *
+     * For a finite b the difference 'a - b' has its sign bit clear exactly when a is at least b, except when it
+     * is NaN because a is. As a long, a difference with a clear sign bit that is not NaN lies between 0 and the
+     * bits of positive infinity. Both 'bits' and 'INFINITY_BITS - bits' are then not negative, and ORing them
+     * leaves the sign bit clear only in that case. A -0.0 area compared to a threshold of 0 is left out, which
+     * does not change the total.
+     */
+    private static long atLeastMask(double a, double b) {
+        long bits = Double.doubleToRawLongBits(a - b);
+        return ~((bits | (INFINITY_BITS - bits)) >> 63);
+    }
+
+    /**
+     * Returns the id of a color, adding it to the dictionary if it is new
+     */
+    private int colorIdOf(String color) {
+        Integer id = colorIdsByName.get(color);
+        if (id == null) {
+            id = colors.size();
+            colors.add(color);
+            colorIdsByName.put(color, id);
+        }
+        return id;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
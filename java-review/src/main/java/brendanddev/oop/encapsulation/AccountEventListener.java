@@ -0,0 +1,68 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.PrintStream;
+import java.util.Objects;
+
+/**
+ * Receives the deposits, withdrawals and rejected transactions of a BankAccount.
+ *
+ * BankAccount used to print a message for every transaction with System.out.println(). Building the message
+ * concatenates Strings on every call, and println() takes the lock of System.out and writes to the terminal
+ * before the deposit returns, so every thread that deposits at the same time waits on that one lock. The account
+ * now hands each transaction to a listener instead, and the listener decides what to do with it:
+ *
+ * - noOp() ignores every event. It is the default, so a deposit costs no more than the addition itself.
+ * - console() prints the same messages BankAccount used to print, synchronously.
+ * - AsyncAccountEventSink queues events and prints them in batches on a background thread.
+ *
+ * The event is passed as primitives and enums rather than a message String, so nothing is allocated unless the
+ * listener decides to keep or print the event.
+ */
+@FunctionalInterface
+public interface AccountEventListener {
+
+    /**
+     * The kind of transaction an event describes
+     */
+    enum Operation {
+        /** The initial balance given to the constructor */
+        OPEN,
+        DEPOSIT,
+        WITHDRAW
+    }
+
+    /**
+     * Called after a transaction was applied or rejected
+     *
+     * @param operation The kind of transaction
+     * @param accountId The id of the account
+     * @param amount The amount of the transaction
+     * @param balance The balance after the transaction
+     * @param result SUCCESS, or why the transaction was rejected
+     */
+    void onEvent(Operation operation, int accountId, double amount, double balance, TransactionResult result);
+
+    /**
+     * Returns the listener that ignores every event, which is the default of every BankAccount
+     */
+    static AccountEventListener noOp() {
+        return Listeners.NO_OP;
+    }
+
+    /**
+     * Returns a listener that prints the messages BankAccount used to print to System.out
+     */
+    static AccountEventListener console() {
+        return Listeners.CONSOLE;
+    }
+
+    /**
+     * Returns a listener that prints the messages BankAccount used to print to the given stream
+     *
+     * @param out The stream to print to
+     */
+    static AccountEventListener console(PrintStream out) {
+        Objects.requireNonNull(out, "out");
+        return (operation, accountId, amount, balance, result) -> Listeners.print(out, operation, amount, result);
+    }
+}
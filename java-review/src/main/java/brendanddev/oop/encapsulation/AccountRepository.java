@@ -0,0 +1,525 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import brendanddev.collections.map.CustomMap;
+import brendanddev.collections.map.IntObjectMap;
+
+/**
+ * An in-memory store of ConcurrentBankAccounts, indexed by accountId and by accountNumber, that many threads can
+ * use at the same time.
+ *
+ * Finding an account in a List means scanning it, which takes O(n) per lookup and is far too slow for millions of
+ * accounts. This repository keeps two hash indexes instead: a primary IntObjectMap from accountId to account, which
+ * stores the ids as primitive ints, and a secondary CustomMap from accountNumber to the same account. Both lookups
+ * are O(1).
+ *
+ * For concurrent access the repository is split into shards, like the segments of ConcurrentCustomSet. Every shard
+ * holds a part of both indexes and has its own read-write lock. An account's id decides the shard of its id entry,
+ * and its number decides the shard of its number entry, so one account is usually indexed in two different shards.
+ * Lookups only take the read lock of one shard, so any number of threads can look up accounts at once, even in the
+ * same shard. add() and remove() take the write locks of both shards of the account, always the shard with the
+ * lower index first, for the same reason TransferEngine locks accounts in accountId order: two threads can never
+ * wait for each other's lock.
+ *
+ * Accounts can be bulk loaded from CSV, and the whole repository can be written to a compact binary snapshot and
+ * restored from it on restart without parsing any text. Snapshots, size() and forEach() are weakly consistent:
+ * they see each shard at one point in time, but not all shards at the same time.
+ *
+ * The repository holds ConcurrentBankAccount rather than BankAccount, because the id and number of a BankAccount can
+ * be changed through its setters, which would leave the account under stale keys in the indexes.
+ */
+public class AccountRepository {
+
+    // The default number of shards
+    private static final int DEFAULT_SHARD_COUNT = 16;
+
+    // The largest number of shards allowed
+    private static final int MAX_SHARDS = 1 << 16;
+
+    // Identifies snapshot files written by this class, "ACR1"
+    private static final int SNAPSHOT_MAGIC = 0x41435231;
+
+    // Flags of a snapshot record, set when the holder name is null and when the bank name is not the default
+    private static final int NULL_HOLDER = 1;
+    private static final int CUSTOM_BANK = 2;
+
+    // The longest string a snapshot can hold, its length is stored in 16 bits
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    // The smallest record a snapshot can hold: id, balance, flags and an empty account number
+    private static final int MIN_RECORD_BYTES = Integer.BYTES + Long.BYTES + 1 + Short.BYTES;
+
+    // The bank name every new account starts with, which snapshots do not repeat for every record
+    private static final String DEFAULT_BANK_NAME = new ConcurrentBankAccount(0, "", null).bankName;
+
+    // The shards, every account is in exactly one id index and one number index
+    private final Shard[] shards;
+
+    // Number of bits the spread hash is shifted right to get a shard index
+    private final int shardShift;
+
+    // Number of accounts in the repository
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * A part of both indexes, guarded by its own lock
+     */
+    private static final class Shard {
+        final IntObjectMap<ConcurrentBankAccount> byId;
+        final CustomMap<String, ConcurrentBankAccount> byNumber;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Shard(int expectedSize) {
+            byId = new IntObjectMap<>(expectedSize);
+            byNumber = new CustomMap<>(expectedSize);
+        }
+    }
+
+    /**
+     * Constructs an empty repository with the default number of shards
+     */
+    public AccountRepository() {
+        this(DEFAULT_SHARD_COUNT, 0);
+    }
+
+    /**
+     * Constructs an empty repository with at least the given number of shards, sized so that the expected number of
+     * accounts fit without resizing any index
+     *
+     * @param shardCount The number of threads expected to add accounts at the same time, rounded up to a power of two
+     * @param expectedSize The number of accounts the repository should hold without resizing
+     * @throws IllegalArgumentException If shardCount is not positive or expectedSize is negative
+     */
+    public AccountRepository(int shardCount, int expectedSize) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than zero");
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        int size = shardCount >= MAX_SHARDS ? MAX_SHARDS : Integer.highestOneBit(Math.max(shardCount, 2) - 1) << 1;
+        this.shardShift = 32 - Integer.numberOfTrailingZeros(size);
+
+        // Leave some headroom so an uneven split does not make the fuller shards resize right away
+        int perShard = expectedSize / size;
+        perShard += perShard / 4 + 1;
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(perShard);
+        }
+    }
+
+    /**
+     * Adds an account, unless its id or its number is already taken by another account
+     *
+     * @param account The account to add
+     * @return true if the account was added, false if its id or number is already in the repository
+     * @throws NullPointerException If the account or its number is null
+     */
+    public boolean add(ConcurrentBankAccount account) {
+        String number = Objects.requireNonNull(account.getAccountNumber(), "accountNumber");
+        int id = account.getAccountId();
+        int idIndex = idShardIndex(id);
+        int numberIndex = numberShardIndex(number);
+        Shard idShard = shards[idIndex];
+        Shard numberShard = shards[numberIndex];
+        lockBoth(idIndex, numberIndex);
+        try {
+            if (idShard.byId.containsKey(id) || numberShard.byNumber.containsKey(number)) {
+                return false;
+            }
+            idShard.byId.put(id, account);
+            numberShard.byNumber.put(number, account);
+        } finally {
+            unlockBoth(idIndex, numberIndex);
+        }
+        count.increment();
+        return true;
+    }
+
+    /**
+     * Returns the account with the given id, or null if there is none.
+     * Only the read lock of one shard is taken.
+     */
+    public ConcurrentBankAccount findById(int accountId) {
+        Shard shard = shards[idShardIndex(accountId)];
+        Lock lock = shard.lock.readLock();
+        lock.lock();
+        try {
+            return shard.byId.get(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the account with the given number, or null if there is none.
+     * Only the read lock of one shard is taken.
+     */
+    public ConcurrentBankAccount findByAccountNumber(String accountNumber) {
+        if (accountNumber == null) {
+            return null;
+        }
+        Shard shard = shards[numberShardIndex(accountNumber)];
+        Lock lock = shard.lock.readLock();
+        lock.lock();
+        try {
+            return shard.byNumber.get(accountNumber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the account with the given id from both indexes
+     *
+     * @return The removed account, or null if there was none
+     */
+    public ConcurrentBankAccount remove(int accountId) {
+        int idIndex = idShardIndex(accountId);
+        Shard idShard = shards[idIndex];
+        while (true) {
+            ConcurrentBankAccount account = findById(accountId);
+            if (account == null) {
+                return null;
+            }
+            // The number shard is only known once the account is found, so check it is still there under both locks
+            int numberIndex = numberShardIndex(account.getAccountNumber());
+            Shard numberShard = shards[numberIndex];
+            lockBoth(idIndex, numberIndex);
+            try {
+                if (idShard.byId.get(accountId) != account) {
+                    continue;
+                }
+                idShard.byId.remove(accountId);
+                numberShard.byNumber.remove(account.getAccountNumber());
+            } finally {
+                unlockBoth(idIndex, numberIndex);
+            }
+            count.decrement();
+            return account;
+        }
+    }
+
+    /**
+     * Returns the number of accounts. While other threads are adding or removing accounts this is only an estimate.
+     */
+    public int size() {
+        long sum = count.sum();
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(0, sum);
+    }
+
+    public boolean isEmpty() {
+        return count.sum() <= 0;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Performs the action for every account, one shard at a time.
+     *
+     * The accounts of a shard are copied under its read lock and the action runs without holding any lock, so the
+     * action may use the repository.
+     */
+    public void forEach(Consumer<? super ConcurrentBankAccount> action) {
+        Objects.requireNonNull(action, "action");
+        for (Shard shard : shards) {
+            for (ConcurrentBankAccount account : copyAccounts(shard)) {
+                action.accept(account);
+            }
+        }
+    }
+
+    /**
+     * Adds the accounts of a CSV file, one account per line.
+     *
+     * Every line is 'accountId,accountNumber,accountHolderName,balanceCents', e.g. '42,ACC-42,Alice Smith,1050'.
+     * The holder name is everything between the second and the last comma, so it may contain commas itself. Blank
+     * lines are skipped, and so is a first line starting with 'accountId', which is taken as a header.
+     *
+     * The fields are found with indexOf() rather than String.split(), which would compile a regular expression
+     * and allocate an array for every line.
+     *
+     * @param file The UTF-8 encoded CSV file
+     * @return The number of accounts added
+     * @throws IOException If the file cannot be read
+     * @throws IllegalArgumentException If a line is malformed, or its id or number is already taken. The
+     *                                  accounts of the lines before it stay in the repository.
+     */
+    public int loadCsv(Path file) throws IOException {
+        int added = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || (lineNumber == 1 && line.startsWith("accountId"))) {
+                    continue;
+                }
+                ConcurrentBankAccount account = parseCsvLine(line, lineNumber);
+                if (!add(account)) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": account id " + account.getAccountId()
+                            + " or number " + account.getAccountNumber() + " already exists");
+                }
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Writes every account to a binary snapshot file, replacing the file if it exists.
+     *
+     * The file starts with a magic number and the number of shards, followed by one block per shard: the number of
+     * accounts in it, then for every account its id and balance in cents as fixed width numbers, a flags byte, and
+     * its number, holder name and bank name as UTF-8 prefixed by a 16-bit length. The holder name is left out when it is null
+     * and the bank name when it is the default, so a typical account takes about 40 bytes. Each block is written
+     * under the read lock of its shard.
+     *
+     * The snapshot is written to a temporary file next to the target, forced to disk and then moved over the target
+     * in one atomic rename, so a crash or a failed write leaves the previous snapshot intact instead of a partial one.
+     *
+     * @param file The file to write
+     * @return The number of accounts written
+     * @throws IOException If the file cannot be written
+     */
+    public int snapshot(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+        int written = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(shards.length);
+                for (Shard shard : shards) {
+                    List<ConcurrentBankAccount> accounts = copyAccounts(shard);
+                    out.writeInt(accounts.size());
+                    for (ConcurrentBankAccount account : accounts) {
+                        writeAccount(out, account);
+                    }
+                    written += accounts.size();
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return written;
+    }
+
+    /**
+     * Adds the accounts of a snapshot written by snapshot(). The snapshot may come from a repository with a
+     * different number of shards.
+     *
+     * The file is read into one heap buffer with a single channel read loop and decoded with the relative get
+     * methods of ByteBuffer. Reading through a DataInputStream instead would go through a synchronized read() of the
+     * underlying stream for every byte of every number. The block and account counts are checked against the bytes
+     * left in the buffer before they are used, so a corrupt count fails fast instead of looping over garbage.
+     *
+     * @param file The snapshot file
+     * @return The number of accounts added
+     * @throws IOException If the file cannot be read, or is not a complete snapshot
+     * @throws IllegalArgumentException If an account id or number in the snapshot is already taken
+     */
+    public int restore(Path file) throws IOException {
+        int added = 0;
+        try {
+            ByteBuffer in = readFully(file);
+            if (in.remaining() < Integer.BYTES || in.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an account snapshot: " + file);
+            }
+            // Holds the bytes of one string while it is decoded
+            byte[] scratch = new byte[MAX_STRING_BYTES];
+            int blocks = in.getInt();
+            if (blocks < 0 || blocks > in.remaining() / Integer.BYTES) {
+                throw new IOException("Snapshot claims " + blocks + " blocks in " + in.remaining() + " bytes: " + file);
+            }
+            for (int block = 0; block < blocks; block++) {
+                int accounts = in.getInt();
+                if (accounts < 0 || accounts > in.remaining() / MIN_RECORD_BYTES) {
+                    throw new IOException("Snapshot block " + block + " claims " + accounts + " accounts in "
+                            + in.remaining() + " bytes: " + file);
+                }
+                for (int i = 0; i < accounts; i++) {
+                    ConcurrentBankAccount account = readAccount(in, scratch);
+                    if (!add(account)) {
+                        throw new IllegalArgumentException("Account id " + account.getAccountId()
+                                + " or number " + account.getAccountNumber() + " already exists");
+                    }
+                    added++;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Snapshot is truncated: " + file, e);
+        }
+        return added;
+    }
+
+    /**
+     * Reads a whole file into a heap buffer, which the garbage collector frees like any other array
+     *
+     * @throws IOException If the file cannot be read or is too large for one buffer
+     */
+    private static ByteBuffer readFully(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("Snapshot is too large to restore: " + file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Returns the index of the shard holding the id entry of an account
+     */
+    private int idShardIndex(int accountId) {
+        return (accountId * 0x9E3779B9) >>> shardShift;
+    }
+
+    /**
+     * Returns the index of the shard holding the number entry of an account
+     */
+    private int numberShardIndex(String accountNumber) {
+        return (accountNumber.hashCode() * 0x9E3779B9) >>> shardShift;
+    }
+
+    /**
+     * Takes the write locks of two shards, the one with the lower index first, or a single lock if they are the same
+     */
+    private void lockBoth(int a, int b) {
+        shards[Math.min(a, b)].lock.writeLock().lock();
+        if (a != b) {
+            shards[Math.max(a, b)].lock.writeLock().lock();
+        }
+    }
+
+    private void unlockBoth(int a, int b) {
+        shards[a].lock.writeLock().unlock();
+        if (a != b) {
+            shards[b].lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the accounts of a shard under its read lock
+     */
+    private static List<ConcurrentBankAccount> copyAccounts(Shard shard) {
+        Lock lock = shard.lock.readLock();
+        lock.lock();
+        try {
+            List<ConcurrentBankAccount> accounts = new ArrayList<>(shard.byId.size());
+            shard.byId.forEach((id, account) -> accounts.add(account));
+            return accounts;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ConcurrentBankAccount parseCsvLine(String line, int lineNumber) {
+        int first = line.indexOf(',');
+        int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        int last = line.lastIndexOf(',');
+        if (first < 0 || second < 0 || last <= second) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected 4 fields: " + line);
+        }
+        try {
+            int id = Integer.parseInt(line.substring(0, first).trim());
+            String number = line.substring(first + 1, second).trim();
+            String holder = line.substring(second + 1, last).trim();
+            long balanceCents = Long.parseLong(line.substring(last + 1).trim());
+            return new ConcurrentBankAccount(id, number, holder, balanceCents);
+        } catch (IllegalArgumentException e) {
+            // Also catches NumberFormatException and the negative balance check of the constructor
+            throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeAccount(DataOutputStream out, ConcurrentBankAccount account) throws IOException {
+        String holder = account.accountHolderName;
+        String bank = account.bankName;
+        int flags = (holder == null ? NULL_HOLDER : 0) | (DEFAULT_BANK_NAME.equals(bank) ? 0 : CUSTOM_BANK);
+        out.writeInt(account.getAccountId());
+        out.writeLong(account.getBalanceCents());
+        out.writeByte(flags);
+        writeString(out, account.getAccountNumber());
+        if (holder != null) {
+            writeString(out, holder);
+        }
+        if ((flags & CUSTOM_BANK) != 0) {
+            out.writeBoolean(bank != null);
+            if (bank != null) {
+                writeString(out, bank);
+            }
+        }
+    }
+
+    private static ConcurrentBankAccount readAccount(ByteBuffer in, byte[] scratch) {
+        int id = in.getInt();
+        long balanceCents = in.getLong();
+        int flags = in.get() & 0xFF;
+        String number = readString(in, scratch);
+        String holder = (flags & NULL_HOLDER) != 0 ? null : readString(in, scratch);
+        ConcurrentBankAccount account = new ConcurrentBankAccount(id, number, holder, balanceCents);
+        if ((flags & CUSTOM_BANK) != 0) {
+            account.bankName = in.get() != 0 ? readString(in, scratch) : null;
+        }
+        return account;
+    }
+
+    /**
+     * Writes a string as an unsigned 16-bit length followed by its UTF-8 bytes
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("String is too long for a snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in, byte[] scratch) {
+        int length = in.getShort() & 0xFFFF;
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
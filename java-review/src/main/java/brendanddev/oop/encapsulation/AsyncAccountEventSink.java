@@ -0,0 +1,203 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An AccountEventListener that moves printing off the thread making the transaction.
+ *
+ * onEvent() only puts the event into a bounded queue and returns. A background flusher thread takes all queued
+ * events at once, up to the capacity of the queue, builds their messages into a single StringBuilder and writes
+ * the whole batch to the stream with one print() call. The stream lock is therefore taken once per batch instead
+ * of once per event, and the depositing threads never wait on the stream at all.
+ *
+ * The queue is bounded so a burst of events cannot use up the heap when the stream is slower than the accounts.
+ * When it is full, onEvent() either waits for the flusher to make room (the default, no event is lost), or drops
+ * the event and counts it in getDroppedCount(), so the transaction never waits.
+ *
+ * close() stops accepting events, prints everything still queued and stops the flusher. Events passed to
+ * onEvent() after close() are dropped. Checking for close() and queueing an event happen under the read lock
+ * of a ReadWriteLock, and close() sets its flag under the write lock, so an event is either queued before the
+ * flusher drains the queue for the last time or counted as dropped, never left behind in the queue. A producer
+ * waiting for room still holds the read lock, so close() waits for the flusher to make that room first.
+ */
+public class AsyncAccountEventSink implements AccountEventListener, AutoCloseable {
+
+    // How long the flusher waits for an event before checking whether the sink was closed
+    private static final long POLL_MILLIS = 100;
+
+    // Events waiting to be printed
+    private final BlockingQueue<Event> queue;
+
+    // Where the messages are printed
+    private final PrintStream out;
+
+    // true to drop events when the queue is full, false to wait for room
+    private final boolean dropWhenFull;
+
+    // Number of events that were dropped
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Takes batches of events from the queue and prints them
+    private final Thread flusher;
+
+    // Set by close(), the flusher exits once it is set and the queue is empty
+    private volatile boolean closed;
+
+    // Held for reading while an event is queued and for writing while close() sets closed
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    /**
+     * A queued event, holding the arguments of onEvent() that its message needs
+     */
+    private static final class Event {
+        final Operation operation;
+        final double amount;
+        final TransactionResult result;
+
+        Event(Operation operation, double amount, TransactionResult result) {
+            this.operation = operation;
+            this.amount = amount;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Constructs a sink that prints to System.out and waits for room when the queue is full
+     *
+     * @param capacity The maximum number of queued events
+     */
+    public AsyncAccountEventSink(int capacity) {
+        this(System.out, capacity, false);
+    }
+
+    /**
+     * Constructs a sink and starts its flusher thread
+     *
+     * @param out The stream to print to
+     * @param capacity The maximum number of queued events, and of events printed in one batch
+     * @param dropWhenFull true to drop events when the queue is full, false to wait for room
+     * @throws IllegalArgumentException If capacity is not positive
+     */
+    public AsyncAccountEventSink(PrintStream out, int capacity, boolean dropWhenFull) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        this.out = Objects.requireNonNull(out, "out");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.dropWhenFull = dropWhenFull;
+        this.flusher = new Thread(() -> flushUntilClosed(capacity), "account-event-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues the event for the flusher, waiting for room or dropping the event if the queue is full
+     */
+    @Override
+    public void onEvent(Operation operation, int accountId, double amount, double balance, TransactionResult result) {
+        if (operation == Operation.OPEN && result.isSuccess()) {
+            // A successful opening prints nothing, so it does not need to be queued
+            return;
+        }
+        Event event = new Event(operation, amount, result);
+        ReentrantReadWriteLock.ReadLock lock = closeLock.readLock();
+        lock.lock();
+        try {
+            if (closed) {
+                dropped.incrementAndGet();
+            } else if (dropWhenFull) {
+                if (!queue.offer(event)) {
+                    dropped.incrementAndGet();
+                }
+            } else {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events that were dropped because the queue was full or the sink was closed
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of events waiting to be printed
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting events, prints every queued event and waits for the flusher thread to exit
+     */
+    @Override
+    public void close() {
+        // Waits for the producers that are queueing an event, later ones see closed and drop theirs
+        ReentrantReadWriteLock.WriteLock lock = closeLock.writeLock();
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The flusher loop, printing batches of at most maxBatch events until the sink is closed and drained
+     */
+    private void flushUntilClosed(int maxBatch) {
+        List<Event> batch = new ArrayList<>(maxBatch);
+        StringBuilder text = new StringBuilder();
+        String lineSeparator = System.lineSeparator();
+        while (true) {
+            Event first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Only close() ends the flusher, so the interrupt is ignored
+                continue;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            for (Event event : batch) {
+                String message = Listeners.describe(event.operation, event.amount, event.result);
+                if (message != null) {
+                    text.append(message).append(lineSeparator);
+                }
+            }
+            out.print(text);
+            out.flush();
+            text.setLength(0);
+            batch.clear();
+        }
+    }
+}
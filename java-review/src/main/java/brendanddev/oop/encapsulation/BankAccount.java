@@ -1,5 +1,8 @@
 package brendanddev.oop.encapsulation;
 
+import java.util.Objects;
+
+import brendanddev.oop.encapsulation.AccountEventListener.Operation;
 
 /**
  * A BankAccount class that demonstrates encapsulation principles in Java.
@@ -13,6 +16,11 @@ package brendanddev.oop.encapsulation;
  * - protected: Accessible within the class and subclasses (even if they are in different packages). Used for data that should be shared with subclasses but not with the outside world.
  * - public: Accessible from anywhere. Used for methods that need to be called from outside the class.
  * - default (no modifier): Accessible only within the same package. Used for package-private access.
+ * 
+ * This class is not thread safe, see ConcurrentBankAccount for an account that can be shared between threads.
+ *
+ * Transactions are reported to an AccountEventListener instead of being printed. The default listener ignores
+ * them, use AccountEventListener.console() to print the messages to System.out.
  */
 public class BankAccount {
 
@@ -27,6 +35,9 @@ public class BankAccount {
     // Public field, accessible from anywhere
     public String bankName = "National Bank";
 
+    // Receives every deposit, withdrawal and rejected transaction
+    private AccountEventListener eventListener = AccountEventListener.noOp();
+
     /**
      * Constructs a new BankAccount object with a default balance of 0.0
      */
@@ -41,9 +52,18 @@ public class BankAccount {
      * Constructs a new BankAccount object with a specified initial balance
      */
     public BankAccount(int accountId, String accountNumber, String accountHolderName, double initialBalance) {
+        this(accountId, accountNumber, accountHolderName, initialBalance, AccountEventListener.noOp());
+    }
+
+    /**
+     * Constructs a new BankAccount object with a specified initial balance, reporting its transactions to a listener
+     */
+    public BankAccount(int accountId, String accountNumber, String accountHolderName, double initialBalance,
+            AccountEventListener eventListener) {
         this.accountId = accountId;
         this.accountNumber = accountNumber;
         this.accountHolderName = accountHolderName;
+        setEventListener(eventListener);
         setBalance(initialBalance);
     }
 
@@ -67,23 +87,31 @@ public class BankAccount {
         return balance;
     }
 
+    public AccountEventListener getEventListener() {
+        return eventListener;
+    }
+
+    public void setEventListener(AccountEventListener eventListener) {
+        this.eventListener = Objects.requireNonNull(eventListener, "eventListener");
+    }
+
     public void deposit(double amount) {
         if (amount > 0) {
             balance += amount;
-            System.out.println("Deposited: " + amount);
+            publish(Operation.DEPOSIT, amount, TransactionResult.SUCCESS);
         } else {
-            System.out.println("Deposit amount must be positive.");
+            publish(Operation.DEPOSIT, amount, TransactionResult.INVALID_AMOUNT);
         }
     }
 
     public void withdraw(double amount) {
         if (amount > 0 && amount <= balance) {
             balance -= amount;
-            System.out.println("Withdrew: " + amount);
+            publish(Operation.WITHDRAW, amount, TransactionResult.SUCCESS);
         } else if (amount > balance) {
-            System.out.println("Insufficient funds for withdrawal.");
+            publish(Operation.WITHDRAW, amount, TransactionResult.INSUFFICIENT_FUNDS);
         } else {
-            System.out.println("Withdrawal amount must be positive.");
+            publish(Operation.WITHDRAW, amount, TransactionResult.INVALID_AMOUNT);
         }
     }
 
@@ -98,10 +126,15 @@ public class BankAccount {
     private void setBalance(double initialBalance) {
         if (initialBalance >= 0) {
             this.balance = initialBalance;
+            publish(Operation.OPEN, initialBalance, TransactionResult.SUCCESS);
         } else {
-            System.out.println("Initial balance cannot be negative.");
             this.balance = 0.0;
+            publish(Operation.OPEN, initialBalance, TransactionResult.INVALID_AMOUNT);
         }
     }
 
+    private void publish(Operation operation, double amount, TransactionResult result) {
+        eventListener.onEvent(operation, accountId, amount, balance, result);
+    }
+
 }
@@ -0,0 +1,148 @@
+package brendanddev.oop.encapsulation;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+
+/**
+ * A thread safe variant of BankAccount that can be shared by many threads without locking.
+ *
+ * BankAccount stores its balance as a double and updates it with 'balance += amount', which is a separate read, add
+ * and write. Two threads depositing at the same time can both read the old balance, and one of the deposits is lost.
+ * A double also cannot represent most decimal amounts exactly (0.1 + 0.2 != 0.3), so the balance drifts away from the
+ * true sum over many transactions.
+ *
+ * This class stores the balance as a long number of cents (minor units), so every amount is exact, and updates it
+ * atomically:
+ *
+ * - deposit() adds the amount with a single atomic getAndAdd, which never has to retry.
+ * - withdraw() runs a compare-and-set loop. It reads the balance, checks that it covers the amount, and only writes
+ *   the new balance if no other thread changed it in between, otherwise it reads again and retries. The check and
+ *   the update therefore act as one step, and the balance can never go below zero.
+ *
+ * The balance is a volatile long field updated through an AtomicLongFieldUpdater, instead of an AtomicLong object,
+ * so an account costs no extra object when millions of them are held in memory.
+ *
+ * Neither method prints anything, they return a TransactionResult instead.
+ */
+public class ConcurrentBankAccount {
+
+    // Atomic access to the balanceCents field of every account
+    private static final AtomicLongFieldUpdater<ConcurrentBankAccount> BALANCE =
+            AtomicLongFieldUpdater.newUpdater(ConcurrentBankAccount.class, "balanceCents");
+
+    // Private fields, the identity of the account never changes so it is final
+    private final int accountId;
+    private final String accountNumber;
+
+    // The balance in cents, only written through BALANCE
+    private volatile long balanceCents;
+
+    // Protected field, accessible in subclasses and within the same package
+    protected String accountHolderName;
+
+    // Public field, accessible from anywhere
+    public String bankName = "National Bank";
+
+    /**
+     * Constructs a new ConcurrentBankAccount with a balance of zero
+     */
+    public ConcurrentBankAccount(int accountId, String accountNumber, String accountHolderName) {
+        this(accountId, accountNumber, accountHolderName, 0);
+    }
+
+    /**
+     * Constructs a new ConcurrentBankAccount with the given initial balance
+     *
+     * @param initialBalanceCents The initial balance in cents
+     * @throws IllegalArgumentException If the initial balance is negative
+     */
+    public ConcurrentBankAccount(int accountId, String accountNumber, String accountHolderName, long initialBalanceCents) {
+        if (initialBalanceCents < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative: " + initialBalanceCents);
+        }
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.accountHolderName = accountHolderName;
+        this.balanceCents = initialBalanceCents;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Returns the current balance in cents
+     */
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * Returns the current balance in dollars, for display only
+     */
+    public double getBalance() {
+        return balanceCents / 100.0;
+    }
+
+    /**
+     * Adds an amount to the balance.
+     *
+     * The addition is a single atomic instruction, so concurrent deposits are never lost.
+     *
+     * @param amountCents The amount to deposit in cents
+     * @return SUCCESS, or INVALID_AMOUNT if the amount is not positive
+     */
+    public TransactionResult deposit(long amountCents) {
+        if (amountCents <= 0) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        BALANCE.getAndAdd(this, amountCents);
+        return TransactionResult.SUCCESS;
+    }
+
+    /**
+     * Subtracts an amount from the balance if the balance covers it.
+     *
+     * The balance is checked and updated in a compare-and-set loop, so two concurrent withdrawals can
+     * never both succeed on a balance that only covers one of them.
+     *
+     * @param amountCents The amount to withdraw in cents
+     * @return SUCCESS, INVALID_AMOUNT if the amount is not positive, or INSUFFICIENT_FUNDS
+     */
+    public TransactionResult withdraw(long amountCents) {
+        if (amountCents <= 0) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        long current;
+        do {
+            current = balanceCents;
+            if (current < amountCents) {
+                return TransactionResult.INSUFFICIENT_FUNDS;
+            }
+        } while (!BALANCE.compareAndSet(this, current, current - amountCents));
+        return TransactionResult.SUCCESS;
+    }
+
+    /**
+     * Converts a dollar amount to cents, rounding to the nearest cent
+     *
+     * @param amount The amount in dollars, e.g. 12.34
+     * @return The amount in cents, e.g. 1234
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public void displayAccountInfo() {
+        System.out.println("Account ID: " + accountId);
+        System.out.println("Account Number: " + accountNumber);
+        System.out.println("Account Holder: " + accountHolderName);
+        System.out.println("Balance: " + String.format("%d.%02d", balanceCents / 100, balanceCents % 100));
+        System.out.println("Bank Name: " + bankName);
+    }
+
+}
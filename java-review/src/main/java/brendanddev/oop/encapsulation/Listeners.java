@@ -0,0 +1,50 @@
+package brendanddev.oop.encapsulation;
+
+import java.io.PrintStream;
+
+/**
+ * The shared listeners and the messages printed for each event
+ */
+final class Listeners {
+
+    static final AccountEventListener NO_OP = (operation, accountId, amount, balance, result) -> { };
+
+    // Looks up System.out on every call, so System.setOut() is respected
+    static final AccountEventListener CONSOLE = (operation, accountId, amount, balance, result) ->
+            print(System.out, operation, amount, result);
+
+    /**
+     * Prints the message of an event on its own line, if the event has one
+     */
+    static void print(PrintStream out, AccountEventListener.Operation operation, double amount,
+            TransactionResult result) {
+        String message = describe(operation, amount, result);
+        if (message != null) {
+            out.println(message);
+        }
+    }
+
+    /**
+     * Returns the message BankAccount printed for an event, or null if it printed nothing
+     */
+    static String describe(AccountEventListener.Operation operation, double amount, TransactionResult result) {
+        switch (operation) {
+            case OPEN:
+                return result.isSuccess() ? null : "Initial balance cannot be negative.";
+            case DEPOSIT:
+                return result.isSuccess() ? "Deposited: " + amount : "Deposit amount must be positive.";
+            case WITHDRAW:
+                if (result.isSuccess()) {
+                    return "Withdrew: " + amount;
+                }
+                return result == TransactionResult.INSUFFICIENT_FUNDS
+                        ? "Insufficient funds for withdrawal."
+                        : "Withdrawal amount must be positive.";
+            default:
+                return null;
+        }
+    }
+
+    private Listeners() {
+    }
+}
@@ -0,0 +1,176 @@
+package brendanddev.oop.encapsulation;
+
+/**
+ * An append-only log of the most recent transfers, kept in a ring buffer of primitive arrays.
+ *
+ * Every appended entry gets the next sequence number, starting at zero, and is stored in the slot
+ * 'sequence & (capacity - 1)'. The capacity is a power of two, so the slot is a single AND instead of a
+ * division. Once the log has wrapped around, each append overwrites the oldest entry, so the log holds the
+ * last capacity() entries and its memory never grows. Sequence numbers keep increasing, which lets a reader
+ * tell whether an entry it remembers has already been overwritten.
+ *
+ * An entry is a source account id, a target account id, an amount in cents and a result, stored in four
+ * parallel arrays. Compared to a List of Transaction objects this needs no allocation per entry and
+ * 17 bytes per entry in total, and the garbage collector only ever sees four arrays.
+ *
+ * The log is thread safe. Appending a whole TransferBatch takes the lock once, so the workers of a
+ * TransferEngine do not contend on it for every single transfer.
+ */
+public class TransactionLog {
+
+    // The maximum capacity, the largest power of two an array can hold
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // The entries, each at the same slot in all arrays
+    private final int[] fromAccounts;
+    private final int[] toAccounts;
+    private final long[] amounts;
+    private final byte[] results;
+
+    // capacity - 1, used to turn a sequence number into a slot
+    private final int mask;
+
+    // The sequence number of the next entry, which is also the number of entries ever appended
+    private long nextSequence;
+
+    /**
+     * Callback for forEach(), receiving the fields of every entry
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long sequence, int fromAccountId, int toAccountId, long amountCents, TransactionResult result);
+    }
+
+    /**
+     * Constructs a log that keeps at least the given number of entries
+     *
+     * @param capacity The number of entries to keep, rounded up to a power of two
+     * @throws IllegalArgumentException If capacity is not positive
+     */
+    public TransactionLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        int size = tableSizeFor(capacity);
+        fromAccounts = new int[size];
+        toAccounts = new int[size];
+        amounts = new long[size];
+        results = new byte[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Appends a single entry
+     *
+     * @return The sequence number of the entry
+     */
+    public synchronized long append(int fromAccountId, int toAccountId, long amountCents, TransactionResult result) {
+        long sequence = nextSequence++;
+        int slot = (int) sequence & mask;
+        fromAccounts[slot] = fromAccountId;
+        toAccounts[slot] = toAccountId;
+        amounts[slot] = amountCents;
+        results[slot] = (byte) result.ordinal();
+        return sequence;
+    }
+
+    /**
+     * Appends the transfers in [from, to) of an applied batch, with their results, under a single lock
+     *
+     * @return The sequence number of the first appended entry
+     */
+    public synchronized long append(TransferBatch batch, int from, int to) {
+        long first = nextSequence;
+        for (int i = from; i < to; i++) {
+            int slot = (int) nextSequence++ & mask;
+            fromAccounts[slot] = batch.fromAt(i);
+            toAccounts[slot] = batch.toAt(i);
+            amounts[slot] = batch.amountAt(i);
+            results[slot] = batch.resultOrdinalAt(i);
+        }
+        return first;
+    }
+
+    /**
+     * Returns the number of entries currently held, at most capacity()
+     */
+    public synchronized int size() {
+        return (int) Math.min(nextSequence, fromAccounts.length);
+    }
+
+    public int capacity() {
+        return fromAccounts.length;
+    }
+
+    /**
+     * Returns the number of entries ever appended, including the ones that were overwritten
+     */
+    public synchronized long totalAppended() {
+        return nextSequence;
+    }
+
+    /**
+     * Returns the sequence number of the oldest entry still held
+     */
+    public synchronized long oldestSequence() {
+        return Math.max(0, nextSequence - fromAccounts.length);
+    }
+
+    public synchronized int fromAccountId(long sequence) {
+        return fromAccounts[slotOf(sequence)];
+    }
+
+    public synchronized int toAccountId(long sequence) {
+        return toAccounts[slotOf(sequence)];
+    }
+
+    public synchronized long amountCents(long sequence) {
+        return amounts[slotOf(sequence)];
+    }
+
+    public synchronized TransactionResult result(long sequence) {
+        return TransferBatch.resultOf(results[slotOf(sequence)]);
+    }
+
+    /**
+     * Visits every entry still held, from the oldest to the newest.
+     *
+     * The lock is held for the whole iteration, so appends wait until it is done.
+     */
+    public synchronized void forEach(EntryVisitor visitor) {
+        for (long sequence = oldestSequence(); sequence < nextSequence; sequence++) {
+            int slot = (int) sequence & mask;
+            visitor.visit(sequence, fromAccounts[slot], toAccounts[slot], amounts[slot],
+                    TransferBatch.resultOf(results[slot]));
+        }
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by the log, which does not change as entries are appended
+     */
+    public long estimatedRetainedBytes() {
+        return (long) fromAccounts.length * (Integer.BYTES * 2 + Long.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Converts a sequence number to a slot, checking that the entry exists and was not overwritten
+     */
+    private int slotOf(long sequence) {
+        if (sequence < oldestSequence() || sequence >= nextSequence) {
+            throw new IndexOutOfBoundsException("Sequence " + sequence + " is not in the log, which holds ["
+                    + oldestSequence() + ", " + nextSequence + ")");
+        }
+        return (int) sequence & mask;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY || capacity < 0) {
+            return MAXIMUM_CAPACITY;
+        }
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(n, 2);
+    }
+}
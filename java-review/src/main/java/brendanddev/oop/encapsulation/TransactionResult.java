@@ -0,0 +1,35 @@
+package brendanddev.oop.encapsulation;
+
+/**
+ * The outcome of a deposit or withdrawal on a ConcurrentBankAccount, or of a transfer applied by a TransferEngine.
+ *
+ * BankAccount used to report problems by printing a message, which the caller cannot react to and which serializes
+ * every thread on the System.out lock. Returning a result instead lets the caller decide what to do, and costs
+ * nothing since the constants are shared. BankAccount now passes the same results to its AccountEventListener.
+ */
+public enum TransactionResult {
+
+    /** The balance was updated */
+    SUCCESS,
+
+    /** The amount was zero or negative, the balance was not changed */
+    INVALID_AMOUNT,
+
+    /** A withdrawal was larger than the balance, the balance was not changed */
+    INSUFFICIENT_FUNDS,
+
+    /** A transfer named an account that does not exist, no balance was changed */
+    UNKNOWN_ACCOUNT,
+
+    /** A transfer had the same source and target account, no balance was changed */
+    SAME_ACCOUNT;
+
+    /**
+     * Checks if the transaction was applied
+     *
+     * @return true for SUCCESS
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
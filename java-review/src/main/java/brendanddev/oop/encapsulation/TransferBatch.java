@@ -0,0 +1,130 @@
+package brendanddev.oop.encapsulation;
+
+/**
+ * A reusable batch of account-to-account transfers, stored in primitive arrays.
+ *
+ * Every transfer is a source account id, a target account id and an amount in cents, held at the same index of
+ * three parallel arrays instead of in a Transfer object each. A batch of a million transfers is therefore four
+ * arrays and no per transfer objects, and the batch can be cleared and refilled without allocating. The outcome
+ * of every transfer is written back into the batch by TransferEngine.apply().
+ */
+public class TransferBatch {
+
+    // The transfers, each at the same index in all arrays
+    private final int[] fromAccounts;
+    private final int[] toAccounts;
+    private final long[] amounts;
+
+    // The ordinal of the TransactionResult of each applied transfer
+    private final byte[] results;
+
+    // Number of transfers in the batch
+    private int size;
+
+    // TransactionResult.values() allocates a new array on each call, so it is copied once
+    private static final TransactionResult[] RESULTS = TransactionResult.values();
+
+    /**
+     * Constructs an empty batch that can hold the given number of transfers
+     *
+     * @param capacity The maximum number of transfers
+     * @throws IllegalArgumentException If capacity is not positive
+     */
+    public TransferBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        fromAccounts = new int[capacity];
+        toAccounts = new int[capacity];
+        amounts = new long[capacity];
+        results = new byte[capacity];
+    }
+
+    /**
+     * Adds a transfer to the end of the batch
+     *
+     * @param fromAccountId The account to withdraw from
+     * @param toAccountId The account to deposit to
+     * @param amountCents The amount in cents
+     * @throws IllegalStateException If the batch is full
+     */
+    public void add(int fromAccountId, int toAccountId, long amountCents) {
+        if (size == amounts.length) {
+            throw new IllegalStateException("Batch is full: " + size);
+        }
+        fromAccounts[size] = fromAccountId;
+        toAccounts[size] = toAccountId;
+        amounts[size] = amountCents;
+        results[size] = 0;
+        size++;
+    }
+
+    /**
+     * Removes all transfers so the batch can be refilled
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return amounts.length;
+    }
+
+    public int fromAccountId(int index) {
+        checkIndex(index);
+        return fromAccounts[index];
+    }
+
+    public int toAccountId(int index) {
+        checkIndex(index);
+        return toAccounts[index];
+    }
+
+    public long amountCents(int index) {
+        checkIndex(index);
+        return amounts[index];
+    }
+
+    /**
+     * Returns the outcome of the transfer at the given index, after the batch was applied
+     */
+    public TransactionResult result(int index) {
+        checkIndex(index);
+        return RESULTS[results[index]];
+    }
+
+    // Unchecked accessors for TransferEngine and TransactionLog, which iterate within [0, size)
+    int fromAt(int index) {
+        return fromAccounts[index];
+    }
+
+    int toAt(int index) {
+        return toAccounts[index];
+    }
+
+    long amountAt(int index) {
+        return amounts[index];
+    }
+
+    byte resultOrdinalAt(int index) {
+        return results[index];
+    }
+
+    void setResult(int index, TransactionResult result) {
+        results[index] = (byte) result.ordinal();
+    }
+
+    static TransactionResult resultOf(byte ordinal) {
+        return RESULTS[ordinal];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
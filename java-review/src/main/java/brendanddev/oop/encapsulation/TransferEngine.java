@@ -0,0 +1,177 @@
+package brendanddev.oop.encapsulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Applies batches of account-to-account transfers between ConcurrentBankAccounts, optionally on several threads,
+ * and records every transfer in a TransactionLog.
+ *
+ * A transfer withdraws from one account and deposits to another. The withdrawal alone is already atomic, but the
+ * pair is not: another thread could look at both accounts between the two steps and see the money in neither. The
+ * engine therefore locks both accounts for the duration of a transfer, so anything that also locks the accounts
+ * (an audit summing balances, for example) sees every transfer either completely or not at all.
+ *
+ * Locking two accounts can deadlock. If one thread transfers from A to B and locks A first, while another thread
+ * transfers from B to A and locks B first, each waits for the lock the other holds, forever. The engine avoids
+ * this by always locking the account with the lower accountId first, whatever the direction of the transfer.
+ * All threads then take locks in the same global order, so no cycle of waiting threads can form.
+ *
+ * A batch is split into one contiguous slice per thread. Each worker applies its slice and then appends the whole
+ * slice to the log under a single lock. Transfers in the same slice are logged in batch order, but slices are
+ * logged in the order they finish.
+ */
+public class TransferEngine implements AutoCloseable {
+
+    // Resolves an accountId to its account, or null if there is no such account
+    private final IntFunction<ConcurrentBankAccount> accounts;
+
+    // Receives every applied transfer and its result
+    private final TransactionLog log;
+
+    // Number of slices a batch is split into
+    private final int parallelism;
+
+    // Runs the slices, null when parallelism is 1 and batches are applied on the calling thread
+    private final ExecutorService workers;
+
+    /**
+     * Constructs an engine that applies batches on the calling thread
+     */
+    public TransferEngine(IntFunction<ConcurrentBankAccount> accounts, TransactionLog log) {
+        this(accounts, log, 1);
+    }
+
+    /**
+     * Constructs an engine that splits every batch across the given number of threads
+     *
+     * @param accounts Resolves an accountId to its account, returning null for unknown ids
+     * @param log The log every applied transfer is appended to
+     * @param parallelism The number of threads, 1 to apply batches on the calling thread
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public TransferEngine(IntFunction<ConcurrentBankAccount> accounts, TransactionLog log, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than zero");
+        }
+        this.accounts = Objects.requireNonNull(accounts, "accounts");
+        this.log = Objects.requireNonNull(log, "log");
+        this.parallelism = parallelism;
+        this.workers = parallelism == 1 ? null : Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "transfer-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Transfers an amount between two accounts, holding the locks of both accounts.
+     *
+     * The transfer is not logged, use apply() to log transfers.
+     *
+     * @return SUCCESS, INVALID_AMOUNT, INSUFFICIENT_FUNDS, UNKNOWN_ACCOUNT or SAME_ACCOUNT
+     */
+    public TransactionResult transfer(int fromAccountId, int toAccountId, long amountCents) {
+        if (amountCents <= 0) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        if (fromAccountId == toAccountId) {
+            return TransactionResult.SAME_ACCOUNT;
+        }
+        ConcurrentBankAccount from = accounts.apply(fromAccountId);
+        ConcurrentBankAccount to = accounts.apply(toAccountId);
+        if (from == null || to == null) {
+            return TransactionResult.UNKNOWN_ACCOUNT;
+        }
+
+        // Lock in accountId order, never in transfer direction
+        ConcurrentBankAccount first = fromAccountId < toAccountId ? from : to;
+        ConcurrentBankAccount second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                TransactionResult result = from.withdraw(amountCents);
+                if (result.isSuccess()) {
+                    to.deposit(amountCents);
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Applies every transfer of a batch, writes each result back into the batch and appends the batch to the log.
+     *
+     * Returns once the whole batch was applied. A failed transfer does not stop the batch, its result is recorded
+     * and the next transfer is applied.
+     *
+     * @param batch The transfers to apply
+     * @return The number of transfers that succeeded
+     */
+    public int apply(TransferBatch batch) {
+        int size = batch.size();
+        if (workers == null || size < parallelism * 2) {
+            return applySlice(batch, 0, size);
+        }
+
+        int sliceSize = (size + parallelism - 1) / parallelism;
+        List<Future<Integer>> slices = new ArrayList<>(parallelism);
+        for (int start = 0; start < size; start += sliceSize) {
+            int from = start;
+            int to = Math.min(size, start + sliceSize);
+            slices.add(workers.submit(() -> applySlice(batch, from, to)));
+        }
+
+        int succeeded = 0;
+        try {
+            for (Future<Integer> slice : slices) {
+                succeeded += slice.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while applying a batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to apply a batch", e.getCause());
+        }
+        return succeeded;
+    }
+
+    public TransactionLog getLog() {
+        return log;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Stops the worker threads, the engine must not be used afterwards
+     */
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Applies the transfers in [from, to) of a batch and logs them
+     */
+    private int applySlice(TransferBatch batch, int from, int to) {
+        int succeeded = 0;
+        for (int i = from; i < to; i++) {
+            TransactionResult result = transfer(batch.fromAt(i), batch.toAt(i), batch.amountAt(i));
+            batch.setResult(i, result);
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+        log.append(batch, from, to);
+        return succeeded;
+    }
+}
@@ -0,0 +1,91 @@
+package brendanddev.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.map.CustomMap;
+import brendanddev.collections.set.ImprovedCustomSet;
+
+/**
+ * Tests for the built in hashing strategies and the collections that accept them.
+ */
+public class HashingStrategyTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("identity() keeps equal but distinct objects apart")
+    void testIdentity() {
+        ImprovedCustomSet<String> set = new ImprovedCustomSet<>(HashingStrategy.identity());
+        String first = new String("key");
+        String second = new String("key");
+        assertTrue(set.add(first));
+        assertTrue(set.add(second));
+        assertFalse(set.add(first));
+        assertEquals(2, set.size());
+        assertTrue(set.remove(second));
+        assertFalse(set.contains(second));
+        assertTrue(set.contains(first));
+    }
+
+    @Test
+    @DisplayName("mix() spreads hash codes that only differ in their upper bits")
+    void testMurmur3Mix() {
+        int[] lowBits = new int[16];
+        for (int i = 0; i < 1024; i++) {
+            lowBits[HashingStrategy.mix(i << 20) & 15]++;
+        }
+        for (int count : lowBits) {
+            assertTrue(count > 32, "Bucket count " + count + " is too far from 64");
+        }
+    }
+
+    @Test
+    @DisplayName("byField() keys behave like their own equals() in a CustomMap")
+    void testByFieldMatchesHashMap() {
+        HashingStrategy<int[]> byFirst = HashingStrategy.byField(values -> values[0]);
+        assertEquals(byFirst.hash(new int[] {7, 1}), byFirst.hash(new int[] {7, 2}));
+
+        // Random puts and removes, checked against a HashMap
+        CustomMap<Integer, Integer> map = new CustomMap<>(HashingStrategy.byField(key -> key));
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(SEED);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Null keys are handled by the collection, not the strategy")
+    void testNullKey() {
+        CustomMap<String, String> map = new CustomMap<>(HashingStrategy.murmur3());
+        assertNull(map.put(null, "a"));
+        assertEquals("a", map.put(null, "b"));
+        assertEquals("b", map.get(null));
+        assertEquals("b", map.remove(null));
+        assertFalse(map.containsKey(null));
+
+        ImprovedCustomSet<String> set = new ImprovedCustomSet<>(HashingStrategy.murmur3());
+        assertTrue(set.add(null));
+        assertTrue(set.contains(null));
+    }
+}
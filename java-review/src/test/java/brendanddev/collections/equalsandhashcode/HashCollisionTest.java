@@ -0,0 +1,85 @@
+package brendanddev.collections.equalsandhashcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the equals() and cached hashCode() of the key classes of this package.
+ *
+ * Names are built with new String() so that equal keys never share the same String instance,
+ * and "Aa" and "BB" are used because their String hash codes are equal, which makes keys whose
+ * cached hashes match but whose names differ.
+ */
+public class HashCollisionTest {
+
+    @Test
+    @DisplayName("Equal BetterHashCollision keys have equal hashes, including keys with a null name")
+    void testBetterEqualKeysHaveEqualHashes() {
+        BetterHashCollision a = new BetterHashCollision(new String("Person"), 7);
+        BetterHashCollision b = new BetterHashCollision(new String("Person"), 7);
+        assertEquals(a, b);
+        assertEquals(b, a);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(31 * "Person".hashCode() + 7, a.hashCode());
+
+        BetterHashCollision nullA = new BetterHashCollision(null, 7);
+        BetterHashCollision nullB = new BetterHashCollision(null, 7);
+        assertEquals(nullA, nullB);
+        assertEquals(nullA.hashCode(), nullB.hashCode());
+        assertEquals(7, nullA.hashCode());
+        assertNotEquals(nullA, a);
+        assertNotEquals(a, nullA);
+
+        Set<BetterHashCollision> set = new HashSet<>();
+        set.add(a);
+        set.add(nullA);
+        assertTrue(set.contains(new BetterHashCollision(new String("Person"), 7)));
+        assertTrue(set.contains(new BetterHashCollision(null, 7)));
+    }
+
+    @Test
+    @DisplayName("BetterHashCollision keys with the same id but different names are not equal, even with equal hashes")
+    void testBetterDifferentNamesAreNotEqual() {
+        BetterHashCollision person = new BetterHashCollision("Person", 1);
+        BetterHashCollision other = new BetterHashCollision("Other", 1);
+        assertNotEquals(person, other);
+        assertNotEquals(person, new BetterHashCollision("Person", 2));
+
+        // "Aa" and "BB" have the same String hash code, so the cached hashes match and only the names differ
+        BetterHashCollision aa = new BetterHashCollision("Aa", 3);
+        BetterHashCollision bb = new BetterHashCollision("BB", 3);
+        assertEquals(aa.hashCode(), bb.hashCode());
+        assertNotEquals(aa, bb);
+
+        Set<BetterHashCollision> set = new HashSet<>();
+        set.add(aa);
+        assertFalse(set.contains(bb));
+        assertFalse(person.equals(null));
+        assertFalse(person.equals("Person"));
+    }
+
+    @Test
+    @DisplayName("HashCollision keys keep their colliding hash and compare by id and name")
+    void testHashCollision() {
+        HashCollision a = new HashCollision(new String("Person"), 4);
+        HashCollision b = new HashCollision(new String("Person"), 4);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+
+        // Every even id lands on the same hash, the names and ids still tell the keys apart
+        HashCollision other = new HashCollision("Other", 4);
+        HashCollision even = new HashCollision("Person", 6);
+        assertEquals(a.hashCode(), other.hashCode());
+        assertEquals(a.hashCode(), even.hashCode());
+        assertNotEquals(a, other);
+        assertNotEquals(a, even);
+    }
+}
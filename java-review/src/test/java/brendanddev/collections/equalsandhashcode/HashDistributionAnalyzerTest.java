@@ -0,0 +1,82 @@
+package brendanddev.collections.equalsandhashcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the HashDistributionAnalyzer against the key classes of this package, so that a badly
+ * distributing hashCode() fails the build instead of slowing down hash based collections.
+ */
+public class HashDistributionAnalyzerTest {
+
+    private static final int KEY_COUNT = 10_000;
+
+    // Generous bounds for a well behaved hash function at HashMap's default load factor
+    private static final int MAX_ALLOWED_CHAIN = HashDistributionAnalyzer.TREEIFY_THRESHOLD;
+    private static final double MAX_UNIFORMITY_SCORE = 1.5;
+
+    @Test
+    @DisplayName("BetterHashCollision keys are distributed uniformly")
+    void testBetterHashCollisionIsUniform() {
+        List<BetterHashCollision> keys = new ArrayList<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add(new BetterHashCollision("Person" + i, i));
+        }
+
+        HashDistributionAnalyzer.Report report = HashDistributionAnalyzer.analyze(keys);
+
+        assertTrue(report.getMaxChainLength() <= MAX_ALLOWED_CHAIN, report.toString());
+        assertTrue(report.getUniformityScore() < MAX_UNIFORMITY_SCORE, report.toString());
+        assertEquals(0, report.getTreeifiedBuckets(), report.toString());
+    }
+
+    @Test
+    @DisplayName("The id % 2 hash of HashCollision is detected")
+    void testHashCollisionIsDetected() {
+        List<HashCollision> keys = new ArrayList<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add(new HashCollision("Person" + i, i));
+        }
+
+        HashDistributionAnalyzer.Report report = HashDistributionAnalyzer.analyze(keys);
+
+        assertEquals(2, report.getUsedBuckets());
+        assertEquals(KEY_COUNT / 2, report.getMaxChainLength());
+        assertEquals(1.0, report.getTreeifiedKeyFraction());
+        assertTrue(report.getUniformityScore() > MAX_UNIFORMITY_SCORE);
+    }
+
+    @Test
+    @DisplayName("Bucket indices match HashMap, including the high bit spread")
+    void testBucketIndexMatchesHashMapSpread() {
+        // Hash codes that only differ above bit 16 still land in different buckets
+        Integer low = 1;
+        Integer high = 1 | (1 << 16);
+        assertEquals(1, HashDistributionAnalyzer.bucketIndex(low, 16));
+        assertEquals(0, HashDistributionAnalyzer.bucketIndex(high, 16));
+        assertEquals(0, HashDistributionAnalyzer.bucketIndex(null, 16));
+
+        // Small tables never treeify, HashMap resizes them instead
+        HashDistributionAnalyzer.Report report = HashDistributionAnalyzer.analyze(
+                Arrays.asList(0, 16, 32, 48, 64, 80, 96, 112, 128, 144), 16);
+        assertEquals(10, report.getMaxChainLength());
+        assertEquals(0, report.getTreeifiedBuckets());
+
+        // The default capacity matches the table a HashMap grows to, 12 keys fit into 16
+        // buckets at load factor 0.75 while the 13th key triggers a resize to 32
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            keys.add(i);
+        }
+        assertEquals(16, HashDistributionAnalyzer.analyze(keys).getCapacity());
+        keys.add(12);
+        assertEquals(32, HashDistributionAnalyzer.analyze(keys).getCapacity());
+    }
+}
@@ -0,0 +1,222 @@
+package brendanddev.collections.iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * Tests for removing elements through the iterator of SimpleContainer, which leaves a gap
+ * that travels with the iterator and is closed once iteration ends, and for the spliterator,
+ * which closes a gap left by an abandoned iterator before it binds to the elements.
+ */
+public class SimpleContainerTest {
+
+    @Test
+    @DisplayName("Removing every other element during iteration keeps the rest in order")
+    void testRemoveDuringIteration() {
+        SimpleContainer<Integer> container = filled(10);
+        Iterator<Integer> it = container.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(5, container.size());
+        assertEquals("[1, 3, 5, 7, 9]", container.toString());
+        assertEquals(contents(container), collect(container));
+    }
+
+    @Test
+    @DisplayName("The first and the last element can be removed")
+    void testRemoveFirstAndLast() {
+        SimpleContainer<Integer> container = filled(5);
+        Iterator<Integer> it = container.iterator();
+        it.next();
+        it.remove();
+        while (it.hasNext()) {
+            if (it.next() == 4) {
+                it.remove();
+            }
+        }
+        assertEquals("[1, 2, 3]", container.toString());
+
+        // Removing every element empties the container
+        it = container.iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertEquals(0, container.size());
+        assertFalse(container.iterator().hasNext());
+    }
+
+    @Test
+    @DisplayName("get() and size() skip an open gap, and an abandoned iterator leaves a consistent container")
+    void testAbandonedIterator() {
+        SimpleContainer<Integer> container = filled(6);
+        Iterator<Integer> it = container.iterator();
+        it.next();
+        it.next();
+        it.remove();
+        it.next();
+        // The gap is still open here: [0, 2, _, 3, 4, 5]
+        assertEquals(5, container.size());
+        assertEquals(Integer.valueOf(2), container.get(1));
+        assertEquals(Integer.valueOf(3), container.get(2));
+        assertEquals(Integer.valueOf(5), container.get(4));
+
+        // Adding closes the gap, after which the abandoned iterator fails fast
+        container.add(6);
+        assertEquals("[0, 2, 3, 4, 5, 6]", container.toString());
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    @DisplayName("remove() needs a preceding next() and external changes are detected")
+    void testIteratorContract() {
+        SimpleContainer<Integer> container = filled(3);
+        Iterator<Integer> it = container.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+
+        Iterator<Integer> other = container.iterator();
+        other.next();
+        container.add(3);
+        assertThrows(ConcurrentModificationException.class, other::next);
+    }
+
+    @Test
+    @DisplayName("The spliterator closes an open gap first and its pieces cover every element exactly once")
+    void testSpliteratorClosesGap() {
+        SimpleContainer<Integer> container = filled(1_000);
+        Iterator<Integer> it = container.iterator();
+        // Remove the multiples of 3 below 300, then abandon the iterator with the gap still open
+        for (int i = 0; i < 300; i++) {
+            if (it.next() % 3 == 0) {
+                it.remove();
+            }
+        }
+        List<Integer> expected = contents(container);
+        assertEquals(900, expected.size());
+
+        Spliterator<Integer> spliterator = container.spliterator();
+        assertEquals(900, spliterator.estimateSize());
+        List<Integer> visited = new ArrayList<>();
+        traverse(spliterator, visited);
+        assertEquals(expected, visited);
+        assertEquals(expected, collect(container));
+    }
+
+    @Test
+    @DisplayName("A parallel stream sums to the same result as a sequential one, also with an open gap")
+    void testParallelStream() {
+        SimpleContainer<Integer> container = filled(100_000);
+        Iterator<Integer> it = container.iterator();
+        for (int i = 0; i < 1_000; i++) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        long sequential = 0;
+        for (Integer value : contents(container)) {
+            sequential += value;
+        }
+        assertEquals(sequential, container.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(sequential, container.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(contents(container), container.parallelStream().collect(Collectors.toList()));
+
+        Spliterator<Integer> bound = container.spliterator();
+        bound.tryAdvance(e -> { });
+        container.add(-1);
+        assertThrows(ConcurrentModificationException.class, () -> bound.forEachRemaining(e -> { }));
+    }
+
+    @Test
+    @DisplayName("trimToSize() closes an open gap, an empty container trims to capacity 0 and grows again")
+    void testTrimToSize() {
+        SimpleContainer<Integer> container = filled(11);
+        // The default capacity of 10 doubles once
+        assertEquals(20, container.capacity());
+        assertEquals(9, container.wastedSlots());
+        assertEquals(ObjectLayout.objectSize(1, 4 * Integer.BYTES) + ObjectLayout.referenceArraySize(20),
+                container.estimatedRetainedBytes());
+
+        Iterator<Integer> it = container.iterator();
+        it.next();
+        it.remove();
+        container.trimToSize();
+        assertEquals(10, container.capacity());
+        assertEquals(0, container.wastedSlots());
+        assertEquals(contents(container), collect(container));
+
+        SimpleContainer<Integer> empty = new SimpleContainer<>();
+        empty.trimToSize();
+        assertEquals(0, empty.capacity());
+        assertEquals(0, empty.wastedSlots());
+        empty.add(1);
+        assertEquals(10, empty.capacity());
+        assertEquals(9, empty.wastedSlots());
+        assertEquals("[1]", empty.toString());
+    }
+
+    /**
+     * Splits the spliterator until no piece can be split any more, checking the sizes of the pieces,
+     * and adds the elements of the pieces to visited from the lowest range to the highest
+     */
+    private static void traverse(Spliterator<Integer> spliterator, List<Integer> visited) {
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        long size = spliterator.estimateSize();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        if (prefix != null) {
+            assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+            traverse(prefix, visited);
+            traverse(spliterator, visited);
+            return;
+        }
+        int before = visited.size();
+        if (spliterator.tryAdvance(visited::add)) {
+            spliterator.forEachRemaining(visited::add);
+        }
+        assertEquals(size, visited.size() - before);
+        assertFalse(spliterator.tryAdvance(visited::add));
+    }
+
+    private static SimpleContainer<Integer> filled(int count) {
+        SimpleContainer<Integer> container = new SimpleContainer<>();
+        for (int i = 0; i < count; i++) {
+            container.add(i);
+        }
+        return container;
+    }
+
+    private static List<Integer> contents(SimpleContainer<Integer> container) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < container.size(); i++) {
+            values.add(container.get(i));
+        }
+        return values;
+    }
+
+    private static List<Integer> collect(SimpleContainer<Integer> container) {
+        List<Integer> values = new ArrayList<>();
+        for (Integer value : container) {
+            values.add(value);
+        }
+        return values;
+    }
+}
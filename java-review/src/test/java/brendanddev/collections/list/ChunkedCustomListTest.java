@@ -0,0 +1,128 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ChunkedCustomList.
+ *
+ * Chunks hold 4096 elements, so the lists here are filled past several chunk boundaries and
+ * compared against a java.util.ArrayList holding the same elements.
+ */
+public class ChunkedCustomListTest {
+
+    private static final long SEED = 42;
+    private static final int CHUNK_SIZE = 4096;
+    private static final int COUNT = 3 * CHUNK_SIZE + 17;
+
+    @Test
+    @DisplayName("Appends across chunk boundaries keep every element in order")
+    void testAppendAcrossChunks() {
+        ChunkedCustomList<Integer> list = new ChunkedCustomList<>();
+        for (int i = 0; i < COUNT; i++) {
+            list.add(i);
+        }
+        assertEquals(COUNT, list.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+
+        int expected = 0;
+        for (Integer element : list) {
+            assertEquals(Integer.valueOf(expected++), element);
+        }
+        assertEquals(COUNT, expected);
+    }
+
+    @Test
+    @DisplayName("get and set address the right chunk and slot")
+    void testGetAndSet() {
+        ChunkedCustomList<Integer> list = new ChunkedCustomList<>();
+        for (int i = 0; i < COUNT; i++) {
+            list.add(i);
+        }
+        // The last slot of one chunk and the first slot of the next
+        int[] indexes = {0, CHUNK_SIZE - 1, CHUNK_SIZE, 2 * CHUNK_SIZE, COUNT - 1};
+        for (int index : indexes) {
+            assertEquals(Integer.valueOf(index), list.set(index, -index));
+        }
+        for (int i = 0; i < COUNT; i++) {
+            int expected = i;
+            for (int index : indexes) {
+                if (index == i) {
+                    expected = -i;
+                }
+            }
+            assertEquals(Integer.valueOf(expected), list.get(i));
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(COUNT));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(COUNT, 0));
+    }
+
+    @Test
+    @DisplayName("Removals carry elements across chunk boundaries and match ArrayList")
+    void testRandomRemovals() {
+        Random random = new Random(SEED);
+        ChunkedCustomList<Integer> list = new ChunkedCustomList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), list.remove(index));
+        }
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("The iterator is fail fast and stops at the end")
+    void testIteratorFailFast() {
+        ChunkedCustomList<Integer> list = new ChunkedCustomList<>();
+        for (int i = 0; i < CHUNK_SIZE + 1; i++) {
+            list.add(i);
+        }
+
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+        list.add(-1);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Integer> removing = list.iterator();
+        removing.next();
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, removing::next);
+
+        // set does not change the structure, so the iterator keeps going
+        Iterator<Integer> setting = list.iterator();
+        setting.next();
+        list.set(1, 100);
+        assertEquals(Integer.valueOf(100), setting.next());
+
+        Iterator<Integer> exhausted = list.iterator();
+        for (int i = 0; i < list.size(); i++) {
+            exhausted.next();
+        }
+        assertFalse(exhausted.hasNext());
+        assertThrows(NoSuchElementException.class, exhausted::next);
+
+        assertThrows(ConcurrentModificationException.class, () -> list.forEach(e -> list.add(e)));
+    }
+}
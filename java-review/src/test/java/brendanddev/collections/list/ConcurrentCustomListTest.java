@@ -0,0 +1,120 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multi-threaded stress tests for ConcurrentCustomList.
+ *
+ * Several writer threads add and remove elements while reader threads continuously call get(), size()
+ * and iterate the list. The readers check that they never observe a torn state (a null element or an
+ * index that is out of range for the size they just read), and the final contents are checked once
+ * all writers have finished.
+ */
+public class ConcurrentCustomListTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int ADDS_PER_WRITER = 20_000;
+
+    @Test
+    @DisplayName("Concurrent adds are never lost")
+    void testConcurrentAdds() throws Exception {
+        ConcurrentCustomList<Integer> list = new ConcurrentCustomList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Each writer adds its own range of values
+        for (int w = 0; w < WRITERS; w++) {
+            final int base = w * ADDS_PER_WRITER;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDS_PER_WRITER; i++) {
+                    list.add(base + i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Every value must be present exactly once
+        assertEquals(WRITERS * ADDS_PER_WRITER, list.size());
+        boolean[] seen = new boolean[WRITERS * ADDS_PER_WRITER];
+        for (Integer value : list) {
+            assertFalse(seen[value], "Value added twice: " + value);
+            seen[value] = true;
+        }
+    }
+
+    @Test
+    @DisplayName("Readers never observe a torn state while writers add and remove")
+    void testReadersDuringWrites() throws Exception {
+        ConcurrentCustomList<Integer> list = new ConcurrentCustomList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        // Writers add two elements and remove one, so the list keeps growing while shifting
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < ADDS_PER_WRITER / 10; i++) {
+                    list.add(i);
+                    list.add(i);
+                    list.remove(0);
+                }
+                return null;
+            }));
+        }
+
+        // Readers check every element they can see through get() and the iterator
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                while (writing.get()) {
+                    int size = list.size();
+                    for (int i = 0; i < size; i++) {
+                        try {
+                            assertNotNull(list.get(i), "get() returned a null element");
+                        } catch (IndexOutOfBoundsException e) {
+                            // A remove() shrank the list after size() was read
+                            break;
+                        }
+                    }
+                    for (Integer value : list) {
+                        assertNotNull(value, "Iterator returned a null element");
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> future : writers) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> future : readers) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(WRITERS * (ADDS_PER_WRITER / 10), list.size());
+    }
+}
@@ -0,0 +1,369 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * Tests for the bulk operations, the traversal and the spliterator of CustomList.
+ *
+ * Every bulk operation is applied to a CustomList and to a java.util.ArrayList holding the same
+ * elements, and the two are compared afterwards. Insertions and removals are done at the
+ * front, in the middle and at the end of the list, where the shifted tail is longest,
+ * somewhere in between and empty. The iterator, forEach() and the cursor are checked to be
+ * fail fast when the list is structurally modified while they walk it, and the spliterator is
+ * split down to single elements to check that its pieces cover the list exactly once.
+ */
+public class CustomListTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("addAll appends arrays and collections in order, growing the list as needed")
+    void testAddAll() {
+        CustomList<Integer> list = new CustomList<>(2);
+        List<Integer> expected = new ArrayList<>();
+
+        assertFalse(list.addAll(new Integer[0]));
+        assertFalse(list.addAll(Collections.<Integer>emptyList()));
+        assertEquals(0, list.size());
+
+        Integer[] first = range(0, 10);
+        assertTrue(list.addAll(first));
+        expected.addAll(Arrays.asList(first));
+        assertContents(expected, list);
+
+        List<Integer> second = Arrays.asList(range(10, 100));
+        assertTrue(list.addAll(second));
+        expected.addAll(second);
+        assertContents(expected, list);
+        assertTrue(list.capacity() >= 100);
+    }
+
+    @Test
+    @DisplayName("insertAll inserts at the front, in the middle and at the end")
+    void testInsertAll() {
+        CustomList<Integer> list = new CustomList<>();
+        List<Integer> expected = new ArrayList<>();
+        list.addAll(range(0, 10));
+        expected.addAll(Arrays.asList(range(0, 10)));
+
+        int[] positions = {0, 5, 20};
+        for (int i = 0; i < positions.length; i++) {
+            Integer[] values = range(100 * (i + 1), 100 * (i + 1) + 5);
+            list.insertAll(positions[i], values);
+            expected.addAll(positions[i], Arrays.asList(values));
+            assertContents(expected, list);
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.insertAll(-1, range(0, 1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.insertAll(list.size() + 1, range(0, 1)));
+    }
+
+    @Test
+    @DisplayName("removeRange removes from the front, the middle and the end")
+    void testRemoveRange() {
+        CustomList<Integer> list = new CustomList<>();
+        List<Integer> expected = new ArrayList<>();
+        list.addAll(range(0, 30));
+        expected.addAll(Arrays.asList(range(0, 30)));
+
+        // Front
+        list.removeRange(0, 5);
+        expected.subList(0, 5).clear();
+        assertContents(expected, list);
+
+        // Middle
+        list.removeRange(10, 15);
+        expected.subList(10, 15).clear();
+        assertContents(expected, list);
+
+        // End
+        list.removeRange(list.size() - 5, list.size());
+        expected.subList(expected.size() - 5, expected.size()).clear();
+        assertContents(expected, list);
+
+        // Empty range is a no-op
+        list.removeRange(3, 3);
+        assertContents(expected, list);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(-1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(0, list.size() + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(4, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(list.size()));
+    }
+
+    @Test
+    @DisplayName("removeIf removes matches at the front, in the middle and at the end")
+    void testRemoveIf() {
+        CustomList<Integer> list = new CustomList<>();
+        List<Integer> expected = new ArrayList<>();
+        list.addAll(range(0, 20));
+        expected.addAll(Arrays.asList(range(0, 20)));
+
+        assertTrue(list.removeIf(e -> e < 3 || (e >= 8 && e < 11) || e >= 17));
+        expected.removeIf(e -> e < 3 || (e >= 8 && e < 11) || e >= 17);
+        assertContents(expected, list);
+
+        assertFalse(list.removeIf(e -> e > 100));
+        assertContents(expected, list);
+    }
+
+    @Test
+    @DisplayName("Random mix of bulk operations matches ArrayList")
+    void testRandomBulkOperations() {
+        Random random = new Random(SEED);
+        CustomList<Integer> list = new CustomList<>();
+        List<Integer> expected = new ArrayList<>();
+        int next = 0;
+
+        for (int round = 0; round < 2_000; round++) {
+            int count = random.nextInt(8);
+            switch (random.nextInt(3)) {
+                case 0: {
+                    Integer[] values = range(next, next + count);
+                    next += count;
+                    list.addAll(values);
+                    expected.addAll(Arrays.asList(values));
+                    break;
+                }
+                case 1: {
+                    int index = random.nextInt(expected.size() + 1);
+                    Integer[] values = range(next, next + count);
+                    next += count;
+                    list.insertAll(index, values);
+                    expected.addAll(index, Arrays.asList(values));
+                    break;
+                }
+                default: {
+                    int from = random.nextInt(expected.size() + 1);
+                    int to = from + random.nextInt(expected.size() - from + 1);
+                    list.removeRange(from, to);
+                    expected.subList(from, to).clear();
+                    break;
+                }
+            }
+        }
+        assertContents(expected, list);
+    }
+
+    @Test
+    @DisplayName("The iterator fails fast after add or remove and throws NoSuchElementException past the end")
+    void testIteratorFailFast() {
+        CustomList<Integer> list = new CustomList<>();
+        list.addAll(range(0, 5));
+
+        Iterator<Integer> adding = list.iterator();
+        adding.next();
+        list.add(5);
+        assertThrows(ConcurrentModificationException.class, adding::next);
+
+        Iterator<Integer> removing = list.iterator();
+        removing.next();
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, removing::next);
+
+        Iterator<Integer> exhausted = list.iterator();
+        for (int i = 0; i < list.size(); i++) {
+            exhausted.next();
+        }
+        assertFalse(exhausted.hasNext());
+        assertThrows(NoSuchElementException.class, exhausted::next);
+
+        assertThrows(ConcurrentModificationException.class, () -> list.forEach(e -> list.add(e)));
+        assertThrows(ConcurrentModificationException.class, () -> list.forEach(e -> list.remove(0)));
+    }
+
+    @Test
+    @DisplayName("A cursor walks the list, fails fast, and is reused after reset()")
+    void testCursor() {
+        CustomList<Integer> list = new CustomList<>();
+        list.addAll(range(0, 5));
+        CustomList<Integer>.Cursor cursor = list.cursor();
+
+        assertThrows(NoSuchElementException.class, cursor::get);
+        int expected = 0;
+        while (cursor.advance()) {
+            assertEquals(expected, cursor.index());
+            assertEquals(Integer.valueOf(expected++), cursor.get());
+        }
+        assertEquals(5, expected);
+        assertFalse(cursor.advance());
+        assertThrows(NoSuchElementException.class, cursor::get);
+
+        // A modification is only seen by the cursor after reset()
+        list.add(5);
+        assertThrows(ConcurrentModificationException.class, cursor::advance);
+        assertSame(cursor, cursor.reset());
+        expected = 0;
+        while (cursor.advance()) {
+            assertEquals(Integer.valueOf(expected++), cursor.get());
+        }
+        assertEquals(6, expected);
+
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, cursor::get);
+        assertTrue(cursor.reset().advance());
+        assertEquals(Integer.valueOf(1), cursor.get());
+    }
+
+    @Test
+    @DisplayName("Splitting the spliterator down to single elements covers every element exactly once, in order")
+    void testSpliteratorCoversRangeOnce() {
+        CustomList<Integer> list = new CustomList<>();
+        list.addAll(range(0, 1_001));
+        Spliterator<Integer> spliterator = list.spliterator();
+        assertEquals(1_001, spliterator.estimateSize());
+
+        List<Integer> visited = new ArrayList<>();
+        traverse(spliterator, visited);
+        assertEquals(Arrays.asList(range(0, 1_001)), visited);
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test
+    @DisplayName("The spliterator binds late and fails fast once bound")
+    void testSpliteratorBinding() {
+        CustomList<Integer> list = new CustomList<>();
+        list.addAll(range(0, 10));
+        Spliterator<Integer> late = list.spliterator();
+        list.add(10);
+        assertEquals(11, late.estimateSize());
+
+        Spliterator<Integer> bound = list.spliterator();
+        bound.tryAdvance(e -> { });
+        list.add(11);
+        assertThrows(ConcurrentModificationException.class, () -> bound.forEachRemaining(e -> { }));
+        assertThrows(ConcurrentModificationException.class, () -> list.spliterator().tryAdvance(e -> list.add(e)));
+    }
+
+    @Test
+    @DisplayName("A parallel stream sums to the same result as a sequential one")
+    void testParallelStream() {
+        CustomList<Integer> list = new CustomList<>();
+        list.addAll(range(0, 100_000));
+        long sequential = 0;
+        for (Integer element : list) {
+            sequential += element;
+        }
+        assertEquals(sequential, list.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(sequential, list.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(100_000, list.parallelStream().filter(e -> e >= 0).count());
+        assertEquals(Arrays.asList(range(0, 100_000)), list.parallelStream().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("capacity(), wastedSlots() and the byte estimate follow the scenario printed by list.Main")
+    void testMemoryFootprint() {
+        CustomList<String> list = new CustomList<>();
+        for (int i = 1; i <= 15; i++) {
+            list.add("Item " + i);
+        }
+        // The default capacity of 10 grows by 50% once
+        assertEquals(15, list.capacity());
+        assertEquals(0, list.wastedSlots());
+        assertEquals(ObjectLayout.objectSize(1, 2 * Integer.BYTES) + ObjectLayout.referenceArraySize(15),
+                list.estimatedRetainedBytes());
+
+        list.remove(5);
+        assertEquals(15, list.capacity());
+        assertEquals(1, list.wastedSlots());
+
+        long before = list.estimatedRetainedBytes();
+        list.trimToSize();
+        assertEquals(14, list.capacity());
+        assertEquals(0, list.wastedSlots());
+        assertTrue(list.estimatedRetainedBytes() <= before);
+    }
+
+    @Test
+    @DisplayName("An empty list trims to capacity 0 and grows again from there")
+    void testTrimEmptyAndGrowFromZero() {
+        CustomList<Integer> list = new CustomList<>();
+        list.trimToSize();
+        assertEquals(0, list.capacity());
+        assertEquals(0, list.wastedSlots());
+        assertEquals(ObjectLayout.objectSize(1, 2 * Integer.BYTES) + ObjectLayout.referenceArraySize(0),
+                list.estimatedRetainedBytes());
+
+        // 50% of 0 and of 1 is 0, so the first steps grow to exactly the size needed
+        int[] expectedCapacities = {1, 2, 3, 4, 6, 6, 9};
+        for (int i = 0; i < expectedCapacities.length; i++) {
+            list.add(i);
+            assertEquals(expectedCapacities[i], list.capacity(), "Capacity after " + (i + 1) + " adds");
+            assertEquals(expectedCapacities[i] - (i + 1), list.wastedSlots());
+        }
+        assertContents(Arrays.asList(range(0, expectedCapacities.length)), list);
+
+        // Trimming a list that is already full changes nothing
+        CustomList<Integer> full = new CustomList<>(3);
+        full.addAll(range(0, 3));
+        Iterator<Integer> iterator = full.iterator();
+        full.trimToSize();
+        assertEquals(3, full.capacity());
+        assertEquals(Integer.valueOf(0), iterator.next());
+    }
+
+    /**
+     * Splits the spliterator until no piece can be split any more, checking the sizes of the pieces,
+     * and adds the elements of the pieces to visited from the lowest range to the highest
+     */
+    private static void traverse(Spliterator<Integer> spliterator, List<Integer> visited) {
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        long size = spliterator.estimateSize();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        if (prefix != null) {
+            assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+            traverse(prefix, visited);
+            traverse(spliterator, visited);
+            return;
+        }
+        int before = visited.size();
+        if (spliterator.tryAdvance(visited::add)) {
+            spliterator.forEachRemaining(visited::add);
+        }
+        assertEquals(size, visited.size() - before);
+        assertFalse(spliterator.tryAdvance(visited::add));
+    }
+
+    /**
+     * Returns the integers from start (inclusive) to end (exclusive)
+     */
+    private static Integer[] range(int start, int end) {
+        Integer[] values = new Integer[end - start];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = start + i;
+        }
+        return values;
+    }
+
+    private static void assertContents(List<Integer> expected, CustomList<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i), "Element at index " + i);
+        }
+        List<Integer> iterated = new ArrayList<>();
+        for (Integer element : actual) {
+            iterated.add(element);
+        }
+        assertEquals(expected, iterated);
+    }
+}
@@ -0,0 +1,146 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import brendanddev.collections.customobjects.CustomObject;
+
+/**
+ * Tests that MappedCustomList keeps its elements across close and reopen.
+ */
+public class MappedCustomListTest {
+
+    // Records of 3 MB, so only two fit in a mapped chunk and the list spans many chunks
+    private static final RecordCodec<Integer> LARGE_RECORDS = new RecordCodec<Integer>() {
+        @Override
+        public int recordSize() {
+            return 3_000_000;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+            buffer.putInt(offset + recordSize() - Integer.BYTES, ~element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            int value = buffer.getInt(offset);
+            assertEquals(~value, buffer.getInt(offset + recordSize() - Integer.BYTES));
+            return value;
+        }
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Elements are still there after reopening the file")
+    void testReopen() throws IOException {
+        Path file = tempDir.resolve("objects.bin");
+        try (MappedCustomList<CustomObject> list = new MappedCustomList<>(file, new CustomObjectCodec())) {
+            for (int i = 0; i < 1000; i++) {
+                list.add(new CustomObject("Object " + i, i * 10, i));
+            }
+            list.remove(0);
+            list.force();
+        }
+
+        try (MappedCustomList<CustomObject> list = new MappedCustomList<>(file, new CustomObjectCodec())) {
+            assertEquals(999, list.size());
+            CustomObject first = list.get(0);
+            assertEquals("Object 1", first.getName());
+            assertEquals(10, first.getValue());
+            assertEquals(999, list.get(998).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Removals across chunks persist")
+    void testRemoveAcrossChunks() throws IOException {
+        Path file = tempDir.resolve("large.bin");
+        try (MappedCustomList<Integer> list = new MappedCustomList<>(file, LARGE_RECORDS)) {
+            for (int i = 0; i < 9; i++) {
+                list.add(i);
+            }
+            assertEquals(Integer.valueOf(1), list.remove(1));
+        }
+        try (MappedCustomList<Integer> list = new MappedCustomList<>(file, LARGE_RECORDS)) {
+            assertEquals(8, list.size());
+            int[] expected = {0, 2, 3, 4, 5, 6, 7, 8};
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(Integer.valueOf(expected[i]), list.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Files written with another record size or by something else are rejected")
+    void testRejectsForeignFiles() throws IOException {
+        Path file = tempDir.resolve("objects.bin");
+        try (MappedCustomList<CustomObject> list = new MappedCustomList<>(file, new CustomObjectCodec())) {
+            list.add(new CustomObject("Object", 1, 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MappedCustomList<>(file, LARGE_RECORDS));
+
+        Path other = tempDir.resolve("other.txt");
+        Files.write(other, "not a list, just some text".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> new MappedCustomList<>(other, new CustomObjectCodec()));
+    }
+
+    @Test
+    @DisplayName("Headers claiming a negative size or more records than the file holds are rejected")
+    void testRejectsCorruptSize() throws IOException {
+        Path file = tempDir.resolve("corrupt.bin");
+        try (MappedCustomList<Integer> list = new MappedCustomList<>(file, LARGE_RECORDS)) {
+            list.add(1);
+        }
+        long length = Files.size(file);
+
+        overwriteSize(file, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> new MappedCustomList<>(file, LARGE_RECORDS));
+        overwriteSize(file, -1);
+        assertThrows(IOException.class, () -> new MappedCustomList<>(file, LARGE_RECORDS));
+        // The rejected opens must not have extended the file
+        assertEquals(length, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("A foreign file shorter than the header is rejected and left as it was")
+    void testRejectsShortForeignFile() throws IOException {
+        Path file = tempDir.resolve("short.txt");
+        byte[] content = "short".getBytes();
+        Files.write(file, content);
+        assertThrows(IllegalArgumentException.class, () -> new MappedCustomList<>(file, LARGE_RECORDS));
+        assertArrayEquals(content, Files.readAllBytes(file));
+
+        // A longer foreign file is not modified either
+        Path other = tempDir.resolve("other.txt");
+        byte[] text = "not a list, just some text".getBytes();
+        Files.write(other, text);
+        assertThrows(IllegalArgumentException.class, () -> new MappedCustomList<>(other, LARGE_RECORDS));
+        assertArrayEquals(text, Files.readAllBytes(other));
+    }
+
+    /**
+     * Overwrites the size stored in the header of a list file
+     */
+    private static void overwriteSize(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(0, size);
+            channel.write(buffer, 8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.customobjects.CustomObject;
+
+/**
+ * Tests for OffHeapRecordList and CustomObjectCodec.
+ *
+ * The page tests use a codec with very large records, so that only two records fit in a page
+ * and removals have to carry records across many page boundaries.
+ */
+public class OffHeapRecordListTest {
+
+    // Stores an int at both ends of a 300 KB record, so records moved only partly are detected
+    private static final RecordCodec<Integer> LARGE_RECORDS = new RecordCodec<Integer>() {
+        @Override
+        public int recordSize() {
+            return 300_000;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+            buffer.putInt(offset + recordSize() - Integer.BYTES, ~element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            int value = buffer.getInt(offset);
+            assertEquals(~value, buffer.getInt(offset + recordSize() - Integer.BYTES));
+            return value;
+        }
+    };
+
+    @Test
+    @DisplayName("CustomObjects survive a round trip through the codec")
+    void testCustomObjectRoundTrip() {
+        try (OffHeapRecordList<CustomObject> list = new OffHeapRecordList<>(new CustomObjectCodec())) {
+            list.add(new CustomObject("Caf\u00e9", 42, 7));
+            list.add(new CustomObject(null, -1, 8));
+
+            CustomObject first = list.get(0);
+            assertEquals("Caf\u00e9", first.getName());
+            assertEquals(42, first.getValue());
+            assertEquals(7, first.getId());
+            assertNull(list.get(1).getName());
+            assertEquals(8, list.get(1).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Names longer than the record allows are rejected")
+    void testNameTooLong() {
+        try (OffHeapRecordList<CustomObject> list = new OffHeapRecordList<>(new CustomObjectCodec())) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i <= CustomObjectCodec.MAX_NAME_BYTES; i++) {
+                name.append('x');
+            }
+            assertThrows(IllegalArgumentException.class, () -> list.add(new CustomObject(name.toString(), 0, 0)));
+        }
+    }
+
+    @Test
+    @DisplayName("Removals shift records across page boundaries like a heap list")
+    void testRemoveAcrossPages() {
+        Random random = new Random(42);
+        List<Integer> expected = new ArrayList<>();
+        try (OffHeapRecordList<Integer> list = new OffHeapRecordList<>(LARGE_RECORDS, 1)) {
+            for (int op = 0; op < 200; op++) {
+                if (expected.isEmpty() || random.nextInt(3) > 0) {
+                    int value = random.nextInt();
+                    list.add(value);
+                    expected.add(value);
+                } else {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index), list.remove(index));
+                }
+                assertEquals(expected.size(), list.size());
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The list cannot be used after close()")
+    void testClose() {
+        OffHeapRecordList<Integer> list = new OffHeapRecordList<>(LARGE_RECORDS);
+        list.add(1);
+        list.close();
+        list.close();
+        assertEquals(0, list.allocatedBytes());
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalStateException.class, () -> list.add(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> new OffHeapRecordList<>(LARGE_RECORDS).get(0));
+    }
+}
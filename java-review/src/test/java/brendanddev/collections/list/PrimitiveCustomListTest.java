@@ -0,0 +1,210 @@
+package brendanddev.collections.list;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.ObjectLayout;
+
+/**
+ * Tests for the primitive specializations IntCustomList, LongCustomList and DoubleCustomList.
+ *
+ * The three classes are the same template over different element types, so every test runs the
+ * same operations on all three and checks them against a java.util.ArrayList of boxed values.
+ */
+public class PrimitiveCustomListTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("Adding past the default capacity grows every list and keeps the values in order")
+    void testGrowth() {
+        IntCustomList ints = new IntCustomList();
+        LongCustomList longs = new LongCustomList();
+        DoubleCustomList doubles = new DoubleCustomList();
+        int initialCapacity = ints.capacity();
+        for (int i = 0; i < 1_000; i++) {
+            ints.add(i);
+            longs.add(i * 10_000_000_000L);
+            doubles.add(i + 0.5);
+        }
+        assertTrue(ints.capacity() > initialCapacity);
+        assertTrue(longs.capacity() > initialCapacity);
+        assertTrue(doubles.capacity() > initialCapacity);
+        assertEquals(1_000, ints.size());
+        assertEquals(1_000, longs.size());
+        assertEquals(1_000, doubles.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, ints.get(i));
+            assertEquals(i * 10_000_000_000L, longs.get(i));
+            assertEquals(i + 0.5, doubles.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("addAll appends whole arrays, including empty ones")
+    void testAddAll() {
+        IntCustomList ints = new IntCustomList(2);
+        LongCustomList longs = new LongCustomList(2);
+        DoubleCustomList doubles = new DoubleCustomList(2);
+
+        ints.addAll(new int[0]);
+        longs.addAll(new long[0]);
+        doubles.addAll(new double[0]);
+        assertEquals(0, ints.size());
+
+        ints.add(-1);
+        longs.add(-1);
+        doubles.add(-1);
+        ints.addAll(new int[] {1, 2, 3, 4, 5});
+        longs.addAll(new long[] {1, 2, 3, 4, 5});
+        doubles.addAll(new double[] {1, 2, 3, 4, 5});
+
+        assertArrayEquals(new int[] {-1, 1, 2, 3, 4, 5}, ints.toArray());
+        assertArrayEquals(new long[] {-1, 1, 2, 3, 4, 5}, longs.toArray());
+        assertArrayEquals(new double[] {-1, 1, 2, 3, 4, 5}, doubles.toArray());
+    }
+
+    @Test
+    @DisplayName("remove shifts the following values left at the front, in the middle and at the end")
+    void testRemove() {
+        Random random = new Random(SEED);
+        IntCustomList ints = new IntCustomList();
+        LongCustomList longs = new LongCustomList();
+        DoubleCustomList doubles = new DoubleCustomList();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ints.add(i);
+            longs.add(i);
+            doubles.add(i);
+            expected.add(i);
+        }
+
+        int[] fixed = {0, 100, expected.size() - 3};
+        for (int index : fixed) {
+            int value = expected.remove(index);
+            assertEquals(value, ints.remove(index));
+            assertEquals(value, longs.remove(index));
+            assertEquals(value, doubles.remove(index));
+        }
+        while (!expected.isEmpty()) {
+            int index = random.nextInt(expected.size());
+            int value = expected.remove(index);
+            assertEquals(value, ints.remove(index));
+            assertEquals(value, longs.remove(index));
+            assertEquals(value, doubles.remove(index));
+            assertEquals(expected.size(), ints.size());
+            assertEquals(expected.size(), longs.size());
+            assertEquals(expected.size(), doubles.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Indexes outside the list are rejected")
+    void testIndexOutOfRange() {
+        IntCustomList ints = new IntCustomList();
+        LongCustomList longs = new LongCustomList();
+        DoubleCustomList doubles = new DoubleCustomList();
+        ints.add(1);
+        longs.add(1);
+        doubles.add(1);
+
+        // The backing arrays are larger than the lists, but only the first slot holds a value
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> longs.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> doubles.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> longs.remove(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> doubles.remove(1));
+        assertThrows(IllegalArgumentException.class, () -> new IntCustomList(0));
+        assertThrows(IllegalArgumentException.class, () -> new LongCustomList(-1));
+        assertThrows(IllegalArgumentException.class, () -> new DoubleCustomList(0));
+    }
+
+    @Test
+    @DisplayName("trimToSize() releases the unused slots and an empty list grows again from capacity 0")
+    void testTrimToSize() {
+        IntCustomList ints = new IntCustomList();
+        LongCustomList longs = new LongCustomList();
+        DoubleCustomList doubles = new DoubleCustomList();
+        ints.trimToSize();
+        longs.trimToSize();
+        doubles.trimToSize();
+        assertEquals(0, ints.capacity());
+        assertEquals(0, longs.capacity());
+        assertEquals(0, doubles.capacity());
+
+        for (int i = 0; i < 5; i++) {
+            ints.add(i);
+            longs.add(i);
+            doubles.add(i);
+        }
+        assertEquals(6, ints.capacity());
+        assertEquals(1, longs.wastedSlots());
+        assertEquals(ObjectLayout.objectSize(1, Integer.BYTES) + ObjectLayout.arraySize(6, Double.BYTES),
+                doubles.estimatedRetainedBytes());
+
+        ints.trimToSize();
+        longs.trimToSize();
+        doubles.trimToSize();
+        assertEquals(0, ints.wastedSlots());
+        assertEquals(0, longs.wastedSlots());
+        assertEquals(5, doubles.capacity());
+        assertArrayEquals(new long[] {0, 1, 2, 3, 4}, longs.toArray());
+    }
+
+    @Test
+    @DisplayName("forEach and toArray see exactly the values in the list")
+    void testForEachAndToArray() {
+        IntCustomList ints = new IntCustomList();
+        LongCustomList longs = new LongCustomList();
+        DoubleCustomList doubles = new DoubleCustomList();
+        for (int i = 0; i < 25; i++) {
+            ints.add(i);
+            longs.add(i);
+            doubles.add(i);
+        }
+        ints.remove(0);
+        longs.remove(0);
+        doubles.remove(0);
+
+        List<Integer> visitedInts = new ArrayList<>();
+        List<Long> visitedLongs = new ArrayList<>();
+        List<Double> visitedDoubles = new ArrayList<>();
+        ints.forEach(visitedInts::add);
+        longs.forEach(visitedLongs::add);
+        doubles.forEach(visitedDoubles::add);
+        assertEquals(24, visitedInts.size());
+        assertEquals(24, visitedLongs.size());
+        assertEquals(24, visitedDoubles.size());
+
+        int[] intArray = ints.toArray();
+        long[] longArray = longs.toArray();
+        double[] doubleArray = doubles.toArray();
+        assertEquals(24, intArray.length);
+        for (int i = 0; i < 24; i++) {
+            assertEquals(i + 1, intArray[i]);
+            assertEquals(i + 1, (int) visitedInts.get(i));
+            assertEquals(i + 1, longArray[i]);
+            assertEquals(i + 1, (long) visitedLongs.get(i));
+            assertEquals(i + 1, doubleArray[i]);
+            assertEquals(i + 1, (double) visitedDoubles.get(i));
+        }
+
+        // toArray returns a copy
+        intArray[0] = -1;
+        assertEquals(1, ints.get(0));
+
+        IntCustomList small = new IntCustomList();
+        small.addAll(new int[] {1, 2, 3});
+        assertEquals("[1, 2, 3]", small.toString());
+    }
+}
@@ -0,0 +1,115 @@
+package brendanddev.collections.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.HashingStrategy;
+
+/**
+ * Tests for CustomMap.
+ *
+ * A strategy that hashes every key to the same value puts all keys in one probe run, so each
+ * removal has to shift the rest of the run back for the remaining keys to stay reachable.
+ */
+public class CustomMapTest {
+
+    private static final long SEED = 42;
+
+    // Every key lands on the same home slot
+    private static final HashingStrategy<Integer> COLLIDING = new HashingStrategy<Integer>() {
+        @Override
+        public int hash(Integer element) {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Integer a, Integer b) {
+            return a.equals(b);
+        }
+    };
+
+    @Test
+    @DisplayName("The null key is stored and removed like any other key")
+    void testNullKey() {
+        CustomMap<String, String> map = new CustomMap<>();
+        assertFalse(map.containsKey(null));
+        assertNull(map.put(null, "null"));
+        assertTrue(map.containsKey(null));
+        assertEquals("null", map.get(null));
+        assertEquals(1, map.size());
+        assertEquals("null", map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("Removals from a single probe run keep the other keys reachable")
+    void testBackwardShiftInOneRun() {
+        Random random = new Random(SEED);
+        CustomMap<Integer, Integer> map = new CustomMap<>(64, 0.75f, COLLIDING);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(40);
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 40; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Growing the table keeps every key")
+    void testResize() {
+        CustomMap<Integer, Integer> map = new CustomMap<>(4);
+        int initialCapacity = map.capacity();
+        for (int key = 0; key < 100_000; key++) {
+            map.put(key, -key);
+        }
+        assertTrue(map.capacity() > initialCapacity);
+        assertEquals(100_000, map.size());
+        for (int key = 0; key < 100_000; key++) {
+            assertEquals(Integer.valueOf(-key), map.get(key));
+        }
+        assertEquals(100_000, map.keys().length);
+    }
+
+    @Test
+    @DisplayName("forEach and merge fail fast when a callback adds or removes keys")
+    void testFailFast() {
+        CustomMap<String, Integer> map = new CustomMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.remove("b")));
+
+        map.put("b", 2);
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.put(key + "!", value)));
+
+        assertThrows(ConcurrentModificationException.class, () -> map.merge("a", 1, (a, b) -> {
+            map.put("c", 3);
+            return a + b;
+        }));
+
+        // Replacing values does not change the structure
+        CustomMap<String, Integer> other = new CustomMap<>();
+        other.put("a", 1);
+        other.forEach((key, value) -> other.put(key, value + 1));
+        assertEquals(Integer.valueOf(2), other.get("a"));
+    }
+}
@@ -0,0 +1,210 @@
+package brendanddev.collections.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for IntObjectMap and the computeIfAbsent/merge methods of both maps, checked against a HashMap.
+ *
+ * The keys include 0, which IntObjectMap stores outside its table, and a small key range so that
+ * removals regularly shift other keys back through backward shift deletion.
+ */
+public class IntObjectMapTest {
+
+    private static final long SEED = 42;
+    private static final int KEYS = 2_000;
+
+    @Test
+    @DisplayName("Random operations match a HashMap")
+    void testMatchesHashMap() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        CustomMap<Integer, Integer> customMap = new CustomMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(SEED);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(KEYS) - KEYS / 2;
+            int value = random.nextInt(10);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    customMap.remove(key);
+                    break;
+                case 1:
+                    // Returning null for 0 removes the key
+                    assertEquals(expected.merge(key, value, (a, b) -> b == 0 ? null : a + b),
+                            map.merge(key, value, (a, b) -> b == 0 ? null : a + b));
+                    customMap.merge(key, value, (a, b) -> b == 0 ? null : a + b);
+                    break;
+                case 2:
+                    assertEquals(expected.computeIfAbsent(key, k -> value), map.computeIfAbsent(key, k -> value));
+                    customMap.computeIfAbsent(key, k -> value);
+                    break;
+                default:
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    customMap.put(key, value);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.size(), customMap.size());
+        for (int key = -KEYS / 2; key < KEYS / 2; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.get(key), customMap.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    @DisplayName("computeIfAbsent rejects a function that modifies the map")
+    void testComputeIfAbsentDetectsModification() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertThrows(ConcurrentModificationException.class, () -> map.computeIfAbsent(1, key -> {
+            map.put(2, "two");
+            return "one";
+        }));
+
+        CustomMap<String, String> customMap = new CustomMap<>();
+        assertThrows(ConcurrentModificationException.class, () -> customMap.computeIfAbsent("a", key -> {
+            customMap.put("b", "b");
+            return "a";
+        }));
+        assertNull(customMap.computeIfAbsent("c", key -> null));
+        assertEquals(1, customMap.size());
+    }
+
+    @Test
+    @DisplayName("The key 0 is stored, iterated and removed like any other key")
+    void testZeroKey() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(5, "five");
+        assertFalse(map.containsKey(0));
+        assertNull(map.put(0, "zero"));
+        assertTrue(map.containsKey(0));
+        assertEquals("zero", map.get(0));
+        assertEquals(2, map.size());
+
+        // The key 0 is visited first
+        List<Integer> visited = new ArrayList<>();
+        map.forEach((key, value) -> visited.add(key));
+        assertEquals(0, (int) visited.get(0));
+        assertEquals(2, visited.size());
+
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(1, map.size());
+
+        // A null value still counts as a mapping
+        map.put(0, null);
+        assertTrue(map.containsKey(0));
+        assertEquals("zero", map.computeIfAbsent(0, key -> "zero"));
+        assertEquals("zero!", map.merge(0, "!", String::concat));
+    }
+
+    @Test
+    @DisplayName("computeIfAbsent and merge on the key 0 reject functions that modify the map")
+    void testZeroKeyDetectsModification() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertThrows(ConcurrentModificationException.class, () -> map.computeIfAbsent(0, key -> {
+            map.put(1, "one");
+            return "zero";
+        }));
+        assertFalse(map.containsKey(0));
+
+        map.put(0, "zero");
+        assertThrows(ConcurrentModificationException.class, () -> map.merge(0, "!", (a, b) -> {
+            map.put(2, "two");
+            return a + b;
+        }));
+        assertEquals("zero", map.get(0));
+    }
+
+    @Test
+    @DisplayName("Removing from a probe run that wraps past the end of the table keeps the other keys reachable")
+    void testBackwardShiftAcrossWrap() {
+        IntObjectMap<Integer> template = new IntObjectMap<>(16);
+        int capacity = template.capacity();
+        int mask = capacity - 1;
+
+        // Three keys whose home is the last slot, then two whose home is slot 0, so the run wraps
+        int[] homes = {mask, mask, mask, 0, 0};
+        int[] keys = new int[homes.length];
+        int candidate = 1;
+        for (int i = 0; i < homes.length; i++) {
+            while (homeSlot(candidate, mask) != homes[i]) {
+                candidate++;
+            }
+            keys[i] = candidate++;
+        }
+
+        for (int removed = 0; removed < keys.length; removed++) {
+            IntObjectMap<Integer> map = new IntObjectMap<>(16);
+            for (int key : keys) {
+                map.put(key, key);
+            }
+            assertEquals(capacity, map.capacity());
+            assertEquals(Integer.valueOf(keys[removed]), map.remove(keys[removed]));
+            for (int i = 0; i < keys.length; i++) {
+                if (i == removed) {
+                    assertFalse(map.containsKey(keys[i]));
+                } else {
+                    assertEquals(Integer.valueOf(keys[i]), map.get(keys[i]), "Key " + keys[i] + " after removing " + keys[removed]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Growing the table keeps every key, including 0")
+    void testResize() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+        int initialCapacity = map.capacity();
+        for (int key = -50_000; key < 50_000; key++) {
+            map.put(key, key);
+        }
+        assertTrue(map.capacity() > initialCapacity);
+        assertEquals(100_000, map.size());
+        for (int key = -50_000; key < 50_000; key++) {
+            assertEquals(Integer.valueOf(key), map.get(key));
+        }
+        assertEquals(100_000, map.keys().length);
+    }
+
+    @Test
+    @DisplayName("forEach fails fast when the action adds or removes keys")
+    void testForEachFailFast() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(0, "zero");
+        map.put(1, "one");
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.remove(1)));
+
+        map.put(1, "one");
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.put(key + 100, value)));
+
+        // Replacing values does not change the structure
+        map.forEach((key, value) -> map.put(key, value + "!"));
+        assertEquals("zero!", map.get(0));
+    }
+
+    /**
+     * Mirrors the slot selection of IntObjectMap
+     */
+    private static int homeSlot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
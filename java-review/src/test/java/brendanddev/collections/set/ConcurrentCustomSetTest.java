@@ -0,0 +1,122 @@
+package brendanddev.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multi-threaded tests for ConcurrentCustomSet.
+ *
+ * Several threads add overlapping ranges of keys, so most keys are offered by more than one thread.
+ * Exactly one add() per key may succeed, and the size kept by the LongAdder must match the contents.
+ */
+public class ConcurrentCustomSetTest {
+
+    private static final int THREADS = 4;
+    private static final int KEYS = 50_000;
+
+    @Test
+    @DisplayName("Each key is added exactly once when threads race to add it")
+    void testConcurrentDedup() throws Exception {
+        ConcurrentCustomSet<Integer> set = new ConcurrentCustomSet<>(THREADS);
+        AtomicInteger successfulAdds = new AtomicInteger();
+        runConcurrently(thread -> {
+            // Every thread offers all keys, starting at a different offset
+            for (int i = 0; i < KEYS; i++) {
+                if (set.add((i + thread * 997) % KEYS)) {
+                    successfulAdds.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(KEYS, successfulAdds.get());
+        assertEquals(KEYS, set.size());
+        Set<Integer> seen = new HashSet<>();
+        for (Integer value : set) {
+            assertTrue(seen.add(value), "Iterator returned " + value + " twice");
+        }
+        assertEquals(KEYS, seen.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent adds and removes keep size() consistent")
+    void testConcurrentAddAndRemove() throws Exception {
+        ConcurrentCustomSet<Integer> set = new ConcurrentCustomSet<>();
+        runConcurrently(thread -> {
+            // Each thread owns its own keys, adds them all and removes the odd ones
+            int base = thread * KEYS;
+            for (int i = 0; i < KEYS; i++) {
+                set.add(base + i);
+            }
+            for (int i = 1; i < KEYS; i += 2) {
+                assertTrue(set.remove(base + i));
+            }
+        });
+
+        assertEquals(THREADS * KEYS / 2, set.size());
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(1));
+        set.clear();
+        assertEquals(0, set.size());
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The iterator can remove elements and supports null")
+    void testIteratorRemove() {
+        ConcurrentCustomSet<String> set = new ConcurrentCustomSet<>();
+        set.add(null);
+        set.add("a");
+        set.add("b");
+        for (Iterator<String> it = set.iterator(); it.hasNext(); ) {
+            if ("a".equals(it.next())) {
+                it.remove();
+            }
+        }
+        assertEquals(2, set.size());
+        assertTrue(set.contains(null));
+        assertFalse(set.contains("a"));
+    }
+
+    /**
+     * Runs the task on THREADS threads at once, passing each its thread number,
+     * and rethrows the first failure
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,137 @@
+package brendanddev.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import brendanddev.collections.HashingStrategy;
+
+/**
+ * Tests for the open addressing table of ImprovedCustomSet: adding, finding and removing elements,
+ * resizing, and backward shift deletion inside probe runs that wrap around the end of the table.
+ */
+public class ImprovedCustomSetTest {
+
+    private static final long SEED = 42;
+
+    // The default set has room for 16 elements at a load factor of 0.5, so its table has 64 slots
+    private static final int TABLE_LENGTH = 64;
+
+    /**
+     * Hashes a Long by its upper 32 bits, so the tests choose the home slot of every element
+     * while the lower bits keep the elements distinct
+     */
+    private static final HashingStrategy<Long> UPPER_BITS = new HashingStrategy<Long>() {
+        @Override
+        public int hash(Long element) {
+            return (int) (element >>> 32);
+        }
+
+        @Override
+        public boolean equals(Long a, Long b) {
+            return a.equals(b);
+        }
+    };
+
+    @Test
+    @DisplayName("Random adds and removes match a HashSet while the table resizes")
+    void testMatchesHashSet() {
+        Random random = new Random(SEED);
+        ImprovedCustomSet<Integer> set = new ImprovedCustomSet<>();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Values up to 20_000 make the table grow well past its initial 64 slots
+            Integer value = random.nextInt(50) == 0 ? null : random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int value = 0; value < 20_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        assertEquals(expected.contains(null), set.contains(null));
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(7));
+    }
+
+    @Test
+    @DisplayName("Removing from the middle of a wrapped probe run keeps every other element reachable")
+    void testBackwardShiftAcrossWrappedRun() {
+        int mask = TABLE_LENGTH - 1;
+        // Elements whose home slots are the last two slots and the first two slots of the table
+        List<Long> cluster = new ArrayList<>();
+        int[] homes = {mask - 1, mask - 1, mask - 1, mask, mask, 0, 1, 1};
+        for (int i = 0; i < homes.length; i++) {
+            cluster.add(element(hashForSlot(homes[i], mask), i));
+        }
+
+        // Remove each element of the run in turn from a fresh set
+        for (Long removed : cluster) {
+            ImprovedCustomSet<Long> set = fill(cluster);
+            assertTrue(set.remove(removed));
+            assertFalse(set.contains(removed));
+            assertEquals(cluster.size() - 1, set.size());
+            for (Long remaining : cluster) {
+                if (!remaining.equals(removed)) {
+                    assertTrue(set.contains(remaining), "Lost " + remaining + " after removing " + removed);
+                }
+            }
+        }
+
+        // Remove the whole run in random orders, checking after every removal
+        Random random = new Random(SEED);
+        for (int round = 0; round < 100; round++) {
+            ImprovedCustomSet<Long> set = fill(cluster);
+            List<Long> order = new ArrayList<>(cluster);
+            Collections.shuffle(order, random);
+            for (int i = 0; i < order.size(); i++) {
+                assertTrue(set.remove(order.get(i)));
+                for (int j = i + 1; j < order.size(); j++) {
+                    assertTrue(set.contains(order.get(j)));
+                }
+            }
+            assertEquals(0, set.size());
+        }
+    }
+
+    private static ImprovedCustomSet<Long> fill(List<Long> elements) {
+        ImprovedCustomSet<Long> set = new ImprovedCustomSet<>(UPPER_BITS);
+        for (Long element : elements) {
+            assertTrue(set.add(element));
+        }
+        assertEquals(elements.size(), set.size());
+        return set;
+    }
+
+    private static Long element(int hash, int id) {
+        return ((long) hash << 32) | id;
+    }
+
+    /**
+     * Finds a hash code whose home slot is the given slot. This repeats the slot calculation of
+     * ImprovedCustomSet.indexFor(), which is private.
+     */
+    private static int hashForSlot(int slot, int mask) {
+        for (int hash = 1; ; hash++) {
+            int h = hash * 0x9E3779B9;
+            if (((h ^ (h >>> 16)) & mask) == slot) {
+                return hash;
+            }
+        }
+    }
+}
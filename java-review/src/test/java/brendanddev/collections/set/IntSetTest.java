@@ -0,0 +1,133 @@
+package brendanddev.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for IntSet, checked against a TreeSet holding the same values.
+ *
+ * The values are drawn so that every container kind is used: a few sparse chunks (arrays), a dense
+ * chunk with more than 4096 values (bitmap), and contiguous ranges that runOptimize() turns into runs.
+ */
+public class IntSetTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("Random adds and removes match a TreeSet across container conversions")
+    void testAddRemoveContains() {
+        Random random = new Random(SEED);
+        IntSet set = new IntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int value = randomValue(random);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            if (i % 50_000 == 0) {
+                set.runOptimize();
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(toArray(expected), set.toArray());
+        for (int i = 0; i < 10_000; i++) {
+            int value = randomValue(random);
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Run containers are created for ranges and split when values are removed")
+    void testRunContainers() {
+        IntSet set = new IntSet();
+        for (int i = -100_000; i < 100_000; i++) {
+            set.add(i);
+        }
+        long before = set.estimatedRetainedBytes();
+        assertTrue(set.runOptimize());
+        assertTrue(set.estimatedRetainedBytes() < before / 10);
+        assertEquals("array=0, bitmap=0, run=4", set.containerSummary());
+
+        assertTrue(set.remove(5));
+        assertFalse(set.contains(5));
+        assertTrue(set.contains(4));
+        assertTrue(set.contains(6));
+        assertTrue(set.add(5));
+        assertEquals(200_000, set.size());
+        assertEquals(-100_000, set.toArray()[0]);
+        assertEquals(99_999, set.toArray()[199_999]);
+
+        // Removing every other value fragments the runs until another encoding is smaller
+        for (int i = 0; i < 65_536; i += 2) {
+            set.remove(i);
+        }
+        assertEquals("array=0, bitmap=1, run=3", set.containerSummary());
+    }
+
+    @Test
+    @DisplayName("and, or and andNot match the TreeSet operations")
+    void testSetOperations() {
+        Random random = new Random(SEED);
+        IntSet a = new IntSet();
+        IntSet b = new IntSet();
+        TreeSet<Integer> expectedA = new TreeSet<>();
+        TreeSet<Integer> expectedB = new TreeSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            int value = randomValue(random);
+            a.add(value);
+            expectedA.add(value);
+            value = randomValue(random);
+            b.add(value);
+            expectedB.add(value);
+        }
+        for (int i = 200_000; i < 300_000; i++) {
+            a.add(i);
+            expectedA.add(i);
+        }
+        a.runOptimize();
+
+        TreeSet<Integer> and = new TreeSet<>(expectedA);
+        and.retainAll(expectedB);
+        TreeSet<Integer> or = new TreeSet<>(expectedA);
+        or.addAll(expectedB);
+        TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+        andNot.removeAll(expectedB);
+
+        assertArrayEquals(toArray(and), a.and(b).toArray());
+        assertArrayEquals(toArray(and), b.and(a).toArray());
+        assertArrayEquals(toArray(or), a.or(b).toArray());
+        assertArrayEquals(toArray(andNot), a.andNot(b).toArray());
+        assertEquals(or.size(), a.or(b).size());
+
+        // The results are independent copies
+        IntSet union = a.or(b);
+        union.clear();
+        assertEquals(expectedA.size(), a.size());
+    }
+
+    // Mostly a dense chunk and a sparse spread, with some negative values
+    private static int randomValue(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(20_000);
+            case 1:
+                return random.nextInt(10_000_000) - 1_000_000;
+            default:
+                return 70_000 + random.nextInt(65_536);
+        }
+    }
+
+    private static int[] toArray(TreeSet<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
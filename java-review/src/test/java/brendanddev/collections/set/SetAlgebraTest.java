@@ -0,0 +1,102 @@
+package brendanddev.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the set operations of CustomSet and ImprovedCustomSet.
+ *
+ * Every operation is run once sequentially and once with a parallel threshold of 1, so the parallel
+ * streams are used as well, and the results are checked against java.util.HashSet.
+ */
+public class SetAlgebraTest {
+
+    private static final int SIZE = 2_000;
+
+    @Test
+    @DisplayName("CustomSet operations match HashSet, sequential and parallel")
+    void testCustomSet() {
+        for (int threshold : new int[] {Integer.MAX_VALUE, 1}) {
+            CustomSet<Integer> a = new CustomSet<>();
+            CustomSet<Integer> b = new CustomSet<>();
+            for (int i = 0; i < SIZE; i++) {
+                a.add(i);
+            }
+            for (int i = SIZE / 2; i < SIZE * 2; i++) {
+                b.add(i);
+            }
+            a.add(null);
+            a.setParallelThreshold(threshold);
+
+            assertEquals(expected(a.toArray(), b.toArray(), "union"), asSet(a.union(b).toArray()));
+            assertEquals(expected(a.toArray(), b.toArray(), "intersection"), asSet(a.intersection(b).toArray()));
+            assertEquals(expected(a.toArray(), b.toArray(), "difference"), asSet(a.difference(b).toArray()));
+            assertEquals(a.size() + b.size() - SIZE / 2, a.union(b).size());
+
+            assertFalse(a.containsAll(b));
+            assertTrue(a.containsAll(a.intersection(b)));
+
+            Set<Object> kept = expected(a.toArray(), b.toArray(), "intersection");
+            assertTrue(a.retainAll(b));
+            assertEquals(kept, asSet(a.toArray()));
+            assertFalse(a.retainAll(b));
+        }
+    }
+
+    @Test
+    @DisplayName("ImprovedCustomSet operations match HashSet, sequential and parallel")
+    void testImprovedCustomSet() {
+        for (int threshold : new int[] {Integer.MAX_VALUE, 1}) {
+            ImprovedCustomSet<Integer> a = new ImprovedCustomSet<>();
+            ImprovedCustomSet<Integer> b = new ImprovedCustomSet<>();
+            for (int i = 0; i < SIZE; i++) {
+                a.add(i);
+            }
+            for (int i = SIZE / 2; i < SIZE * 2; i++) {
+                b.add(i);
+            }
+            a.add(null);
+            b.add(null);
+            a.setParallelThreshold(threshold);
+
+            assertEquals(expected(a.toArray(), b.toArray(), "union"), asSet(a.union(b).toArray()));
+            assertEquals(expected(a.toArray(), b.toArray(), "intersection"), asSet(a.intersection(b).toArray()));
+            assertEquals(expected(a.toArray(), b.toArray(), "difference"), asSet(a.difference(b).toArray()));
+            assertTrue(a.intersection(b).contains(null));
+            assertFalse(a.difference(b).contains(null));
+
+            assertFalse(a.containsAll(b));
+            assertTrue(b.containsAll(a.intersection(b)));
+
+            Set<Object> kept = expected(a.toArray(), b.toArray(), "intersection");
+            assertTrue(a.retainAll(b));
+            assertEquals(kept, asSet(a.toArray()));
+            assertEquals(kept.size(), a.size());
+            assertFalse(a.retainAll(b));
+        }
+    }
+
+    private static Set<Object> expected(Object[] a, Object[] b, String operation) {
+        Set<Object> result = asSet(a);
+        if (operation.equals("union")) {
+            result.addAll(asSet(b));
+        } else if (operation.equals("intersection")) {
+            result.retainAll(asSet(b));
+        } else {
+            result.removeAll(asSet(b));
+        }
+        return result;
+    }
+
+    private static Set<Object> asSet(Object[] elements) {
+        return new HashSet<>(Arrays.asList(elements));
+    }
+}
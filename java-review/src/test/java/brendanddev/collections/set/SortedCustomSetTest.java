@@ -0,0 +1,98 @@
+package brendanddev.collections.set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for SortedCustomSet, checked against a TreeSet, including elements bulk loaded with load()
+ * and sorted lazily by the next query.
+ */
+public class SortedCustomSetTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("Interleaved adds, loads, removes and queries match a TreeSet")
+    void testMatchesTreeSet() {
+        Random random = new Random(SEED);
+        SortedCustomSet<Integer> set = new SortedCustomSet<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            int operation = random.nextInt(5);
+            if (operation == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else if (operation == 1) {
+                assertEquals(expected.add(value), set.add(value));
+            } else if (operation == 2) {
+                // Loaded elements stay unsorted until the next query
+                set.load(value);
+                expected.add(value);
+            } else if (operation == 3) {
+                assertEquals(expected.contains(value), set.contains(value));
+            } else {
+                assertEquals(expected.size(), set.size());
+            }
+        }
+        assertArrayEquals(expected.toArray(), set.toArray());
+        assertEquals(expected.first(), set.first());
+        assertEquals(expected.last(), set.last());
+    }
+
+    @Test
+    @DisplayName("Duplicates loaded before a lazy sort are counted once")
+    void testLoadedDuplicates() {
+        SortedCustomSet<String> set = new SortedCustomSet<>();
+        set.add("b");
+        set.load("d");
+        set.load("a");
+        set.load("b");
+        set.load("d");
+        assertEquals(3, set.size());
+        assertTrue(set.contains("a"));
+        assertFalse(set.add("d"));
+        assertTrue(set.add("c"));
+        assertArrayEquals(new Object[] {"a", "b", "c", "d"}, set.toArray());
+
+        // Elements the comparator treats as equal are duplicates, even when equals() differs
+        SortedCustomSet<String> ignoringCase = new SortedCustomSet<>(String.CASE_INSENSITIVE_ORDER);
+        ignoringCase.load("Apple");
+        ignoringCase.load("APPLE");
+        ignoringCase.load("banana");
+        assertEquals(2, ignoringCase.size());
+        assertTrue(ignoringCase.contains("apple"));
+    }
+
+    @Test
+    @DisplayName("A frozen set is sorted, trimmed and rejects every change")
+    void testFreeze() {
+        SortedCustomSet<Integer> set = new SortedCustomSet<>(Comparator.reverseOrder());
+        for (int value : new int[] {5, 1, 4, 1, 3, 5}) {
+            set.load(value);
+        }
+        assertTrue(set.freeze().isFrozen());
+        assertEquals(4, set.capacity());
+        assertArrayEquals(new Object[] {5, 4, 3, 1}, set.toArray());
+        assertThrows(UnsupportedOperationException.class, () -> set.add(2));
+        assertThrows(UnsupportedOperationException.class, () -> set.load(2));
+        assertThrows(UnsupportedOperationException.class, () -> set.remove(5));
+        assertThrows(UnsupportedOperationException.class, set::clear);
+        assertEquals(4, set.size());
+
+        // Range queries return unfrozen copies
+        SortedCustomSet<Integer> middle = set.subSet(4, 1);
+        assertArrayEquals(new Object[] {4, 3}, middle.toArray());
+        assertTrue(middle.add(2));
+        assertEquals(4, set.size());
+    }
+}
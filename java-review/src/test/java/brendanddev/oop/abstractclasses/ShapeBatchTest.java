@@ -0,0 +1,115 @@
+package brendanddev.oop.abstractclasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the columnar totals of ShapeBatch against summing getArea() over a List of Rectangles.
+ */
+public class ShapeBatchTest {
+
+    private static final long SEED = 42;
+    private static final String[] COLORS = {"Red", "Green", "Blue", null};
+
+    @Test
+    @DisplayName("Totals match the sums over a List of Rectangles")
+    void testTotalsMatchList() {
+        Random random = new Random(SEED);
+        List<Rectangle> rectangles = new ArrayList<>();
+        // An odd size, so the loops also run their remainder
+        for (int i = 0; i < 10_003; i++) {
+            rectangles.add(new Rectangle(COLORS[random.nextInt(COLORS.length)],
+                    random.nextDouble() * 10, random.nextDouble() * 10));
+        }
+        ShapeBatch batch = ShapeBatch.of(rectangles);
+
+        double total = 0;
+        double red = 0;
+        double unnamed = 0;
+        double large = 0;
+        for (Rectangle rectangle : rectangles) {
+            double area = rectangle.getArea();
+            total += area;
+            if ("Red".equals(rectangle.color)) {
+                red += area;
+            }
+            if (rectangle.color == null) {
+                unnamed += area;
+            }
+            if (area >= 50) {
+                large += area;
+            }
+        }
+
+        // The batch adds in a different order, so only the last bits may differ
+        assertEquals(total, batch.totalArea(), total * 1e-12);
+        assertEquals(red, batch.totalArea("Red"), red * 1e-12);
+        assertEquals(unnamed, batch.totalArea(null), unnamed * 1e-12);
+        assertEquals(large, batch.totalAreaAtLeast(50), large * 1e-12);
+        assertEquals(0, batch.totalArea("Purple"));
+        assertEquals(rectangles.get(7).getArea(), batch.getArea(7));
+        assertEquals(rectangles.get(7).color, batch.getColor(7));
+    }
+
+    @Test
+    @DisplayName("The area factor is applied to every total")
+    void testAreaFactor() {
+        ShapeBatch triangles = new ShapeBatch(0.5, 1);
+        triangles.add("Red", 4, 3);
+        triangles.add("Blue", 2, 2);
+        triangles.add("Red", 10, 1);
+        assertEquals(3, triangles.size());
+        assertEquals(6 + 2 + 5, triangles.totalArea());
+        assertEquals(6 + 5, triangles.totalArea("Red"));
+        assertEquals(6 + 5, triangles.totalAreaAtLeast(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> triangles.getArea(3));
+        assertThrows(IllegalArgumentException.class, () -> new ShapeBatch(0));
+    }
+
+    @Test
+    @DisplayName("Excluded shapes with NaN or overflowing areas do not affect the filtered totals")
+    void testNonFiniteExcludedShapes() {
+        ShapeBatch colored = ShapeBatch.rectangles();
+        // Nine shapes, so excluded ones land both in the unrolled loop and in the remainder
+        for (int i = 0; i < 2; i++) {
+            colored.add("Red", 2, 3);
+            colored.add("Blue", Double.NaN, 1);
+            colored.add("Blue", 1e200, 1e200);
+            colored.add("Blue", Double.POSITIVE_INFINITY, 1);
+        }
+        colored.add("Blue", Double.NaN, Double.POSITIVE_INFINITY);
+        assertEquals(12, colored.totalArea("Red"));
+        assertEquals(Double.NaN, colored.totalArea("Blue"));
+        assertEquals(Double.NaN, colored.totalArea());
+
+        ShapeBatch sized = ShapeBatch.rectangles();
+        for (int i = 0; i < 2; i++) {
+            sized.add("Red", 2, 3);
+            sized.add("Red", Double.NaN, 1);
+            sized.add("Red", 1, 1);
+            sized.add("Red", 1, Double.NaN);
+        }
+        sized.add("Red", Double.NaN, Double.NaN);
+        // A NaN area is never at least the threshold
+        assertEquals(12, sized.totalAreaAtLeast(5));
+        assertEquals(14, sized.totalAreaAtLeast(0.5));
+        assertEquals(0, sized.totalAreaAtLeast(1e300));
+
+        // Thresholds that are not finite take the plain loop
+        assertEquals(0, sized.totalAreaAtLeast(Double.NaN));
+        assertEquals(0, sized.totalAreaAtLeast(Double.POSITIVE_INFINITY));
+        assertEquals(14, sized.totalAreaAtLeast(Double.NEGATIVE_INFINITY));
+
+        // An area that overflows is infinite, which is at least any threshold
+        sized.add("Red", 1e200, 1e200);
+        assertEquals(Double.POSITIVE_INFINITY, sized.totalAreaAtLeast(1e300));
+        assertEquals(Double.POSITIVE_INFINITY, sized.totalAreaAtLeast(Double.POSITIVE_INFINITY));
+    }
+}
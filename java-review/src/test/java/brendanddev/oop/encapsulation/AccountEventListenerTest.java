@@ -0,0 +1,165 @@
+package brendanddev.oop.encapsulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the AccountEventListeners of BankAccount.
+ *
+ * The console listener and the asynchronous sink must print exactly the messages BankAccount used to print,
+ * in the same order, and the default listener must print nothing.
+ */
+public class AccountEventListenerTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private static final String EXPECTED = "Initial balance cannot be negative." + NL
+            + "Deposited: 100.0" + NL
+            + "Deposit amount must be positive." + NL
+            + "Withdrew: 30.0" + NL
+            + "Insufficient funds for withdrawal." + NL
+            + "Withdrawal amount must be positive." + NL;
+
+    @Test
+    @DisplayName("The console listener prints the messages BankAccount used to print")
+    void testConsoleListener() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        runTransactions(AccountEventListener.console(new PrintStream(bytes, true)));
+        assertEquals(EXPECTED, bytes.toString());
+    }
+
+    @Test
+    @DisplayName("The default listener ignores every event")
+    void testDefaultIsNoOp() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true));
+        try {
+            BankAccount account = new BankAccount(1, "ACC-1", "Alice", -5);
+            account.deposit(100);
+            account.withdraw(500);
+            assertEquals(100.0, account.getBalance());
+        } finally {
+            System.setOut(original);
+        }
+        assertEquals("", bytes.toString());
+    }
+
+    @Test
+    @DisplayName("The async sink prints every event in order once it is closed")
+    void testAsyncSinkPrintsInOrder() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AsyncAccountEventSink sink = new AsyncAccountEventSink(new PrintStream(bytes), 2, false)) {
+            // The queue only holds two events, so the account has to wait for the flusher
+            runTransactions(sink);
+        }
+        assertEquals(EXPECTED, bytes.toString());
+
+        // The events of many accounts are all printed
+        bytes.reset();
+        try (AsyncAccountEventSink sink = new AsyncAccountEventSink(new PrintStream(bytes), 64, false)) {
+            List<BankAccount> accounts = new ArrayList<>();
+            for (int id = 0; id < 100; id++) {
+                accounts.add(new BankAccount(id, "ACC-" + id, "Holder " + id, 0, sink));
+            }
+            for (int i = 0; i < 1_000; i++) {
+                accounts.get(i % 100).deposit(1);
+            }
+            assertEquals(0, sink.getDroppedCount());
+        }
+        assertEquals(1_000, bytes.toString().split(NL).length);
+    }
+
+    @Test
+    @DisplayName("A dropping sink counts the events that did not fit in the queue")
+    void testAsyncSinkDropsWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                try {
+                    // Holds the flusher until the queue has overflowed
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AsyncAccountEventSink sink = new AsyncAccountEventSink(new PrintStream(blocked), 4, true);
+        BankAccount account = new BankAccount(1, "ACC-1", "Alice", 0, sink);
+        for (int i = 0; i < 100; i++) {
+            account.deposit(1);
+        }
+        assertTrue(sink.getDroppedCount() > 0);
+        assertEquals(100.0, account.getBalance());
+        release.countDown();
+        sink.close();
+
+        // After close() events are only counted
+        long dropped = sink.getDroppedCount();
+        account.deposit(1);
+        assertEquals(dropped + 1, sink.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Closing the sink while producers are running prints or drops every event")
+    void testCloseWhileProducing() throws Exception {
+        final int producers = 4;
+        final int eventsPerProducer = 20_000;
+        for (boolean dropWhenFull : new boolean[] {false, true}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            AsyncAccountEventSink sink = new AsyncAccountEventSink(new PrintStream(bytes), 8, dropWhenFull);
+            ExecutorService pool = Executors.newFixedThreadPool(producers);
+            CountDownLatch started = new CountDownLatch(producers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int id = p;
+                futures.add(pool.submit(() -> {
+                    BankAccount account = new BankAccount(id, "ACC-" + id, "Holder " + id, 0, sink);
+                    started.countDown();
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        account.deposit(1);
+                    }
+                }));
+            }
+            started.await();
+            sink.close();
+
+            // No producer may be left waiting for room in a queue nobody drains
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS), "Producers did not finish");
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            String printed = bytes.toString();
+            long lines = printed.isEmpty() ? 0 : printed.split(NL).length;
+            assertEquals((long) producers * eventsPerProducer, lines + sink.getDroppedCount());
+            assertEquals(0, sink.getQueuedCount());
+        }
+    }
+
+    private static void runTransactions(AccountEventListener listener) {
+        BankAccount account = new BankAccount(1, "ACC-1", "Alice", -5, listener);
+        account.deposit(100);
+        account.deposit(0);
+        account.withdraw(30);
+        account.withdraw(500);
+        account.withdraw(-1);
+        assertEquals(70.0, account.getBalance());
+    }
+}
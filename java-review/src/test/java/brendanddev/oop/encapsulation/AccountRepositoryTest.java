@@ -0,0 +1,214 @@
+package brendanddev.oop.encapsulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for AccountRepository: both indexes under concurrent use, CSV loading and snapshot round trips.
+ */
+public class AccountRepositoryTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Concurrent adds, lookups and removes keep both indexes in step")
+    void testConcurrentAccess() throws Exception {
+        AccountRepository repository = new AccountRepository(4, 0);
+        runConcurrently(thread -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                int id = thread * PER_THREAD + i;
+                assertTrue(repository.add(account(id)));
+                assertSame(repository.findById(id), repository.findByAccountNumber("ACC-" + id));
+
+                // A taken id or a taken number is rejected
+                assertFalse(repository.add(new ConcurrentBankAccount(id, "OTHER-" + id, "Mallory")));
+                assertFalse(repository.add(new ConcurrentBankAccount(-id - 1, "ACC-" + id, "Mallory")));
+                if (i % 3 == 0) {
+                    assertSame(repository.findById(id), repository.remove(id));
+                    assertNull(repository.findByAccountNumber("ACC-" + id));
+                }
+            }
+        });
+
+        int removed = THREADS * ((PER_THREAD + 2) / 3);
+        assertEquals(THREADS * PER_THREAD - removed, repository.size());
+        int[] counted = {0};
+        repository.forEach(account -> {
+            counted[0]++;
+            assertSame(account, repository.findByAccountNumber(account.getAccountNumber()));
+        });
+        assertEquals(repository.size(), counted[0]);
+    }
+
+    @Test
+    @DisplayName("Accounts are loaded from CSV, including holder names with commas")
+    void testLoadCsv() throws IOException {
+        Path csv = tempDir.resolve("accounts.csv");
+        Files.write(csv, Arrays.asList(
+                "accountId,accountNumber,accountHolderName,balanceCents",
+                "1,ACC-1,Alice,1050",
+                "",
+                "2, ACC-2 ,Smith, Bob,0"), StandardCharsets.UTF_8);
+        AccountRepository repository = new AccountRepository();
+        assertEquals(2, repository.loadCsv(csv));
+        assertEquals(1050, repository.findById(1).getBalanceCents());
+        assertEquals("Smith, Bob", repository.findByAccountNumber("ACC-2").accountHolderName);
+
+        Files.write(csv, Arrays.asList("3,ACC-3,Carol,12", "4,ACC-1,Dave,5"), StandardCharsets.UTF_8);
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class, () -> repository.loadCsv(csv));
+        assertTrue(duplicate.getMessage().startsWith("Line 2"));
+        assertEquals(3, repository.size());
+
+        Files.write(csv, Arrays.asList("5,ACC-5,Eve"), StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> repository.loadCsv(csv));
+        Files.write(csv, Arrays.asList("6,ACC-6,Frank,-1"), StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> repository.loadCsv(csv));
+    }
+
+    @Test
+    @DisplayName("A snapshot restores every account into a repository with a different number of shards")
+    void testSnapshotRoundTrip() throws IOException {
+        AccountRepository repository = new AccountRepository(16, 10_000);
+        for (int id = 0; id < 10_000; id++) {
+            repository.add(account(id));
+        }
+        ConcurrentBankAccount special = new ConcurrentBankAccount(-7, "ACC-\u00e9\u4e2d", null, 1);
+        special.bankName = "Savings & Loan";
+        repository.add(special);
+
+        Path file = tempDir.resolve("accounts.snapshot");
+        assertEquals(10_001, repository.snapshot(file));
+
+        AccountRepository restored = new AccountRepository(2, 0);
+        assertEquals(10_001, restored.restore(file));
+        assertEquals(repository.size(), restored.size());
+        repository.forEach(expected -> {
+            ConcurrentBankAccount actual = restored.findById(expected.getAccountId());
+            assertEquals(expected.getAccountNumber(), actual.getAccountNumber());
+            assertEquals(expected.getBalanceCents(), actual.getBalanceCents());
+            assertEquals(expected.accountHolderName, actual.accountHolderName);
+            assertEquals(expected.bankName, actual.bankName);
+            assertSame(actual, restored.findByAccountNumber(expected.getAccountNumber()));
+        });
+
+        // A truncated file is rejected
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> new AccountRepository().restore(file));
+    }
+
+    @Test
+    @DisplayName("A snapshot replaces the previous file atomically and leaves no temporary file behind")
+    void testSnapshotReplacesAtomically() throws IOException {
+        AccountRepository repository = new AccountRepository();
+        for (int id = 0; id < 100; id++) {
+            repository.add(account(id));
+        }
+        Path dir = Files.createDirectory(tempDir.resolve("snapshots"));
+        Path file = dir.resolve("accounts.snapshot");
+        Files.write(file, "an older snapshot".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(100, repository.snapshot(file));
+        assertEquals(100, new AccountRepository().restore(file));
+        assertEquals(Arrays.asList(file), listFiles(dir));
+
+        // When the move fails the target is untouched and the temporary file is removed
+        Path occupied = Files.createDirectory(dir.resolve("occupied"));
+        Files.write(occupied.resolve("keep"), new byte[] {1});
+        assertThrows(IOException.class, () -> repository.snapshot(occupied));
+        assertTrue(Files.exists(occupied.resolve("keep")));
+        assertEquals(Arrays.asList(file, occupied), listFiles(dir));
+    }
+
+    @Test
+    @DisplayName("Snapshots with block or account counts larger than the file are rejected before reading them")
+    void testRestoreRejectsCorruptCounts() throws IOException {
+        Path file = tempDir.resolve("corrupt.snapshot");
+        int[][] headers = {
+            {Integer.MAX_VALUE},
+            {-1},
+            {1, -1},
+            {1, 1_000_000},
+            {2, 0, Integer.MAX_VALUE},
+        };
+        for (int[] header : headers) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * (header.length + 1) + 32);
+            buffer.putInt(0x41435231);
+            for (int value : header) {
+                buffer.putInt(value);
+            }
+            Files.write(file, buffer.array());
+
+            AccountRepository repository = new AccountRepository();
+            assertThrows(IOException.class, () -> repository.restore(file), Arrays.toString(header));
+            assertEquals(0, repository.size());
+        }
+    }
+
+    private static List<Path> listFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static ConcurrentBankAccount account(int id) {
+        return new ConcurrentBankAccount(id, "ACC-" + id, "Holder " + id, id * 10L);
+    }
+
+    /**
+     * Runs the task on THREADS threads at once, passing each its thread number,
+     * and rethrows the first failure
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,115 @@
+package brendanddev.oop.encapsulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multi-threaded tests for ConcurrentBankAccount.
+ *
+ * All threads work on the same account at once. No deposit may be lost, and the withdrawals that succeed
+ * may never add up to more than the account held.
+ */
+public class ConcurrentBankAccountTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 100_000;
+
+    @Test
+    @DisplayName("Concurrent deposits are never lost")
+    void testConcurrentDeposits() throws Exception {
+        ConcurrentBankAccount account = new ConcurrentBankAccount(1, "ACC-1", "Alice");
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                account.deposit(1);
+            }
+        });
+        assertEquals((long) THREADS * OPERATIONS, account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Concurrent withdrawals never overdraw the account")
+    void testConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        long initial = OPERATIONS;
+        ConcurrentBankAccount account = new ConcurrentBankAccount(1, "ACC-1", "Alice", initial);
+        AtomicLong withdrawn = new AtomicLong();
+        runConcurrently(thread -> {
+            // Together the threads try to withdraw three times the balance
+            for (int i = 0; i < OPERATIONS * 3 / THREADS; i++) {
+                if (account.withdraw(1 + thread % 2).isSuccess()) {
+                    withdrawn.addAndGet(1 + thread % 2);
+                }
+            }
+        });
+        assertEquals(initial, withdrawn.get() + account.getBalanceCents());
+        assertEquals(TransactionResult.INSUFFICIENT_FUNDS, account.withdraw(account.getBalanceCents() + 1));
+    }
+
+    @Test
+    @DisplayName("Mixed deposits and withdrawals keep the balance equal to the sum of successful transactions")
+    void testMixedTransactions() throws Exception {
+        ConcurrentBankAccount account = new ConcurrentBankAccount(1, "ACC-1", "Alice", 500);
+        AtomicLong net = new AtomicLong(500);
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                long amount = 1 + (i + thread) % 7;
+                if (i % 2 == 0) {
+                    account.deposit(amount);
+                    net.addAndGet(amount);
+                } else if (account.withdraw(amount).isSuccess()) {
+                    net.addAndGet(-amount);
+                }
+            }
+        });
+        assertEquals(net.get(), account.getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Invalid amounts are rejected with a result code")
+    void testInvalidAmounts() {
+        ConcurrentBankAccount account = new ConcurrentBankAccount(1, "ACC-1", "Alice", 100);
+        assertEquals(TransactionResult.INVALID_AMOUNT, account.deposit(0));
+        assertEquals(TransactionResult.INVALID_AMOUNT, account.withdraw(-5));
+        assertEquals(100, account.getBalanceCents());
+        assertEquals(1234, ConcurrentBankAccount.toCents(12.34));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBankAccount(2, "ACC-2", "Bob", -1));
+    }
+
+    /**
+     * Runs the task on THREADS threads at once, passing each its thread number,
+     * and rethrows the first failure
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,172 @@
+package brendanddev.oop.encapsulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TransferEngine and TransactionLog.
+ *
+ * Transfers only move money between accounts, so whatever the threads do, the sum of all balances must stay
+ * the same, no balance may go negative, and opposite transfers on the same pair of accounts must not deadlock.
+ */
+public class TransferEngineTest {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 100;
+    private static final long INITIAL_BALANCE = 1_000;
+    private static final long SEED = 42;
+
+    @Test
+    @DisplayName("A parallel batch keeps the total balance and logs every transfer with its result")
+    void testParallelBatch() {
+        ConcurrentBankAccount[] accounts = createAccounts();
+        TransactionLog log = new TransactionLog(1 << 16);
+        TransferBatch batch = new TransferBatch(50_000);
+        Random random = new Random(SEED);
+        for (int i = 0; i < batch.capacity(); i++) {
+            batch.add(random.nextInt(ACCOUNTS), random.nextInt(ACCOUNTS), 1 + random.nextInt(500));
+        }
+
+        int succeeded;
+        try (TransferEngine engine = new TransferEngine(id -> lookup(accounts, id), log, 4)) {
+            succeeded = engine.apply(batch);
+        }
+
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, totalBalance(accounts));
+        for (ConcurrentBankAccount account : accounts) {
+            assertTrue(account.getBalanceCents() >= 0);
+        }
+
+        // Every transfer is logged once, with the result written to the batch
+        assertEquals(batch.size(), log.size());
+        int[] logged = {0};
+        log.forEach((sequence, from, to, amount, result) -> {
+            if (result.isSuccess()) {
+                logged[0]++;
+            }
+        });
+        assertEquals(succeeded, logged[0]);
+        int expected = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.result(i).isSuccess()) {
+                expected++;
+            }
+        }
+        assertEquals(expected, succeeded);
+    }
+
+    @Test
+    @DisplayName("Opposite transfers between the same accounts do not deadlock")
+    void testOppositeTransfersDoNotDeadlock() throws Exception {
+        ConcurrentBankAccount[] accounts = createAccounts();
+        TransferEngine engine = new TransferEngine(id -> lookup(accounts, id), new TransactionLog(16));
+        runConcurrently(thread -> {
+            for (int i = 0; i < 100_000; i++) {
+                // Even threads move money from 0 to 1, odd threads from 1 to 0
+                if (thread % 2 == 0) {
+                    engine.transfer(0, 1, 3);
+                } else {
+                    engine.transfer(1, 0, 3);
+                }
+            }
+        });
+        assertEquals(2 * INITIAL_BALANCE, accounts[0].getBalanceCents() + accounts[1].getBalanceCents());
+    }
+
+    @Test
+    @DisplayName("Invalid transfers are rejected without changing any balance")
+    void testInvalidTransfers() {
+        ConcurrentBankAccount[] accounts = createAccounts();
+        TransferEngine engine = new TransferEngine(id -> lookup(accounts, id), new TransactionLog(16));
+        assertEquals(TransactionResult.INVALID_AMOUNT, engine.transfer(0, 1, 0));
+        assertEquals(TransactionResult.SAME_ACCOUNT, engine.transfer(2, 2, 10));
+        assertEquals(TransactionResult.UNKNOWN_ACCOUNT, engine.transfer(0, ACCOUNTS, 10));
+        assertEquals(TransactionResult.INSUFFICIENT_FUNDS, engine.transfer(0, 1, INITIAL_BALANCE + 1));
+        assertEquals(TransactionResult.SUCCESS, engine.transfer(0, 1, INITIAL_BALANCE));
+        assertEquals(0, accounts[0].getBalanceCents());
+        assertEquals(2 * INITIAL_BALANCE, accounts[1].getBalanceCents());
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, totalBalance(accounts));
+    }
+
+    @Test
+    @DisplayName("The log overwrites its oldest entries once it is full")
+    void testLogWrapsAround() {
+        TransactionLog log = new TransactionLog(3);
+        assertEquals(4, log.capacity());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, log.append(i, i + 1, i * 10L, TransactionResult.SUCCESS));
+        }
+        assertEquals(4, log.size());
+        assertEquals(10, log.totalAppended());
+        assertEquals(6, log.oldestSequence());
+        assertEquals(6, log.fromAccountId(6));
+        assertEquals(90, log.amountCents(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.amountCents(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.amountCents(10));
+
+        List<Long> sequences = new ArrayList<>();
+        log.forEach((sequence, from, to, amount, result) -> sequences.add(sequence));
+        assertEquals(Arrays.asList(6L, 7L, 8L, 9L), sequences);
+    }
+
+    private static ConcurrentBankAccount[] createAccounts() {
+        ConcurrentBankAccount[] accounts = new ConcurrentBankAccount[ACCOUNTS];
+        for (int id = 0; id < ACCOUNTS; id++) {
+            accounts[id] = new ConcurrentBankAccount(id, "ACC-" + id, "Holder " + id, INITIAL_BALANCE);
+        }
+        return accounts;
+    }
+
+    private static ConcurrentBankAccount lookup(ConcurrentBankAccount[] accounts, int id) {
+        return id >= 0 && id < accounts.length ? accounts[id] : null;
+    }
+
+    private static long totalBalance(ConcurrentBankAccount[] accounts) {
+        long total = 0;
+        for (ConcurrentBankAccount account : accounts) {
+            total += account.getBalanceCents();
+        }
+        return total;
+    }
+
+    /**
+     * Runs the task on THREADS threads at once, passing each its thread number,
+     * and rethrows the first failure
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}